@@ -22,6 +22,16 @@ public interface ArrayReader {
         return JacksonReader.INSTANCE;
     }
     
+    /**
+     * Get a reader that reads the compact binary format produced by {@link ArrayWriter#binaryWriter()}, and that also reads
+     * JSON content.
+     * 
+     * @return the binary reader; never null
+     */
+    static ArrayReader binaryReader() {
+        return BinaryReader.INSTANCE;
+    }
+    
     Array readArray( InputStream jsonStream ) throws IOException;
     
     Array readArray( Reader jsonReader ) throws IOException;
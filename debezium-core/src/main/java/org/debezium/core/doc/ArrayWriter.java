@@ -9,6 +9,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 /**
  * @author Randall Hauch
@@ -24,6 +25,17 @@ public interface ArrayWriter {
         return JacksonWriter.PRETTY_WRITER;
     }
     
+    /**
+     * Get a writer that produces a compact binary format from the {@link #writeAsBytes(Array)} and
+     * {@link #write(Array, OutputStream)} methods. The methods that write characters still produce JSON.
+     * 
+     * @return the binary writer; never null
+     * @see ArrayReader#binaryReader()
+     */
+    static ArrayWriter binaryWriter() {
+        return BinaryWriter.INSTANCE;
+    }
+    
     default byte[] writeAsBytes( Array array ) {
         try (ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
             write(array, stream);
@@ -35,6 +47,21 @@ public interface ArrayWriter {
         }
     }
     
+    /**
+     * Write the array into the supplied buffer, starting at the buffer's current position. The array is completely encoded
+     * before any bytes are put into the buffer, so the buffer is unchanged if it does not have enough space remaining.
+     * 
+     * @param array the array to be written; may not be null
+     * @param buffer the buffer into which the bytes are to be written; may not be null
+     * @return the number of bytes written into the buffer
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining
+     */
+    default int write( Array array, ByteBuffer buffer ) {
+        byte[] bytes = writeAsBytes(array);
+        buffer.put(bytes);
+        return bytes.length;
+    }
+    
     void write( Array array, OutputStream jsonStream ) throws IOException;
     
     void write( Array array, Writer jsonWriter ) throws IOException;
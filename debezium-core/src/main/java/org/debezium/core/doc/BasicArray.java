@@ -155,6 +155,10 @@ final class BasicArray implements Array {
             BasicArray that = (BasicArray) obj;
             return values.equals(that.values);
         }
+        if (obj instanceof Array) {
+            // Let the other implementation compare the values ...
+            return obj.equals(this);
+        }
         return false;
     }
     
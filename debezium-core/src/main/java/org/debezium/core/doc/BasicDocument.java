@@ -7,7 +7,6 @@ package org.debezium.core.doc;
 
 import java.io.IOException;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Function;
@@ -15,6 +14,15 @@ import java.util.function.Function;
 import org.debezium.core.util.Iterators;
 
 /**
+ * The standard {@link Document} implementation, backed by an insertion-ordered map that is {@link CompactFields compact} for
+ * documents with few fields.
+ * <p>
+ * Clones are copy-on-write: {@link #clone() cloning} a document simply shares the map between both instances, and any instance
+ * that is modified (or exposes a nested document, array or binary value that might then be modified) while the map is still
+ * shared makes a shallow copy of the map and clones only those mutable values. Since nested documents are cloned the same way,
+ * only the levels of the tree that are actually touched are ever copied. A document that has already exposed nested mutable
+ * values cannot share them, since they might still be changed, so its clones get their own copies of those values.
+ * 
  * @author Randall Hauch
  *
  */
@@ -27,9 +35,36 @@ final class BasicDocument implements Document {
         }
     };
 
-    private final Map<CharSequence, Value> fields = new LinkedHashMap<>();
+    private CompactFields fields;
+    private boolean exposed = false;
 
     BasicDocument() {
+        this.fields = new CompactFields();
+    }
+
+    private BasicDocument(CompactFields fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Ensure that this document has its own copy of the fields, which must be done before the fields are modified or any
+     * mutable value is exposed.
+     */
+    private void unshare() {
+        if (fields.isShared()) {
+            CompactFields copy = copyFields();
+            fields.release();
+            fields = copy;
+            exposed = false;
+        }
+    }
+
+    private CompactFields copyFields() {
+        return fields.copy(value -> isMutable(value) ? value.clone() : value);
+    }
+
+    private static boolean isMutable(Value value) {
+        return value.isDocument() || value.isArray() || value.isBinary();
     }
 
     @Override
@@ -58,17 +93,26 @@ final class BasicDocument implements Document {
 
     @Override
     public Iterable<CharSequence> keySet() {
-        return fields.keySet();
+        // Names are immutable, so a read-only view of whichever fields this document has when iterated doesn't need a copy ...
+        return () -> Iterators.readOnly(fields.keySet());
     }
 
     @Override
     public Iterator<Field> iterator() {
+        unshare();
+        exposed = true;
         return Iterators.around(fields.entrySet(), CONVERT_ENTRY_TO_FIELD);
     }
 
     @Override
     public void clear() {
-        fields.clear();
+        if (fields.isShared()) {
+            fields.release();
+            fields = new CompactFields();
+        } else {
+            fields.clear();
+        }
+        exposed = false;
     }
 
     @Override
@@ -89,7 +133,15 @@ final class BasicDocument implements Document {
     @Override
     public Value get(CharSequence fieldName, Comparable<?> defaultValue) {
         Value value = fields.get(fieldName);
-        return value != null ? value : Value.create(defaultValue);
+        if (value == null) return Value.create(defaultValue);
+        if (isMutable(value)) {
+            if (fields.isShared()) {
+                unshare();
+                value = fields.get(fieldName);
+            }
+            exposed = true;
+        }
+        return value;
     }
 
     @Override
@@ -100,26 +152,48 @@ final class BasicDocument implements Document {
 
     @Override
     public Document removeAll() {
-        fields.clear();
+        clear();
         return this;
     }
 
     @Override
     public Value remove(CharSequence name) {
         if (!fields.containsKey(name)) return null;
+        unshare();
         Comparable<?> removedValue = fields.remove(name);
         return Value.create(removedValue);
     }
 
     @Override
     public Document setValue(CharSequence name, Value value) {
+        unshare();
         this.fields.put(name, value != null ? value.clone() : Value.nullValue());
         return this;
     }
 
+    /**
+     * Set the value of the named field without cloning the value. This should only be used by readers and other components that
+     * construct a value that is not shared with any other document.
+     * 
+     * @param name the name of the field; may not be null
+     * @param value the value; may not be null
+     * @return this document; never null
+     */
+    BasicDocument putValue(CharSequence name, Value value) {
+        unshare();
+        this.fields.put(name, value);
+        return this;
+    }
+
     @Override
     public Document clone() {
-        return new BasicDocument().putAll(this);
+        if (exposed) {
+            // Nested values have been handed out and may still be changed, so the clone needs its own ...
+            return new BasicDocument(copyFields());
+        }
+        // Share the fields until either document needs to modify them ...
+        fields.share();
+        return new BasicDocument(fields);
     }
 
     @Override
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.debezium.core.annotation.Immutable;
+
+/**
+ * A {@link DocumentTemplate} that encodes the common fields once, and that builds each document by writing the common fields'
+ * bytes followed by the additional fields. The field name symbols defined by the common fields are reused by the additional
+ * fields.
+ *
+ * @author Randall Hauch
+ */
+@Immutable
+final class BinaryDocumentTemplate implements DocumentTemplate {
+
+    private final BinaryWriter.Output common;
+    private final Set<String> names = new HashSet<>();
+
+    BinaryDocumentTemplate(Document commonFields) {
+        this.common = new BinaryWriter.Output(null);
+        for (Document.Field field : commonFields) {
+            String name = field.getName().toString();
+            names.add(name);
+            common.writeField(name, field.getValue());
+        }
+    }
+
+    @Override
+    public Builder create() {
+        BinaryWriter.Output fields = new BinaryWriter.Output(common.symbols());
+        Set<String> added = new HashSet<>();
+        return new Builder() {
+            @Override
+            public Builder set(CharSequence name, Value value) {
+                String fieldName = name.toString();
+                if (names.contains(fieldName) || !added.add(fieldName)) {
+                    throw new IllegalArgumentException("The document already contains a '" + fieldName + "' field");
+                }
+                fields.writeField(fieldName, value);
+                return this;
+            }
+
+            @Override
+            public Document build() {
+                BinaryWriter.Output output = BinaryWriter.output();
+                try {
+                    output.writeDocumentStart(names.size() + added.size());
+                    common.writeTo(output);
+                    fields.writeTo(output);
+                    return BinaryReader.LAZY.read(output.toByteArray());
+                } catch (IOException e) {
+                    // This should never happen, since we just wrote the bytes ...
+                    throw new IllegalStateException("Unable to read built document", e);
+                } finally {
+                    output.release();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.debezium.core.util.IoUtil;
+
+/**
+ * A reader of the compact binary representation written by {@link BinaryWriter}. Any content that does not start with the
+ * {@link BinaryWriter#MAGIC magic byte} is assumed to be JSON and is parsed with the {@link JacksonReader}, so this reader can
+ * be used wherever both formats may appear.
+ * <p>
+ * The {@link #LAZY lazy reader} does not decode binary documents up front, but instead returns a read-only {@link LazyDocument}
+ * view that decodes fields only as they are accessed.
+ *
+ * @author Randall Hauch
+ * @see BinaryWriter
+ */
+final class BinaryReader implements DocumentReader, ArrayReader {
+
+    public static final BinaryReader INSTANCE = new BinaryReader(false);
+    public static final BinaryReader LAZY = new BinaryReader(true);
+
+    private final boolean lazy;
+
+    private BinaryReader(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /**
+     * Determine whether the supplied bytes contain a value written by the {@link BinaryWriter}.
+     *
+     * @param bytes the bytes; may be null
+     * @return true if the bytes are in the binary format, or false otherwise
+     */
+    static boolean isBinary(byte[] bytes) {
+        return bytes != null && bytes.length > 1 && bytes[0] == BinaryWriter.MAGIC;
+    }
+
+    @Override
+    public Document read(byte[] rawBytes) throws IOException {
+        if (!isBinary(rawBytes)) return JacksonReader.INSTANCE.read(rawBytes);
+        Input input = new Input(rawBytes);
+        return lazy ? input.readTopLevelLazyDocument() : input.readTopLevelDocument();
+    }
+
+    @Override
+    public Document read(InputStream stream) throws IOException {
+        return read(IoUtil.readBytes(stream));
+    }
+
+    @Override
+    public Document read(File file) throws IOException {
+        return read(IoUtil.readBytes(file));
+    }
+
+    @Override
+    public Document read(URL url) throws IOException {
+        return read(url.openStream());
+    }
+
+    @Override
+    public Document read(Reader jsonReader) throws IOException {
+        return JacksonReader.INSTANCE.read(jsonReader);
+    }
+
+    @Override
+    public Document read(String json) throws IOException {
+        return JacksonReader.INSTANCE.read(json);
+    }
+
+    @Override
+    public Array readArray(byte[] rawBytes) throws IOException {
+        if (!isBinary(rawBytes)) return JacksonReader.INSTANCE.readArray(rawBytes);
+        return new Input(rawBytes).readTopLevelArray();
+    }
+
+    @Override
+    public Array readArray(InputStream stream) throws IOException {
+        return readArray(IoUtil.readBytes(stream));
+    }
+
+    @Override
+    public Array readArray(File file) throws IOException {
+        return readArray(IoUtil.readBytes(file));
+    }
+
+    @Override
+    public Array readArray(URL url) throws IOException {
+        return readArray(url.openStream());
+    }
+
+    @Override
+    public Array readArray(Reader jsonReader) throws IOException {
+        return JacksonReader.INSTANCE.readArray(jsonReader);
+    }
+
+    @Override
+    public Array readArray(String json) throws IOException {
+        return JacksonReader.INSTANCE.readArray(json);
+    }
+
+    /**
+     * The decoding state for a single top-level value, including the field names that have been read so far.
+     */
+    static final class Input {
+        private final byte[] buffer;
+        private final int start;
+        private final int limit;
+        private int position;
+        private final List<String> symbols;
+        private final boolean registerSymbols;
+
+        Input(byte[] buffer) {
+            this(buffer, 0, buffer.length, new ArrayList<>(), true);
+        }
+
+        /**
+         * Create an input that starts reading at the given position. Any input that does not start at the beginning of the
+         * buffer must be given a complete symbol table, since the field names are then not necessarily read in order.
+         * 
+         * <p>
+         * Inputs with a complete symbol table are used to read the values of {@link LazyDocument}s, and so will read nested
+         * documents lazily as well.
+         * 
+         * @param buffer the encoded bytes; may not be null
+         * @param position the position of the first byte to be read
+         * @param limit the position just after the last byte that may be read
+         * @param symbols the symbol table for the buffer; may not be null
+         * @param registerSymbols true if field name definitions should be added to the symbol table as they are read, or false
+         *            if the symbol table is already complete
+         */
+        Input(byte[] buffer, int position, int limit, List<String> symbols, boolean registerSymbols) {
+            this.buffer = buffer;
+            this.start = position;
+            this.limit = limit;
+            this.position = position;
+            this.symbols = symbols;
+            this.registerSymbols = registerSymbols;
+        }
+
+        int position() {
+            return position;
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        List<String> symbols() {
+            return symbols;
+        }
+
+        Document readTopLevelDocument() throws IOException {
+            readHeader();
+            expect(BinaryWriter.DOCUMENT);
+            return readDocument();
+        }
+
+        Document readTopLevelLazyDocument() throws IOException {
+            readHeader();
+            expect(BinaryWriter.DOCUMENT);
+            LazyDocument doc = new LazyDocument(buffer, position, limit, symbols, start);
+            // Indexing the top-level document walks the whole buffer, and thus completes the symbol table ...
+            doc.index(this);
+            return doc;
+        }
+
+        Array readTopLevelArray() throws IOException {
+            readHeader();
+            expect(BinaryWriter.ARRAY);
+            return readArray();
+        }
+
+        private void readHeader() throws IOException {
+            expect(BinaryWriter.MAGIC);
+            byte version = readByte();
+            if (version != BinaryWriter.VERSION) {
+                throw new IOException("Unsupported binary format version " + version);
+            }
+        }
+
+        private void expect(byte expected) throws IOException {
+            byte actual = readByte();
+            if (actual != expected) {
+                throw new IOException("Expected byte " + expected + " at position " + (position - 1) + " but found " + actual);
+            }
+        }
+
+        private Document readDocument() throws IOException {
+            if (!registerSymbols) {
+                // The symbol table is complete, so the nested document can be read lazily ...
+                LazyDocument doc = new LazyDocument(buffer, position, limit, symbols, -1);
+                skipDocument();
+                return doc;
+            }
+            int size = readVarint();
+            BasicDocument doc = new BasicDocument();
+            for (int i = 0; i != size; ++i) {
+                String name = readFieldName();
+                doc.putValue(name, readValue());
+            }
+            return doc;
+        }
+
+        /**
+         * Read an embedded document, which is a complete binary-encoded document with its own header and symbol table.
+         * 
+         * @return the document; never null
+         * @throws IOException if the content is malformed
+         */
+        private Document readEmbeddedDocument() throws IOException {
+            int length = readLength();
+            Input embedded = new Input(buffer, position, position + length, new ArrayList<>(), true);
+            Document doc = registerSymbols ? embedded.readTopLevelDocument() : embedded.readTopLevelLazyDocument();
+            position += length;
+            return doc;
+        }
+
+        private Array readArray() throws IOException {
+            int size = readVarint();
+            byte tag = size != 0 && position < limit ? buffer[position] : BinaryWriter.NULL;
+            if (hasOnlyTag(tag, size)) {
+                // Arrays of numbers with the same type are stored in primitive arrays ...
+                switch (tag) {
+                    case BinaryWriter.INTEGER:
+                        int[] ints = new int[size];
+                        for (int i = 0; i != size; ++i) {
+                            ++position;
+                            ints[i] = (int) unzigzag(readVarlong());
+                        }
+                        return new IntArray(ints, size);
+                    case BinaryWriter.LONG:
+                        long[] longs = new long[size];
+                        for (int i = 0; i != size; ++i) {
+                            ++position;
+                            longs[i] = unzigzag(readVarlong());
+                        }
+                        return new LongArray(longs, size);
+                    case BinaryWriter.DOUBLE:
+                        double[] doubles = new double[size];
+                        for (int i = 0; i != size; ++i) {
+                            ++position;
+                            doubles[i] = Double.longBitsToDouble(readFixed(8));
+                        }
+                        return new DoubleArray(doubles, size);
+                }
+            }
+            List<Value> values = new ArrayList<>(size);
+            for (int i = 0; i != size; ++i) {
+                values.add(readValue());
+            }
+            return new BasicArray(values);
+        }
+
+        /**
+         * Determine whether the next values all have the given integer, long or double tag. This only skips over those numbers,
+         * so it never registers any symbols, and it does not change the position.
+         * 
+         * @param tag the tag of the first value
+         * @param count the number of values
+         * @return true if all of the values are numbers with the given tag, or false otherwise
+         * @throws IOException if the content is malformed
+         */
+        private boolean hasOnlyTag(byte tag, int count) throws IOException {
+            if (tag != BinaryWriter.INTEGER && tag != BinaryWriter.LONG && tag != BinaryWriter.DOUBLE) return false;
+            int start = position;
+            try {
+                for (int i = 0; i != count; ++i) {
+                    if (position >= limit || buffer[position] != tag) return false;
+                    skipValue();
+                }
+                return true;
+            } finally {
+                position = start;
+            }
+        }
+
+        Value readValue() throws IOException {
+            byte tag = readByte();
+            switch (tag) {
+                case BinaryWriter.NULL:
+                    return Value.nullValue();
+                case BinaryWriter.FALSE:
+                    return Value.create(false);
+                case BinaryWriter.TRUE:
+                    return Value.create(true);
+                case BinaryWriter.STRING:
+                    return Value.create(readString());
+                case BinaryWriter.BINARY:
+                    return Value.create(readBytes());
+                case BinaryWriter.INTEGER:
+                    return Value.create((int) unzigzag(readVarlong()));
+                case BinaryWriter.LONG:
+                    return Value.create(unzigzag(readVarlong()));
+                case BinaryWriter.FLOAT:
+                    return Value.create(Float.intBitsToFloat((int) readFixed(4)));
+                case BinaryWriter.DOUBLE:
+                    return Value.create(Double.longBitsToDouble(readFixed(8)));
+                case BinaryWriter.BIG_INTEGER:
+                    return Value.create(new BigInteger(readBytes()));
+                case BinaryWriter.DECIMAL:
+                    int scale = (int) unzigzag(readVarlong());
+                    return Value.create(new BigDecimal(new BigInteger(readBytes()), scale));
+                case BinaryWriter.DOCUMENT:
+                    return Value.create(readDocument());
+                case BinaryWriter.ARRAY:
+                    return Value.create(readArray());
+                case BinaryWriter.EMBEDDED:
+                    return Value.create(readEmbeddedDocument());
+            }
+            throw new IOException("Unexpected value tag " + tag + " at position " + (position - 1));
+        }
+
+        /**
+         * Skip over the next value, recording any field names that are defined within it.
+         * 
+         * @throws IOException if the content is malformed
+         */
+        void skipValue() throws IOException {
+            byte tag = readByte();
+            switch (tag) {
+                case BinaryWriter.NULL:
+                case BinaryWriter.FALSE:
+                case BinaryWriter.TRUE:
+                    return;
+                case BinaryWriter.STRING:
+                case BinaryWriter.BINARY:
+                case BinaryWriter.BIG_INTEGER:
+                    skip(readLength());
+                    return;
+                case BinaryWriter.INTEGER:
+                case BinaryWriter.LONG:
+                    readVarlong();
+                    return;
+                case BinaryWriter.FLOAT:
+                    skip(4);
+                    return;
+                case BinaryWriter.DOUBLE:
+                    skip(8);
+                    return;
+                case BinaryWriter.DECIMAL:
+                    readVarlong();
+                    skip(readLength());
+                    return;
+                case BinaryWriter.DOCUMENT:
+                    skipDocument();
+                    return;
+                case BinaryWriter.EMBEDDED:
+                    skip(readLength());
+                    return;
+                case BinaryWriter.ARRAY:
+                    int size = readVarint();
+                    for (int i = 0; i != size; ++i) {
+                        skipValue();
+                    }
+                    return;
+            }
+            throw new IOException("Unexpected value tag " + tag + " at position " + (position - 1));
+        }
+
+        private void skip(int numBytes) throws IOException {
+            if (numBytes > limit - position) throw new IOException("Unexpected end of binary content");
+            position += numBytes;
+        }
+
+        private void skipDocument() throws IOException {
+            int size = readVarint();
+            for (int i = 0; i != size; ++i) {
+                readFieldName();
+                skipValue();
+            }
+        }
+
+        int readVarint() throws IOException {
+            return (int) readVarlong();
+        }
+
+        String readFieldName() throws IOException {
+            int ref = readVarint();
+            if (ref == 0) {
+                String name = readString();
+                if (registerSymbols) symbols.add(name);
+                return name;
+            }
+            if (ref > symbols.size()) {
+                throw new IOException("Unknown field name reference " + ref + " at position " + position);
+            }
+            return symbols.get(ref - 1);
+        }
+
+        private String readString() throws IOException {
+            int length = readLength();
+            String result = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return result;
+        }
+
+        private byte[] readBytes() throws IOException {
+            int length = readLength();
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, position, result, 0, length);
+            position += length;
+            return result;
+        }
+
+        private int readLength() throws IOException {
+            int length = readVarint();
+            if (length < 0 || length > limit - position) {
+                throw new IOException("Invalid length " + length + " at position " + position);
+            }
+            return length;
+        }
+
+        private byte readByte() throws IOException {
+            if (position >= limit) throw new IOException("Unexpected end of binary content");
+            return buffer[position++];
+        }
+
+        private long readVarlong() throws IOException {
+            long result = 0L;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IOException("Malformed variable-length integer at position " + position);
+        }
+
+        private long readFixed(int numBytes) throws IOException {
+            long result = 0L;
+            for (int i = 0; i != numBytes; ++i) {
+                result = (result << 8) | (readByte() & 0xFF);
+            }
+            return result;
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+}
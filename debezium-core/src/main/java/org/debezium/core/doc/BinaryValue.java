@@ -7,6 +7,7 @@ package org.debezium.core.doc;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 
 /**
  * @author Randall Hauch
@@ -23,7 +24,7 @@ final class BinaryValue implements Value {
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return Arrays.hashCode(value);
     }
 
     @Override
@@ -32,8 +33,8 @@ final class BinaryValue implements Value {
         if (obj instanceof Value) {
             Value that = (Value) obj;
             if (that.isNull()) return false;
-            if (that.isBinary()) return this.value.equals(that.asBytes());
-            if (that.isString()) return this.value.equals(that.asString().getBytes());
+            if (that.isBinary()) return Arrays.equals(this.value, that.asBytes());
+            if (that.isString()) return Arrays.equals(this.value, that.asString().getBytes());
             return false;
         }
         return false;
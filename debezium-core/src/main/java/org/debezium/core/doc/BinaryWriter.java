@@ -0,0 +1,414 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A writer of the compact binary representation of {@link Document}s and {@link Array}s. Each encoded value starts with the
+ * {@link #MAGIC} and {@link #VERSION} bytes, and is followed by a tagged tree of values where lengths and integral numbers are
+ * written as variable-length integers, binary values are written as raw bytes, and each field name is written only once per
+ * message and thereafter referenced by its position in the message's symbol table.
+ * <p>
+ * Documents that are unmodified {@link LazyDocument views} of complete binary-encoded documents (such as an entity read from a
+ * store) are not re-encoded: their original bytes are copied into the output as an <em>embedded</em> document, which has its
+ * own header and symbol table.
+ * <p>
+ * Because the binary form cannot be represented as characters, the methods that write to a {@link Writer} or {@link String}
+ * always produce JSON.
+ * <p>
+ * Each thread reuses a single output buffer for the top-level values it writes, so encoding a value only allocates the resulting
+ * byte array, and {@link #write(Document, ByteBuffer)} allocates nothing at all.
+ *
+ * @author Randall Hauch
+ * @see BinaryReader
+ */
+final class BinaryWriter implements DocumentWriter, ArrayWriter {
+
+    public static final BinaryWriter INSTANCE = new BinaryWriter();
+
+    /**
+     * The first byte of every binary-encoded value. It can never start a JSON value (which must begin with whitespace or a
+     * structural character), so readers can use it to detect the format.
+     */
+    static final byte MAGIC = (byte) 0xDB;
+    static final byte VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte STRING = 3;
+    static final byte BINARY = 4;
+    static final byte INTEGER = 5;
+    static final byte LONG = 6;
+    static final byte FLOAT = 7;
+    static final byte DOUBLE = 8;
+    static final byte BIG_INTEGER = 9;
+    static final byte DECIMAL = 10;
+    static final byte DOCUMENT = 11;
+    static final byte ARRAY = 12;
+    static final byte EMBEDDED = 13;
+
+    private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(Output::new);
+
+    private BinaryWriter() {
+    }
+
+    /**
+     * Obtain an output for a top-level value. Each thread reuses its own output unless that output is already in use, in which
+     * case a new output is returned. The output should be {@link Output#release() released} when it is no longer needed.
+     * 
+     * @return the output; never null
+     */
+    static Output output() {
+        Output output = OUTPUT.get();
+        if (output.inUse) return new Output();
+        output.inUse = true;
+        return output;
+    }
+
+    @Override
+    public void write(Document document, OutputStream stream) throws IOException {
+        if (isSpliceable(document)) {
+            LazyDocument lazy = (LazyDocument) document;
+            stream.write(lazy.encodedBuffer(), lazy.encodedStart(), lazy.encodedEnd() - lazy.encodedStart());
+            return;
+        }
+        Output output = output();
+        try {
+            output.writeDocument(document);
+            output.writeTo(stream);
+        } finally {
+            output.release();
+        }
+    }
+
+    @Override
+    public void write(Document document, Writer jsonWriter) throws IOException {
+        JacksonWriter.INSTANCE.write(document, jsonWriter);
+    }
+
+    @Override
+    public String write(Document document) throws IOException {
+        return JacksonWriter.INSTANCE.write(document);
+    }
+
+    @Override
+    public byte[] writeAsBytes(Document document) {
+        if (isSpliceable(document)) {
+            LazyDocument lazy = (LazyDocument) document;
+            return Arrays.copyOfRange(lazy.encodedBuffer(), lazy.encodedStart(), lazy.encodedEnd());
+        }
+        Output output = output();
+        try {
+            output.writeDocument(document);
+            return output.toByteArray();
+        } finally {
+            output.release();
+        }
+    }
+
+    @Override
+    public int write(Document document, ByteBuffer buffer) {
+        if (isSpliceable(document)) {
+            LazyDocument lazy = (LazyDocument) document;
+            buffer.put(lazy.encodedBuffer(), lazy.encodedStart(), lazy.encodedEnd() - lazy.encodedStart());
+            return lazy.encodedEnd() - lazy.encodedStart();
+        }
+        Output output = output();
+        try {
+            output.writeDocument(document);
+            return output.writeTo(buffer);
+        } finally {
+            output.release();
+        }
+    }
+
+    @Override
+    public void write(Array array, OutputStream stream) throws IOException {
+        Output output = output();
+        try {
+            output.writeArray(array);
+            output.writeTo(stream);
+        } finally {
+            output.release();
+        }
+    }
+
+    @Override
+    public void write(Array array, Writer jsonWriter) throws IOException {
+        JacksonWriter.INSTANCE.write(array, jsonWriter);
+    }
+
+    @Override
+    public String write(Array array) throws IOException {
+        return JacksonWriter.INSTANCE.write(array);
+    }
+
+    @Override
+    public byte[] writeAsBytes(Array array) {
+        Output output = output();
+        try {
+            output.writeArray(array);
+            return output.toByteArray();
+        } finally {
+            output.release();
+        }
+    }
+
+    @Override
+    public int write(Array array, ByteBuffer buffer) {
+        Output output = output();
+        try {
+            output.writeArray(array);
+            return output.writeTo(buffer);
+        } finally {
+            output.release();
+        }
+    }
+
+    private static boolean isSpliceable(Document document) {
+        return document instanceof LazyDocument && ((LazyDocument) document).isSpliceable();
+    }
+
+    /**
+     * A growable buffer holding the encoded form of a single top-level value, along with that value's field name symbol table.
+     */
+    static final class Output {
+        private static final int INITIAL_CAPACITY = 256;
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+        private int size = 0;
+        private Map<String, Integer> symbols;
+        private boolean inUse;
+
+        Output() {
+            writeHeader();
+        }
+
+        /**
+         * Create an output for a fragment of a top-level value, which has no header and which continues the supplied symbol
+         * table.
+         * 
+         * @param symbols the symbols already defined earlier in the top-level value; may be null if there are none
+         */
+        Output(Map<String, Integer> symbols) {
+            this.symbols = symbols != null ? new HashMap<>(symbols) : null;
+        }
+
+        private void writeHeader() {
+            buffer[size++] = MAGIC;
+            buffer[size++] = VERSION;
+        }
+
+        /**
+         * Discard the content of this top-level output so that it can be reused. Overly large buffers are not retained.
+         */
+        void release() {
+            if (buffer.length > MAX_RETAINED_CAPACITY) buffer = new byte[INITIAL_CAPACITY];
+            size = 0;
+            if (symbols != null) symbols.clear();
+            writeHeader();
+            inUse = false;
+        }
+
+        void writeDocument(Document document) {
+            writeDocumentStart(document.size());
+            for (Document.Field field : document) {
+                writeField(field.getName().toString(), field.getValue());
+            }
+        }
+
+        void writeDocumentStart(int numFields) {
+            writeByte(DOCUMENT);
+            writeVarint(numFields);
+        }
+
+        void writeField(String name, Value value) {
+            writeFieldName(name);
+            writeValue(value);
+        }
+
+        void writeRaw(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        Map<String, Integer> symbols() {
+            return symbols;
+        }
+
+        void writeArray(Array array) {
+            writeByte(ARRAY);
+            writeVarint(array.size());
+            array.streamValues().forEach(this::writeValue);
+        }
+
+        private void writeValue(Value value) {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            switch (value.getType()) {
+                case NULL:
+                    writeByte(NULL);
+                    break;
+                case STRING:
+                    writeByte(STRING);
+                    writeBytes(value.asString().getBytes(StandardCharsets.UTF_8));
+                    break;
+                case BOOLEAN:
+                    writeByte(value.asBoolean().booleanValue() ? TRUE : FALSE);
+                    break;
+                case BINARY:
+                    writeByte(BINARY);
+                    writeBytes(value.asBytes());
+                    break;
+                case INTEGER:
+                    writeByte(INTEGER);
+                    writeVarlong(zigzag(value.asInteger(0)));
+                    break;
+                case LONG:
+                    writeByte(LONG);
+                    writeVarlong(zigzag(value.asLong(0L)));
+                    break;
+                case FLOAT:
+                    writeByte(FLOAT);
+                    writeFixed(Float.floatToIntBits(value.asFloat().floatValue()), 4);
+                    break;
+                case DOUBLE:
+                    writeByte(DOUBLE);
+                    writeFixed(Double.doubleToLongBits(value.asDouble(0.0d)), 8);
+                    break;
+                case BIG_INTEGER:
+                    writeByte(BIG_INTEGER);
+                    writeBytes(value.asBigInteger().toByteArray());
+                    break;
+                case DECIMAL:
+                    BigDecimal decimal = value.asBigDecimal();
+                    writeByte(DECIMAL);
+                    writeVarlong(zigzag(decimal.scale()));
+                    writeBytes(decimal.unscaledValue().toByteArray());
+                    break;
+                case DOCUMENT:
+                    Document document = value.asDocument();
+                    if (isSpliceable(document)) {
+                        writeEmbedded((LazyDocument) document);
+                    } else {
+                        writeDocument(document);
+                    }
+                    break;
+                case ARRAY:
+                    writeArray(value.asArray());
+                    break;
+            }
+        }
+
+        private void writeEmbedded(LazyDocument document) {
+            int length = document.encodedEnd() - document.encodedStart();
+            writeByte(EMBEDDED);
+            writeVarint(length);
+            ensureCapacity(length);
+            System.arraycopy(document.encodedBuffer(), document.encodedStart(), buffer, size, length);
+            size += length;
+        }
+
+        private void writeFieldName(String name) {
+            if (symbols == null) symbols = new HashMap<>();
+            Integer index = symbols.get(name);
+            if (index != null) {
+                // Already written, so just reference it (offset by one, since zero denotes a new name) ...
+                writeVarint(index.intValue() + 1);
+                return;
+            }
+            symbols.put(name, symbols.size());
+            writeVarint(0);
+            writeBytes(name.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarint(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeByte(byte b) {
+            ensureCapacity(1);
+            buffer[size++] = b;
+        }
+
+        private void writeVarint(int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarlong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0L) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeFixed(long value, int numBytes) {
+            ensureCapacity(numBytes);
+            for (int shift = 8 * (numBytes - 1); shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            int required = size + additional;
+            if (required > buffer.length) {
+                byte[] larger = new byte[Math.max(required, buffer.length * 2)];
+                System.arraycopy(buffer, 0, larger, 0, size);
+                buffer = larger;
+            }
+        }
+
+        void writeTo(OutputStream stream) throws IOException {
+            stream.write(buffer, 0, size);
+        }
+
+        /**
+         * Put all of the content into the supplied buffer, or nothing if the buffer does not have enough space remaining.
+         * 
+         * @param buffer the buffer; may not be null
+         * @return the number of bytes written
+         * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining
+         */
+        int writeTo(ByteBuffer buffer) {
+            buffer.put(this.buffer, 0, size);
+            return size;
+        }
+
+        void writeTo(Output output) {
+            output.writeRaw(buffer, 0, size);
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[size];
+            System.arraycopy(buffer, 0, result, 0, size);
+            return result;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import org.debezium.core.annotation.Immutable;
+
+/**
+ * A {@link Value} holding a primitive {@code boolean}. There are only two instances.
+ *
+ * @author Randall Hauch
+ */
+@Immutable
+final class BooleanValue extends PrimitiveValue {
+
+    static final Value TRUE = new BooleanValue(true);
+    static final Value FALSE = new BooleanValue(false);
+
+    static Value of(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    private final boolean value;
+
+    private BooleanValue(boolean value) {
+        this.value = value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof BooleanValue) return obj == this;
+        return super.equals(obj);
+    }
+
+    @Override
+    public int compareTo(Value that) {
+        if (that instanceof BooleanValue) return Boolean.compare(this.value, ((BooleanValue) that).value);
+        return super.compareTo(that);
+    }
+
+    @Override
+    public String toString() {
+        return Boolean.toString(value);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.BOOLEAN;
+    }
+
+    @Override
+    public Comparable<?> asObject() {
+        return Boolean.valueOf(value);
+    }
+
+    @Override
+    public Boolean asBoolean() {
+        return Boolean.valueOf(value);
+    }
+
+    @Override
+    public boolean isBoolean() {
+        return true;
+    }
+}
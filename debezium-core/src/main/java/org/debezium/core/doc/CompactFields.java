@@ -0,0 +1,296 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+import org.debezium.core.annotation.NotThreadSafe;
+
+/**
+ * The insertion-ordered fields of a {@link BasicDocument}, stored compactly for the small documents that are most common, such
+ * as message headers and patch operations. Up to {@link #MAX_COMPACT_SIZE} fields are kept in parallel arrays of names and values
+ * that are searched linearly, without any per-field entry objects; a document with more fields is promoted to a
+ * {@link LinkedHashMap}.
+ * <p>
+ * The names of new fields are {@link #intern(CharSequence) interned}, so the many documents with the same fields share the same
+ * name strings and most lookups succeed on identity alone.
+ * <p>
+ * Instances are not thread-safe, with one exception: the number of additional documents that {@link #share() share} the fields
+ * is maintained atomically, so {@link #share()}, {@link #release()} and {@link #isShared()} may be called concurrently by
+ * documents on different threads (e.g., by clones of a cached document). All other methods must only be called by one thread
+ * at a time.
+ *
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class CompactFields extends AbstractMap<CharSequence, Value> {
+
+    /**
+     * The maximum number of fields stored in arrays before promoting to a hash table.
+     */
+    static final int MAX_COMPACT_SIZE = 12;
+
+    /**
+     * The number of slots in the symbol table, which must be a power of two. Each name can only be stored in one slot, so
+     * documents with arbitrary field names evict other names rather than growing the table.
+     */
+    private static final int SYMBOL_TABLE_SIZE = 4 * 1024;
+
+    private static final String[] SYMBOLS = new String[SYMBOL_TABLE_SIZE];
+    private static final CharSequence[] NO_NAMES = new CharSequence[0];
+    private static final Value[] NO_VALUES = new Value[0];
+    private static final AtomicIntegerFieldUpdater<CompactFields> SHARERS = AtomicIntegerFieldUpdater.newUpdater(CompactFields.class,
+                                                                                                                  "sharers");
+
+    /**
+     * Get the shared instance of the given field name. A name that is not in the symbol table replaces whatever name was in its
+     * slot, so frequently used names stay in the table while names that are no longer used are eventually evicted.
+     *
+     * @param name the field name; may not be null
+     * @return the shared instance, or the supplied name if it is not a string or was not yet in the symbol table; never null
+     */
+    static CharSequence intern(CharSequence name) {
+        if (!(name instanceof String)) return name;
+        int hash = name.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SYMBOL_TABLE_SIZE - 1);
+        // Strings are immutable, so threads that race on a slot can at worst evict each other's names ...
+        String existing = SYMBOLS[slot];
+        if (name.equals(existing)) return existing;
+        SYMBOLS[slot] = (String) name;
+        return name;
+    }
+
+    private CharSequence[] names;
+    private Value[] values;
+    private int size;
+    private Map<CharSequence, Value> promoted;
+    private volatile int sharers;
+
+    CompactFields() {
+        this.names = NO_NAMES;
+        this.values = NO_VALUES;
+    }
+
+    CompactFields(int expectedSize) {
+        if (expectedSize > MAX_COMPACT_SIZE) {
+            this.names = NO_NAMES;
+            this.values = NO_VALUES;
+            this.promoted = new LinkedHashMap<>(expectedSize * 4 / 3 + 1);
+        } else {
+            this.names = expectedSize > 0 ? new CharSequence[expectedSize] : NO_NAMES;
+            this.values = expectedSize > 0 ? new Value[expectedSize] : NO_VALUES;
+        }
+    }
+
+    /**
+     * Create a copy of these fields, using the supplied function to copy each value. The names are already interned.
+     *
+     * @param copier the function that copies each value; may not be null
+     * @return the copy; never null
+     */
+    CompactFields copy(UnaryOperator<Value> copier) {
+        CompactFields copy = new CompactFields(size());
+        if (promoted != null) {
+            promoted.forEach((name, value) -> copy.promoted.put(name, copier.apply(value)));
+        } else {
+            for (int i = 0; i != size; ++i) {
+                copy.names[i] = names[i];
+                copy.values[i] = copier.apply(values[i]);
+            }
+            copy.size = size;
+        }
+        return copy;
+    }
+
+    /**
+     * Record that one more document refers to these fields.
+     */
+    void share() {
+        SHARERS.incrementAndGet(this);
+    }
+
+    /**
+     * Record that one of the documents that {@link #share() shared} these fields no longer refers to them.
+     */
+    void release() {
+        SHARERS.decrementAndGet(this);
+    }
+
+    /**
+     * Determine whether more than one document refers to these fields, in which case they must not be modified.
+     * <p>
+     * A document releases the fields only when it first modifies or clears them, so a clone that is discarded without doing
+     * either is never subtracted from the count. The count is therefore conservative: the remaining document may still see
+     * the fields as shared, and copies them on its next modification (the same copy an eager clone would have made).
+     *
+     * @return true if these fields are or may still be shared, or false if only one document refers to them
+     */
+    boolean isShared() {
+        return sharers > 0;
+    }
+
+    private int indexOf(Object name) {
+        // Most names are interned, so first look for the same instance ...
+        for (int i = 0; i != size; ++i) {
+            if (names[i] == name) return i;
+        }
+        if (name != null) {
+            for (int i = 0; i != size; ++i) {
+                if (name.equals(names[i])) return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return promoted != null ? promoted.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return promoted != null ? promoted.containsKey(name) : indexOf(name) >= 0;
+    }
+
+    @Override
+    public Value get(Object name) {
+        if (promoted != null) return promoted.get(name);
+        int index = indexOf(name);
+        return index >= 0 ? values[index] : null;
+    }
+
+    @Override
+    public Value put(CharSequence name, Value value) {
+        if (promoted != null) {
+            return promoted.put(intern(name), value);
+        }
+        int index = indexOf(name);
+        if (index >= 0) {
+            Value previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (size == MAX_COMPACT_SIZE) {
+            promote().put(intern(name), value);
+            return null;
+        }
+        if (size == names.length) {
+            int capacity = Math.min(MAX_COMPACT_SIZE, Math.max(4, size * 2));
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        names[size] = intern(name);
+        values[size] = value;
+        ++size;
+        return null;
+    }
+
+    private Map<CharSequence, Value> promote() {
+        Map<CharSequence, Value> map = new LinkedHashMap<>(MAX_COMPACT_SIZE * 2);
+        for (int i = 0; i != size; ++i) {
+            map.put(names[i], values[i]);
+        }
+        names = NO_NAMES;
+        values = NO_VALUES;
+        size = 0;
+        promoted = map;
+        return map;
+    }
+
+    @Override
+    public Value remove(Object name) {
+        if (promoted != null) return promoted.remove(name);
+        int index = indexOf(name);
+        return index >= 0 ? removeAt(index) : null;
+    }
+
+    private Value removeAt(int index) {
+        Value previous = values[index];
+        // Shift the later fields to preserve the insertion order ...
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(names, index + 1, names, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        --size;
+        names[size] = null;
+        values[size] = null;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        names = NO_NAMES;
+        values = NO_VALUES;
+        size = 0;
+        promoted = null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super CharSequence, ? super Value> consumer) {
+        if (promoted != null) {
+            promoted.forEach(consumer);
+            return;
+        }
+        for (int i = 0; i != size; ++i) {
+            consumer.accept(names[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<CharSequence, Value>> entrySet() {
+        if (promoted != null) return promoted.entrySet();
+        return new AbstractSet<Map.Entry<CharSequence, Value>>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Map.Entry<CharSequence, Value>> iterator() {
+                return new Iterator<Map.Entry<CharSequence, Value>>() {
+                    private int next = 0;
+                    private boolean removable = false;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Map.Entry<CharSequence, Value> next() {
+                        if (next >= size) throw new NoSuchElementException();
+                        removable = true;
+                        int index = next++;
+                        return new SimpleImmutableEntry<>(names[index], values[index]);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (!removable) throw new IllegalStateException();
+                        removable = false;
+                        removeAt(--next);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -7,40 +7,18 @@ package org.debezium.core.doc;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
+ * A {@link Value} holding an immutable object, such as a string or big number, or a document or array. The most common
+ * primitive values use {@link PrimitiveValue} instead.
+ * 
  * @author Randall Hauch
- *
  */
 final class ComparableValue implements Value {
 
-    private static final Map<Class<?>,Type> TYPES_BY_CLASS;
-    
-    static {
-        Map<Class<?>,Type> types = new HashMap<>();
-        types.put(String.class, Type.STRING);
-        types.put(Boolean.class, Type.BOOLEAN);
-        types.put(byte[].class, Type.BINARY);
-        types.put(Integer.class, Type.INTEGER);
-        types.put(Long.class, Type.LONG);
-        types.put(Float.class, Type.FLOAT);
-        types.put(Double.class, Type.DOUBLE);
-        types.put(BigInteger.class, Type.BIG_INTEGER);
-        types.put(BigDecimal.class, Type.DECIMAL);
-        types.put(BasicDocument.class, Type.DOCUMENT);
-        types.put(BasicArray.class, Type.ARRAY);
-        TYPES_BY_CLASS = types;
-    }
-
     static Type typeForValue( Value value ) {
         assert value != null;
         if ( value.isNull() ) return Type.NULL;
-        // Check by exact class ...
-        Type type = TYPES_BY_CLASS.get(value.getClass());
-        if ( type != null ) return type;
-        // Otherwise, check using instanceof ...
         if ( value.isString() ) return Type.STRING;
         if ( value.isBoolean() ) return Type.BOOLEAN;
         if ( value.isBinary() ) return Type.BINARY;
@@ -102,15 +80,18 @@ final class ComparableValue implements Value {
 
     @Override
     public Type getType() {
-        Type type = TYPES_BY_CLASS.get(value.getClass());
-        if ( type == null ) {
-            // Didn't match by exact class, so then figure out the extensible types by instanceof ...
-            if ( isDocument() ) return Type.DOCUMENT;
-            if ( isArray() ) return Type.ARRAY;
-            if ( isNull() ) return Type.NULL;
-        }
-        assert type != null;
-        return type;
+        // Most common first ...
+        if ( value instanceof String ) return Type.STRING;
+        if ( value instanceof Document ) return Type.DOCUMENT;
+        if ( value instanceof Array ) return Type.ARRAY;
+        if ( value instanceof Integer ) return Type.INTEGER;
+        if ( value instanceof Long ) return Type.LONG;
+        if ( value instanceof Boolean ) return Type.BOOLEAN;
+        if ( value instanceof Double ) return Type.DOUBLE;
+        if ( value instanceof Float ) return Type.FLOAT;
+        if ( value instanceof BigInteger ) return Type.BIG_INTEGER;
+        if ( value instanceof BigDecimal ) return Type.DECIMAL;
+        throw new IllegalStateException("Unexpected value " + value + "' of type " + value.getClass());
     }
     
     @Override
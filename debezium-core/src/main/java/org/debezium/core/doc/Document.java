@@ -159,8 +159,8 @@ public interface Document extends Iterable<Document.Field>, Comparable<Document>
             // Create any missing intermediaries using the segment after the missing segment to determine which
             // type of intermediate value to add ...
             parent = find(parentPath, (missingPath,missingIndex)->{
-                String nextSegment = path.segment(missingIndex+1);  // can always find next segment 'path' (not 'parentPath')...
-                if (Path.Segments.isArrayIndex(nextSegment)) {
+                int next = missingIndex+1;  // can always find next segment 'path' (not 'parentPath')...
+                if (path.arrayIndex(next) >= 0 || Path.Segments.isAfterLastIndex(path.segment(next))) {
                     return Optional.of(Value.create(Array.create()));
                 } else {
                     return Optional.of(Value.create(Document.create()));
@@ -177,7 +177,12 @@ public interface Document extends Iterable<Document.Field>, Comparable<Document>
             if (Path.Segments.isAfterLastIndex(lastSegment)) {
                 array.add(value);
             } else {
-                int index = Path.Segments.asInteger(lastSegment).get();
+                int index = path.arrayIndex(path.size()-1);
+                if (index < 0) {
+                    // The last segment is not an array index ...
+                    invalid.accept(path);
+                    return Optional.empty();
+                }
                 array.setValue(index,value);
             }
         } else {
@@ -250,12 +255,12 @@ public interface Document extends Iterable<Document.Field>, Comparable<Document>
                         return Optional.empty();
                     }
                 } else {
-                    Optional<Integer> index = Path.Segments.asInteger(segment);
-                    if (index.isPresent()) {
+                    int index = path.arrayIndex(i);
+                    if (index >= 0) {
                         // This is an index ...
-                        if (array.has(index.get())) {
-                            value = array.get(index.get());
-                        } else if (array.size() == index.get()) {
+                        if (array.has(index)) {
+                            value = array.get(index);
+                        } else if (array.size() == index) {
                             // We can add at this index ...
                             Optional<Value> newValue = missingSegment.apply(path, i);
                             if (newValue.isPresent()) {
@@ -394,7 +399,7 @@ public interface Document extends Iterable<Document.Field>, Comparable<Document>
     default int getInteger(CharSequence fieldName,
                            int defaultValue) {
         Value value = get(fieldName);
-        return value != null && value.isInteger() ? value.asInteger().intValue() : defaultValue;
+        return value != null ? value.asInteger(defaultValue) : defaultValue;
     }
     
     /**
@@ -419,7 +424,7 @@ public interface Document extends Iterable<Document.Field>, Comparable<Document>
     default long getLong(CharSequence fieldName,
                          long defaultValue) {
         Value value = get(fieldName);
-        return value != null && value.isLong() ? value.asLong().longValue() : defaultValue;
+        return value != null ? value.asLong(defaultValue) : defaultValue;
     }
     
     /**
@@ -444,7 +449,7 @@ public interface Document extends Iterable<Document.Field>, Comparable<Document>
     default double getDouble(CharSequence fieldName,
                              double defaultValue) {
         Value value = get(fieldName);
-        return value != null && value.isDouble() ? value.asDouble().doubleValue() : defaultValue;
+        return value != null ? value.asDouble(defaultValue) : defaultValue;
     }
     
     /**
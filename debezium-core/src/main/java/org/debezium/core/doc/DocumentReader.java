@@ -22,6 +22,27 @@ public interface DocumentReader {
         return JacksonReader.INSTANCE;
     }
     
+    /**
+     * Get a reader that reads the compact binary format produced by {@link DocumentWriter#binaryWriter()}, and that also reads
+     * JSON content.
+     * 
+     * @return the binary reader; never null
+     */
+    static DocumentReader binaryReader() {
+        return BinaryReader.INSTANCE;
+    }
+    
+    /**
+     * Get a reader that, like the {@link #binaryReader() binary reader}, reads both the compact binary format and JSON, except
+     * that documents read from binary content are read-only views that decode each field only when it is first accessed. Such
+     * documents are converted to a regular document upon the first modification.
+     * 
+     * @return the lazy binary reader; never null
+     */
+    static DocumentReader lazyReader() {
+        return BinaryReader.LAZY;
+    }
+    
     Document read( InputStream jsonStream ) throws IOException;
     
     Document read( Reader jsonReader ) throws IOException;
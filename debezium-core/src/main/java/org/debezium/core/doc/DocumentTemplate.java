@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.util.Iterator;
+
+/**
+ * A factory for many documents that all contain the same common fields. The common fields are encoded in the
+ * {@link DocumentWriter#binaryWriter() binary format} only once, and each document is built directly in its binary form. The
+ * resulting documents are read-only views of that binary form, so the binary writer can output them without encoding them
+ * again.
+ *
+ * @author Randall Hauch
+ */
+public interface DocumentTemplate {
+
+    /**
+     * Create a template for documents that contain all of the fields in the supplied document.
+     *
+     * @param commonFields the document containing the fields to be included in every document; may not be null
+     * @return the template; never null
+     */
+    static DocumentTemplate with(Document commonFields) {
+        return new BinaryDocumentTemplate(commonFields);
+    }
+
+    /**
+     * Begin building a new document that contains the common fields.
+     *
+     * @return the builder for the new document; never null
+     */
+    Builder create();
+
+    /**
+     * A builder of a single document. Every field must have a different name than all other fields, including the common
+     * fields.
+     */
+    static interface Builder {
+        /**
+         * Add a field to the document.
+         *
+         * @param name the name of the field; may not be null
+         * @param value the value of the field; may be null
+         * @return this builder instance to easily chain together multiple method invocations on the builder; never null
+         * @throws IllegalArgumentException if the document already contains a field with the same name
+         */
+        Builder set(CharSequence name, Value value);
+
+        /**
+         * Add a number of fields to the document.
+         *
+         * @param fields the fields; may not be null
+         * @return this builder instance to easily chain together multiple method invocations on the builder; never null
+         * @throws IllegalArgumentException if the document already contains a field with the same name as one of the fields
+         */
+        default Builder setAll(Iterator<Document.Field> fields) {
+            fields.forEachRemaining(field -> set(field.getName(), field.getValue()));
+            return this;
+        }
+
+        /**
+         * Complete the document.
+         *
+         * @return the read-only document; never null
+         */
+        Document build();
+    }
+}
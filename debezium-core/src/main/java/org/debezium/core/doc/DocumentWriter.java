@@ -9,6 +9,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 /**
  * @author Randall Hauch
@@ -24,6 +25,17 @@ public interface DocumentWriter {
         return JacksonWriter.PRETTY_WRITER;
     }
     
+    /**
+     * Get a writer that produces a compact binary format from the {@link #writeAsBytes(Document)} and
+     * {@link #write(Document, OutputStream)} methods. The methods that write characters still produce JSON.
+     * 
+     * @return the binary writer; never null
+     * @see DocumentReader#binaryReader()
+     */
+    static DocumentWriter binaryWriter() {
+        return BinaryWriter.INSTANCE;
+    }
+    
     default byte[] writeAsBytes( Document document ) {
         try (ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
             write(document, stream);
@@ -35,6 +47,21 @@ public interface DocumentWriter {
         }
     }
     
+    /**
+     * Write the document into the supplied buffer, starting at the buffer's current position. The document is completely encoded
+     * before any bytes are put into the buffer, so the buffer is unchanged if it does not have enough space remaining.
+     * 
+     * @param document the document to be written; may not be null
+     * @param buffer the buffer into which the bytes are to be written; may not be null
+     * @return the number of bytes written into the buffer
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough space remaining
+     */
+    default int write( Document document, ByteBuffer buffer ) {
+        byte[] bytes = writeAsBytes(document);
+        buffer.put(bytes);
+        return bytes.length;
+    }
+    
     void write( Document document, OutputStream jsonStream ) throws IOException;
     
     void write( Document document, Writer jsonWriter ) throws IOException;
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.util.Arrays;
+
+/**
+ * An {@link Array} that stores double values in a {@code double[]}.
+ *
+ * @author Randall Hauch
+ */
+final class DoubleArray extends PrimitiveArray {
+
+    static boolean canHold(Value value) {
+        return value instanceof DoubleValue;
+    }
+
+    private double[] values;
+
+    DoubleArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    DoubleArray(int capacity) {
+        this.values = new double[Math.max(capacity, 0)];
+    }
+
+    DoubleArray(double[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    protected Value valueAt(int index) {
+        return DoubleValue.of(values[index]);
+    }
+
+    @Override
+    protected boolean canStore(Value value) {
+        return canHold(value);
+    }
+
+    @Override
+    protected void store(int index, Value value) {
+        if (index == size && size == values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        values[index] = value.asDouble(0.0d);
+    }
+
+    @Override
+    protected void removeAt(int index) {
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+    }
+
+    @Override
+    protected void release() {
+        values = null;
+    }
+
+    @Override
+    public Array add(double value) {
+        if (isGeneric()) return generic().add(value);
+        if (size == values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        values[size++] = value;
+        return this;
+    }
+
+    @Override
+    public Array clone() {
+        if (isGeneric()) return generic().clone();
+        return new DoubleArray(Arrays.copyOf(values, Math.max(size, DEFAULT_CAPACITY)), size);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.math.BigDecimal;
+
+import org.debezium.core.annotation.Immutable;
+
+/**
+ * A {@link Value} holding a primitive {@code double}.
+ *
+ * @author Randall Hauch
+ */
+@Immutable
+final class DoubleValue extends PrimitiveValue {
+
+    static Value of(double value) {
+        return new DoubleValue(value);
+    }
+
+    private final double value;
+
+    private DoubleValue(double value) {
+        this.value = value;
+    }
+
+    private boolean isValidFloat() {
+        return value >= Float.MIN_VALUE && value <= Float.MAX_VALUE;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof DoubleValue) {
+            // Same semantics as Double.equals ...
+            return Double.doubleToLongBits(this.value) == Double.doubleToLongBits(((DoubleValue) obj).value);
+        }
+        return super.equals(obj);
+    }
+
+    @Override
+    public int compareTo(Value that) {
+        if (that instanceof DoubleValue) return Double.compare(this.value, ((DoubleValue) that).value);
+        return super.compareTo(that);
+    }
+
+    @Override
+    public String toString() {
+        return Double.toString(value);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.DOUBLE;
+    }
+
+    @Override
+    public Comparable<?> asObject() {
+        return Double.valueOf(value);
+    }
+
+    @Override
+    public Float asFloat() {
+        return isValidFloat() ? Float.valueOf((float) value) : null;
+    }
+
+    @Override
+    public Double asDouble() {
+        return Double.valueOf(value);
+    }
+
+    @Override
+    public double asDouble(double defaultValue) {
+        return value;
+    }
+
+    @Override
+    public Number asNumber() {
+        return Double.valueOf(value);
+    }
+
+    @Override
+    public BigDecimal asBigDecimal() {
+        return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public boolean isFloat() {
+        return isValidFloat();
+    }
+
+    @Override
+    public boolean isDouble() {
+        return true;
+    }
+
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isBigDecimal() {
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.util.Arrays;
+
+/**
+ * An {@link Array} that stores {@link Value.Type#INTEGER integer} values in an {@code int[]}.
+ *
+ * @author Randall Hauch
+ */
+final class IntArray extends PrimitiveArray {
+
+    static boolean canHold(Value value) {
+        return value instanceof IntValue;
+    }
+
+    private int[] values;
+
+    IntArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    IntArray(int capacity) {
+        this.values = new int[Math.max(capacity, 0)];
+    }
+
+    IntArray(int[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    protected Value valueAt(int index) {
+        return IntValue.of(values[index]);
+    }
+
+    @Override
+    protected boolean canStore(Value value) {
+        return canHold(value);
+    }
+
+    @Override
+    protected void store(int index, Value value) {
+        if (index == size && size == values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        values[index] = value.asInteger(0);
+    }
+
+    @Override
+    protected void removeAt(int index) {
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+    }
+
+    @Override
+    protected void release() {
+        values = null;
+    }
+
+    @Override
+    public Array add(int value) {
+        if (isGeneric()) return generic().add(value);
+        if (size == values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        values[size++] = value;
+        return this;
+    }
+
+    @Override
+    public Array clone() {
+        if (isGeneric()) return generic().clone();
+        return new IntArray(Arrays.copyOf(values, Math.max(size, DEFAULT_CAPACITY)), size);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.math.BigInteger;
+
+import org.debezium.core.annotation.Immutable;
+
+/**
+ * A {@link Value} holding a primitive {@code int}. The values for small integers, such as counts and array indexes, are cached.
+ *
+ * @author Randall Hauch
+ */
+@Immutable
+final class IntValue extends PrimitiveValue {
+
+    private static final int MIN_CACHED = -128;
+    private static final int MAX_CACHED = 1023;
+    private static final IntValue[] CACHE = new IntValue[MAX_CACHED - MIN_CACHED + 1];
+
+    static {
+        for (int i = 0; i != CACHE.length; ++i) {
+            CACHE[i] = new IntValue(i + MIN_CACHED);
+        }
+    }
+
+    static Value of(int value) {
+        if (value >= MIN_CACHED && value <= MAX_CACHED) return CACHE[value - MIN_CACHED];
+        return new IntValue(value);
+    }
+
+    private final int value;
+
+    private IntValue(int value) {
+        this.value = value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof IntValue) return this.value == ((IntValue) obj).value;
+        if (obj instanceof LongValue) return this.value == ((LongValue) obj).asLong(0L);
+        return super.equals(obj);
+    }
+
+    @Override
+    public int compareTo(Value that) {
+        if (that instanceof IntValue) return Integer.compare(this.value, ((IntValue) that).value);
+        return super.compareTo(that);
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(value);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.INTEGER;
+    }
+
+    @Override
+    public Comparable<?> asObject() {
+        return Integer.valueOf(value);
+    }
+
+    @Override
+    public Integer asInteger() {
+        return Integer.valueOf(value);
+    }
+
+    @Override
+    public int asInteger(int defaultValue) {
+        return value;
+    }
+
+    @Override
+    public Long asLong() {
+        return Long.valueOf(value);
+    }
+
+    @Override
+    public long asLong(long defaultValue) {
+        return value;
+    }
+
+    @Override
+    public Number asNumber() {
+        return Integer.valueOf(value);
+    }
+
+    @Override
+    public BigInteger asBigInteger() {
+        return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public boolean isInteger() {
+        return true;
+    }
+
+    @Override
+    public boolean isLong() {
+        return true; // all integers are longs
+    }
+
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isBigInteger() {
+        return true;
+    }
+}
@@ -66,27 +66,32 @@ final class JacksonReader implements DocumentReader, ArrayReader {
     
     @Override
     public Array readArray(InputStream jsonStream) throws IOException {
-        return parseArray(factory.createParser(jsonStream),false);
+        return parseArray(factory.createParser(jsonStream));
     }
     
     @Override
     public Array readArray(Reader jsonReader) throws IOException {
-        return parseArray(factory.createParser(jsonReader),false);
+        return parseArray(factory.createParser(jsonReader));
     }
     
     @Override
     public Array readArray(URL jsonUrl) throws IOException {
-        return parseArray(factory.createParser(jsonUrl),false);
+        return parseArray(factory.createParser(jsonUrl));
     }
     
     @Override
     public Array readArray(File jsonFile) throws IOException {
-        return parseArray(factory.createParser(jsonFile),false);
+        return parseArray(factory.createParser(jsonFile));
     }
     
     @Override
     public Array readArray( String jsonArray ) throws IOException {
-        return parseArray(factory.createParser(jsonArray),false);
+        return parseArray(factory.createParser(jsonArray));
+    }
+    
+    @Override
+    public Array readArray( byte[] rawBytes ) throws IOException {
+        return parseArray(factory.createParser(rawBytes));
     }
     
     private Document parse( JsonParser parser ) throws IOException {
@@ -96,6 +101,15 @@ final class JacksonReader implements DocumentReader, ArrayReader {
             parser.close();
         }
     }
+    
+    private Array parseArray( JsonParser parser ) throws IOException {
+        try {
+            // Closing the parser returns its buffers for reuse by the next parser ...
+            return parseArray(parser,false);
+        } finally {
+            parser.close();
+        }
+    }
 
     private Document parseDocument( JsonParser parser, boolean nested ) throws IOException {
         // Iterate over the fields in the top-level document ...
@@ -172,8 +186,6 @@ final class JacksonReader implements DocumentReader, ArrayReader {
     }
     
     private Array parseArray( JsonParser parser, boolean nested ) throws IOException {
-        // Iterate over the values in the array ...
-        BasicArray array = new BasicArray();
         JsonToken token = null;
         if ( !nested ) {
             // We expect the START_ARRAY token ...
@@ -183,6 +195,8 @@ final class JacksonReader implements DocumentReader, ArrayReader {
             }
         }
         token = parser.nextToken();
+        // Iterate over the values in the array ...
+        Array array = createArrayStartingWith(token, parser);
         while ( token != JsonToken.END_ARRAY ) {
             switch (token) {
                 case START_OBJECT:
@@ -242,4 +256,24 @@ final class JacksonReader implements DocumentReader, ArrayReader {
         }
         return array;
     }
+    
+    /**
+     * Create an array suited to the first value in the JSON array. Arrays that start with an integer, long or double number are
+     * stored in primitive arrays, which switch to generic storage should any other kind of value follow.
+     */
+    private Array createArrayStartingWith( JsonToken token, JsonParser parser ) throws IOException {
+        if ( token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT ) {
+            switch (parser.getNumberType()) {
+                case INT:
+                    return new IntArray();
+                case LONG:
+                    return new LongArray();
+                case DOUBLE:
+                    return new DoubleArray();
+                default:
+                    break;
+            }
+        }
+        return new BasicArray();
+    }
 }
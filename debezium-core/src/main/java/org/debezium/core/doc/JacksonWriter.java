@@ -5,11 +5,12 @@
  */
 package org.debezium.core.doc;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
@@ -17,8 +18,12 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 
 /**
- * @author Randall Hauch
+ * A writer of JSON representations of {@link Document}s and {@link Array}s.
+ * <p>
+ * Each thread reuses a single output buffer and generator when writing values as bytes, so that encoding a value only allocates
+ * the resulting byte array, and {@link #write(Document, ByteBuffer)} allocates nothing at all.
  *
+ * @author Randall Hauch
  */
 final class JacksonWriter implements DocumentWriter, ArrayWriter {
     
@@ -32,10 +37,24 @@ final class JacksonWriter implements DocumentWriter, ArrayWriter {
     }
 
     private final boolean pretty;
+    private final ThreadLocal<Output> outputs = ThreadLocal.withInitial(Output::new);
+    
     private JacksonWriter( boolean pretty ) {
         this.pretty = pretty;
     }
     
+    /**
+     * Obtain the output for the current thread, or a new output if the thread's output is already in use.
+     * 
+     * @return the output that should be {@link Output#release() released} when no longer needed; never null
+     */
+    private Output output() {
+        Output output = outputs.get();
+        if (output.inUse) return new Output();
+        output.inUse = true;
+        return output;
+    }
+    
     @Override
     public void write(Document document, OutputStream jsonStream) throws IOException {
         try ( JsonGenerator jsonGenerator = factory.createGenerator(jsonStream) ) {
@@ -64,14 +83,27 @@ final class JacksonWriter implements DocumentWriter, ArrayWriter {
     
     @Override
     public byte[] writeAsBytes(Document document) {
-        try (ByteArrayOutputStream stream = new ByteArrayOutputStream()) {
-            try (JsonGenerator jsonGenerator = factory.createGenerator(stream, JsonEncoding.UTF8)) {
-                configure(jsonGenerator);
-                writeDocument(document, jsonGenerator);
-            }
-            return stream.toByteArray();
+        Output output = output();
+        try {
+            output.encode(generator -> writeDocument(document, generator));
+            return output.toByteArray();
         } catch (IOException e ) {
             throw new RuntimeException(e);
+        } finally {
+            output.release();
+        }
+    }
+    
+    @Override
+    public int write(Document document, ByteBuffer buffer) {
+        Output output = output();
+        try {
+            output.encode(generator -> writeDocument(document, generator));
+            return output.writeTo(buffer);
+        } catch (IOException e ) {
+            throw new RuntimeException(e);
+        } finally {
+            output.release();
         }
     }
     
@@ -91,6 +123,32 @@ final class JacksonWriter implements DocumentWriter, ArrayWriter {
         }
     }
     
+    @Override
+    public byte[] writeAsBytes(Array array) {
+        Output output = output();
+        try {
+            output.encode(generator -> writeArray(array, generator));
+            return output.toByteArray();
+        } catch (IOException e ) {
+            throw new RuntimeException(e);
+        } finally {
+            output.release();
+        }
+    }
+    
+    @Override
+    public int write(Array array, ByteBuffer buffer) {
+        Output output = output();
+        try {
+            output.encode(generator -> writeArray(array, generator));
+            return output.writeTo(buffer);
+        } catch (IOException e ) {
+            throw new RuntimeException(e);
+        } finally {
+            output.release();
+        }
+    }
+    
     @Override
     public String write(Array array ) throws IOException {
         StringWriter writer = new StringWriter();
@@ -153,16 +211,16 @@ final class JacksonWriter implements DocumentWriter, ArrayWriter {
                 generator.writeBinary(value.asBytes());
                 break;
             case INTEGER:
-                generator.writeNumber(value.asInteger());
+                generator.writeNumber(value.asInteger(0));
                 break;
             case LONG:
-                generator.writeNumber(value.asLong());
+                generator.writeNumber(value.asLong(0L));
                 break;
             case FLOAT:
                 generator.writeNumber(value.asFloat());
                 break;
             case DOUBLE:
-                generator.writeNumber(value.asDouble());
+                generator.writeNumber(value.asDouble(0.0d));
                 break;
             case BIG_INTEGER:
                 generator.writeNumber(value.asBigInteger());
@@ -179,6 +237,83 @@ final class JacksonWriter implements DocumentWriter, ArrayWriter {
         }
     }
     
+    @FunctionalInterface
+    private static interface Writing {
+        void write(JsonGenerator generator) throws IOException;
+    }
+    
+    /**
+     * A growable buffer holding the UTF-8 JSON bytes of a single top-level value, along with the generator that writes into it.
+     * Compact generators are reused for subsequent values, while pretty generators are not since they always separate
+     * top-level values.
+     */
+    private final class Output extends OutputStream {
+        private static final int INITIAL_CAPACITY = 256;
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+        
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+        private int size;
+        private JsonGenerator generator;
+        private boolean inUse;
+        
+        void encode(Writing writing) throws IOException {
+            if (generator == null) {
+                generator = factory.createGenerator(this, JsonEncoding.UTF8);
+                generator.setRootValueSeparator(null);
+                configure(generator);
+            }
+            boolean completed = false;
+            try {
+                writing.write(generator);
+                generator.flush();
+                completed = true;
+            } finally {
+                // A generator that failed part way through a value is not reused ...
+                if (!completed) generator = null;
+            }
+            if (pretty) {
+                generator.close();
+                generator = null;
+            }
+        }
+        
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+        
+        private void ensureCapacity(int additional) {
+            int required = size + additional;
+            if (required > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+        
+        int writeTo(ByteBuffer buffer) {
+            buffer.put(this.buffer, 0, size);
+            return size;
+        }
+        
+        /**
+         * Discard the content of this output so that it can be reused. Overly large buffers are not retained.
+         */
+        void release() {
+            if (buffer.length > MAX_RETAINED_CAPACITY) buffer = new byte[INITIAL_CAPACITY];
+            size = 0;
+            inUse = false;
+        }
+    }
+    
     protected static final class WritingError extends RuntimeException {
         private static final long serialVersionUID = 1L;
         private final IOException wrapped;
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.debezium.core.annotation.NotThreadSafe;
+
+/**
+ * A {@link Document} that is a view over a document encoded in the {@link BinaryWriter binary format}. The names and positions
+ * of the fields are determined the first time the document is used, but each value is decoded only when it is first accessed
+ * and then cached. Nested documents are themselves lazy.
+ * <p>
+ * The view is read-only: the first modification converts this document into a mutable copy, after which all methods operate
+ * on that copy and the encoded bytes are no longer used.
+ * <p>
+ * A lazy document that was read from a complete binary-encoded document (rather than being nested inside one) and that remains
+ * {@link #isUnmodified() unmodified} can be {@link #isSpliceable() spliced} by the {@link BinaryWriter} directly into its output
+ * without re-encoding.
+ *
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class LazyDocument implements Document {
+
+    private final byte[] buffer;
+    private final int offset;
+    private final int limit;
+    private final int start;
+    private final List<String> symbols;
+    private String[] names;
+    private int[] positions;
+    private Value[] values;
+    private BasicDocument copy;
+
+    /**
+     * Create a lazy view of the document whose encoded fields start at the given offset.
+     *
+     * @param buffer the buffer containing the encoded document; may not be null
+     * @param offset the position of the document's field count within the buffer
+     * @param limit the position just after the last byte of the encoded top-level document
+     * @param symbols the field name symbol table for the buffer, which must be complete before any nested document is indexed
+     * @param start the position of the header of the encoded top-level document if this is that document, or -1 if this is a
+     *            nested document
+     */
+    LazyDocument(byte[] buffer, int offset, int limit, List<String> symbols, int start) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.limit = limit;
+        this.symbols = symbols;
+        this.start = start;
+    }
+
+    /**
+     * Determine the names and positions of the fields by reading from the supplied input, which must be positioned at this
+     * document's field count.
+     *
+     * @param input the input; may not be null
+     * @throws IOException if the content is malformed
+     */
+    void index(BinaryReader.Input input) throws IOException {
+        int size = input.readVarint();
+        String[] names = new String[size];
+        int[] positions = new int[size];
+        for (int i = 0; i != size; ++i) {
+            names[i] = input.readFieldName();
+            positions[i] = input.position();
+            input.skipValue();
+        }
+        this.names = names;
+        this.positions = positions;
+        this.values = new Value[size];
+    }
+
+    private void ensureIndexed() {
+        if (names == null) {
+            try {
+                index(new BinaryReader.Input(buffer, offset, limit, symbols, false));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read encoded document", e);
+            }
+        }
+    }
+
+    private int indexOf(CharSequence fieldName) {
+        ensureIndexed();
+        for (int i = 0; i != names.length; ++i) {
+            if (names[i].contentEquals(fieldName)) return i;
+        }
+        return -1;
+    }
+
+    private Value valueAt(int index) {
+        Value value = values[index];
+        if (value == null) {
+            try {
+                value = new BinaryReader.Input(buffer, positions[index], limit, symbols, false).readValue();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read value of field '" + names[index] + "'", e);
+            }
+            values[index] = value;
+        }
+        return value;
+    }
+
+    private BasicDocument mutable() {
+        if (copy == null) {
+            ensureIndexed();
+            BasicDocument doc = new BasicDocument();
+            for (int i = 0; i != names.length; ++i) {
+                doc.putValue(names[i], valueAt(i));
+            }
+            copy = doc;
+        }
+        return copy;
+    }
+
+    /**
+     * Determine whether this document and all of the values obtained from it are still unmodified, so that the encoded bytes
+     * still represent this document. Arrays are mutable and are not tracked, so any array that has been accessed is considered
+     * to be modified.
+     *
+     * @return true if this document is known to be unmodified, or false otherwise
+     */
+    boolean isUnmodified() {
+        if (copy != null) return false;
+        if (values == null) return true;
+        for (Value value : values) {
+            if (value == null) continue;
+            if (value.isArray()) return false;
+            if (value.isDocument()) {
+                Document nested = value.asDocument();
+                if (!(nested instanceof LazyDocument) || !((LazyDocument) nested).isUnmodified()) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determine whether the encoded form of this document can be written as-is.
+     *
+     * @return true if this document is an unmodified view of a complete encoded document, or false otherwise
+     */
+    boolean isSpliceable() {
+        return start >= 0 && isUnmodified();
+    }
+
+    /**
+     * Get the buffer containing the encoded form of this document. This should only be used if this document
+     * {@link #isSpliceable() is spliceable}.
+     *
+     * @return the buffer; never null
+     */
+    byte[] encodedBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Get the position within the {@link #encodedBuffer() buffer} of the first byte of this document's encoded form.
+     *
+     * @return the position; negative if this document is not a complete encoded document
+     */
+    int encodedStart() {
+        return start;
+    }
+
+    /**
+     * Get the position within the {@link #encodedBuffer() buffer} just after the last byte of this document's encoded form.
+     *
+     * @return the position
+     */
+    int encodedEnd() {
+        return limit;
+    }
+
+    @Override
+    public int size() {
+        if (copy != null) return copy.size();
+        ensureIndexed();
+        return names.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int compareTo(Document that) {
+        if (copy != null) return copy.compareTo(that);
+        if (that == null) return 1;
+        if (this.size() != that.size()) {
+            return this.size() - that.size();
+        }
+        for (int i = 0; i != names.length; ++i) {
+            int diff = valueAt(i).compareTo(that.get(names[i]));
+            if (diff != 0) return diff;
+        }
+        return 0;
+    }
+
+    @Override
+    public Iterable<CharSequence> keySet() {
+        if (copy != null) return copy.keySet();
+        ensureIndexed();
+        return Collections.unmodifiableList(Arrays.<CharSequence> asList(names));
+    }
+
+    @Override
+    public Iterator<Field> iterator() {
+        if (copy != null) return copy.iterator();
+        ensureIndexed();
+        return new Iterator<Field>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < names.length;
+            }
+
+            @Override
+            public Field next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int index = next++;
+                return new BasicField(names[index], valueAt(index));
+            }
+        };
+    }
+
+    @Override
+    public boolean has(CharSequence fieldName) {
+        if (copy != null) return copy.has(fieldName);
+        return indexOf(fieldName) >= 0;
+    }
+
+    @Override
+    public boolean hasAll(Document that) {
+        if (copy != null) return copy.hasAll(that);
+        if (that == null) return true;
+        if (this.size() < that.size()) {
+            // Can't have all of 'that' if 'that' is bigger ...
+            return false;
+        }
+        for (int i = 0; i != names.length; ++i) {
+            if (!valueAt(i).equals(that.get(names[i]))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Value get(CharSequence fieldName, Comparable<?> defaultValue) {
+        if (copy != null) return copy.get(fieldName, defaultValue);
+        int index = indexOf(fieldName);
+        return index >= 0 ? valueAt(index) : Value.create(defaultValue);
+    }
+
+    @Override
+    public void clear() {
+        mutable().clear();
+    }
+
+    @Override
+    public Document removeAll() {
+        mutable().removeAll();
+        return this;
+    }
+
+    @Override
+    public Value remove(CharSequence name) {
+        return mutable().remove(name);
+    }
+
+    @Override
+    public Document setValue(CharSequence name, Value value) {
+        mutable().setValue(name, value);
+        return this;
+    }
+
+    @Override
+    public Document clone() {
+        // While unmodified, the encoded bytes can be shared ...
+        if (isUnmodified()) {
+            LazyDocument clone = new LazyDocument(buffer, offset, limit, symbols, start);
+            clone.names = this.names;
+            clone.positions = this.positions;
+            if (values != null) clone.values = new Value[values.length];
+            return clone;
+        }
+        if (copy != null) return copy.clone();
+        return new BasicDocument().putAll(this);
+    }
+
+    @Override
+    public int hashCode() {
+        if (copy != null) return copy.hashCode();
+        // Same as the hash code of the equivalent BasicDocument ...
+        ensureIndexed();
+        int hc = 0;
+        for (int i = 0; i != names.length; ++i) {
+            hc += names[i].hashCode() ^ valueAt(i).hashCode();
+        }
+        return hc;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj instanceof Document) {
+            Document that = (Document) obj;
+            return this.hasAll(that) && that.hasAll(this);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return DocumentWriter.prettyWriter().write(this);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
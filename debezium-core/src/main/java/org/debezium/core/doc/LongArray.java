@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.util.Arrays;
+
+/**
+ * An {@link Array} that stores {@link Value.Type#LONG long} values in a {@code long[]}.
+ *
+ * @author Randall Hauch
+ */
+final class LongArray extends PrimitiveArray {
+
+    static boolean canHold(Value value) {
+        return value instanceof LongValue;
+    }
+
+    private long[] values;
+
+    LongArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    LongArray(int capacity) {
+        this.values = new long[Math.max(capacity, 0)];
+    }
+
+    LongArray(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    protected Value valueAt(int index) {
+        return LongValue.of(values[index]);
+    }
+
+    @Override
+    protected boolean canStore(Value value) {
+        return canHold(value);
+    }
+
+    @Override
+    protected void store(int index, Value value) {
+        if (index == size && size == values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        values[index] = value.asLong(0L);
+    }
+
+    @Override
+    protected void removeAt(int index) {
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+    }
+
+    @Override
+    protected void release() {
+        values = null;
+    }
+
+    @Override
+    public Array add(long value) {
+        if (isGeneric()) return generic().add(value);
+        if (size == values.length) values = Arrays.copyOf(values, grow(values.length, size + 1));
+        values[size++] = value;
+        return this;
+    }
+
+    @Override
+    public Array clone() {
+        if (isGeneric()) return generic().clone();
+        return new LongArray(Arrays.copyOf(values, Math.max(size, DEFAULT_CAPACITY)), size);
+    }
+}
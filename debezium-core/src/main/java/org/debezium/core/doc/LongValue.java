@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.math.BigInteger;
+
+import org.debezium.core.annotation.Immutable;
+
+/**
+ * A {@link Value} holding a primitive {@code long}. The values for small longs, such as counters, are cached.
+ *
+ * @author Randall Hauch
+ */
+@Immutable
+final class LongValue extends PrimitiveValue {
+
+    private static final int MIN_CACHED = -128;
+    private static final int MAX_CACHED = 1023;
+    private static final LongValue[] CACHE = new LongValue[MAX_CACHED - MIN_CACHED + 1];
+
+    static {
+        for (int i = 0; i != CACHE.length; ++i) {
+            CACHE[i] = new LongValue(i + MIN_CACHED);
+        }
+    }
+
+    static Value of(long value) {
+        if (value >= MIN_CACHED && value <= MAX_CACHED) return CACHE[(int) value - MIN_CACHED];
+        return new LongValue(value);
+    }
+
+    private final long value;
+
+    private LongValue(long value) {
+        this.value = value;
+    }
+
+    private boolean isValidInteger() {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof LongValue) return this.value == ((LongValue) obj).value;
+        if (obj instanceof IntValue) return this.value == ((IntValue) obj).asLong(0L);
+        return super.equals(obj);
+    }
+
+    @Override
+    public int compareTo(Value that) {
+        if (that instanceof LongValue) return Long.compare(this.value, ((LongValue) that).value);
+        return super.compareTo(that);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.LONG;
+    }
+
+    @Override
+    public Comparable<?> asObject() {
+        return Long.valueOf(value);
+    }
+
+    @Override
+    public Integer asInteger() {
+        return isValidInteger() ? Integer.valueOf((int) value) : null;
+    }
+
+    @Override
+    public int asInteger(int defaultValue) {
+        return isValidInteger() ? (int) value : defaultValue;
+    }
+
+    @Override
+    public Long asLong() {
+        return Long.valueOf(value);
+    }
+
+    @Override
+    public long asLong(long defaultValue) {
+        return value;
+    }
+
+    @Override
+    public Number asNumber() {
+        return Long.valueOf(value);
+    }
+
+    @Override
+    public BigInteger asBigInteger() {
+        return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public boolean isInteger() {
+        return isValidInteger();
+    }
+
+    @Override
+    public boolean isLong() {
+        return true;
+    }
+
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+
+    @Override
+    public boolean isBigInteger() {
+        return true;
+    }
+}
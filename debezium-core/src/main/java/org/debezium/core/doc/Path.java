@@ -27,6 +27,10 @@ public interface Path extends Iterable<String> {
             return !isArrayIndex(segment);
         }
         public static Optional<Integer> asInteger( String segment ) {
+            // Avoid the cost of an exception for the common case of a field name ...
+            if ( segment.isEmpty() ) return Optional.empty();
+            char first = segment.charAt(0);
+            if ( first != '-' && first != '+' && (first < '0' || first > '9') ) return Optional.empty();
             try {
                 return Optional.of(Integer.parseInt(segment));
             } catch ( NumberFormatException e ) {
@@ -36,6 +40,16 @@ public interface Path extends Iterable<String> {
         public static Optional<Integer> asInteger( Optional<String> segment ) {
             return segment.isPresent() ? asInteger(segment.get()) : Optional.empty();
         }
+
+        /**
+         * Get the array index in the given segment.
+         * @param segment the segment; may not be null
+         * @return the non-negative array index, or -1 if the segment is not an array index
+         */
+        public static int asIndex( String segment ) {
+            Optional<Integer> index = asInteger(segment);
+            return index.isPresent() && index.get().intValue() >= 0 ? index.get().intValue() : -1;
+        }
     }
     
     public static Path root() {
@@ -46,6 +60,12 @@ public interface Path extends Iterable<String> {
         return Paths.RootPath.OPTIONAL_OF_ROOT;
     }
     
+    /**
+     * Parse the path, resolving any JSON Pointer escapes. The parsed paths are cached, so this method is cheap for paths that
+     * are used repeatedly.
+     * @param path the string representation of the path; may not be null
+     * @return the path; never null
+     */
     static Path parse( String path ) {
         return Paths.parse(path, true);
     }
@@ -76,6 +96,17 @@ public interface Path extends Iterable<String> {
     
     String segment(int index );
     
+    /**
+     * Get the array index in the segment at the given position. Parsed paths compute these once, so that they can be applied
+     * many times without parsing the segments.
+     * @param index the position of the segment
+     * @return the non-negative array index, or -1 if the segment is not an array index
+     * @see Segments#asIndex(String)
+     */
+    default int arrayIndex(int index ) {
+        return Segments.asIndex(segment(index));
+    }
+    
     default Path append( String relPath ) {
         return append(Path.parse(relPath));
     }
@@ -8,6 +8,8 @@ package org.debezium.core.doc;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 
 import org.debezium.core.util.HashCode;
@@ -21,23 +23,55 @@ import org.debezium.core.util.Strings;
  */
 final class Paths {
     
+    /**
+     * The maximum number of parsed paths that are cached. Patches tend to use relatively few distinct paths, so when the cache
+     * is full it is simply cleared.
+     */
+    private static final int MAX_CACHED_PATHS = 4096;
+    
+    private static final ConcurrentMap<String, Path> CACHED_PATHS = new ConcurrentHashMap<>();
+    
     static Path parse( String path, boolean resolveJsonPointerEscapes ) {
+        if ( !resolveJsonPointerEscapes ) return compile(path,false);
+        Path result = CACHED_PATHS.get(path);
+        if ( result == null ) {
+            // Paths are immutable, so it doesn't matter if several threads parse the same path ...
+            result = compile(path,true);
+            if ( CACHED_PATHS.size() >= MAX_CACHED_PATHS ) CACHED_PATHS.clear();
+            CACHED_PATHS.put(path,result);
+        }
+        return result;
+    }
+    
+    static int cacheSize() {
+        return CACHED_PATHS.size();
+    }
+    
+    private static Path compile( String path, boolean resolveJsonPointerEscapes ) {
         // Remove leading and trailing whitespace and '/' characters ...
         path = Strings.trim(path,(c)->c < ' ' || c == '/');
         if ( path.length() == 0 ) return RootPath.INSTANCE;
-        String[] segments = path.split("/");
-        if (segments.length == 1 ) {
-            return new SingleSegmentPath(parseSegment(segments[0],resolveJsonPointerEscapes));
+        int count = 1;
+        for ( int i=0; i!=path.length(); ++i ) {
+            if ( path.charAt(i) == '/' ) ++count;
         }
-        if ( resolveJsonPointerEscapes ) {
-            for ( int i=0; i!=segments.length; ++i ) segments[i] = parseSegment(segments[i],true);
+        if ( count == 1 ) {
+            return new SingleSegmentPath(parseSegment(path,resolveJsonPointerEscapes));
+        }
+        String[] segments = new String[count];
+        int start = 0;
+        for ( int i=0; i!=count; ++i ) {
+            int end = path.indexOf('/',start);
+            if ( end < 0 ) end = path.length();
+            segments[i] = parseSegment(path.substring(start,end),resolveJsonPointerEscapes);
+            start = end + 1;
         }
         return new MultiSegmentPath(segments);
     }
     
     private static String parseSegment( String segment,boolean resolveJsonPointerEscapes ) {
-        if ( resolveJsonPointerEscapes ) {
-            segment = segment.replaceAll("\\~1", "/").replaceAll("\\~0", "~");
+        if ( resolveJsonPointerEscapes && segment.indexOf('~') >= 0 ) {
+            segment = segment.replace("~1", "/").replace("~0", "~");
         }
         return segment;
     }
@@ -110,9 +144,11 @@ final class Paths {
     
     static final class SingleSegmentPath implements Path, InnerPath {
         private final Optional<String> segment;
+        private final int index;
         protected SingleSegmentPath( String segment ) {
             assert segment != null;
             this.segment = Optional.of(segment);    // wrap because we're always giving it away
+            this.index = Segments.asIndex(segment);
         }
         @Override
         public Optional<Path> parent() {
@@ -169,6 +205,11 @@ final class Paths {
             return segment.get();
         }
         @Override
+        public int arrayIndex(int index) {
+            if ( index >= size() || index < 0 ) throw new IllegalArgumentException("Invalid segment index: " + index);
+            return this.index;
+        }
+        @Override
         public Path append(Path relPath) {
             if ( relPath.isRoot() ) return this;
             if ( relPath.isSingle() ) return new ChildPath(this,relPath.lastSegment().get());
@@ -186,14 +227,26 @@ final class Paths {
 
     static final class MultiSegmentPath implements Path, InnerPath {
         private final String[] segments;
+        private final int[] indexes;
+        private Optional<Path> parent;
         protected MultiSegmentPath( String[] segments ) {
+            this(segments,new int[segments.length]);
+            for ( int i=0; i!=segments.length; ++i ) indexes[i] = Segments.asIndex(segments[i]);
+        }
+        private MultiSegmentPath( String[] segments, int[] indexes ) {
             this.segments = segments;
+            this.indexes = indexes;
             assert size() > 1;
         }
         @Override
         public Optional<Path> parent() {
-            if ( size() == 2 ) return Optional.of(new SingleSegmentPath(segments[0]));
-            return Optional.of(new MultiSegmentPath(Arrays.copyOf(segments, segments.length-1)));
+            // Cached paths are used repeatedly, so compute the parent only once (races are harmless) ...
+            Optional<Path> result = parent;
+            if ( result == null ) {
+                result = Optional.of(subpath(segments.length-1));
+                parent = result;
+            }
+            return result;
         }
         @Override
         public Optional<String> lastSegment() {
@@ -205,7 +258,7 @@ final class Paths {
         }
         @Override
         public int hashCode() {
-            return segments.hashCode();
+            return Arrays.hashCode(segments);
         }
         @Override
         public boolean equals(Object obj) {
@@ -247,7 +300,7 @@ final class Paths {
             if ( length == 0 ) return RootPath.INSTANCE;
             if ( length == 1 ) return new SingleSegmentPath(segments[0]);
             if ( length == size() ) return this;
-            return new MultiSegmentPath(Arrays.copyOf(segments, length));
+            return new MultiSegmentPath(Arrays.copyOf(segments, length),Arrays.copyOf(indexes, length));
         }
         @Override
         public String segment(int index) {
@@ -255,6 +308,11 @@ final class Paths {
             return segments[index];
         }
         @Override
+        public int arrayIndex(int index) {
+            if ( index >= size() || index < 0 ) throw new IllegalArgumentException("Invalid segment index: " + index);
+            return indexes[index];
+        }
+        @Override
         public Path append(Path relPath) {
             if ( relPath.isRoot() ) return this;
             if ( relPath.isSingle() ) return new ChildPath(this,relPath.lastSegment().get());
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The base class for the {@link Array} implementations that store numeric values in a primitive array rather than as
+ * individual {@link Value} objects. Values are only created as they are requested. The first time a value is added or set that
+ * the primitive array cannot hold, all of the values are moved into a {@link BasicArray} to which this array then delegates.
+ *
+ * @author Randall Hauch
+ */
+abstract class PrimitiveArray implements Array {
+
+    protected static final int DEFAULT_CAPACITY = 10;
+
+    private BasicArray generic;
+    protected int size;
+
+    /**
+     * Get the value at the given index, which is known to be valid.
+     *
+     * @param index the index
+     * @return the value; never null
+     */
+    protected abstract Value valueAt(int index);
+
+    /**
+     * Determine whether the supplied value can be stored in the primitive array.
+     *
+     * @param value the value; never null
+     * @return true if the value can be stored, or false otherwise
+     */
+    protected abstract boolean canStore(Value value);
+
+    /**
+     * Store the value at the given index, which is known to be valid or the index just after the last value.
+     *
+     * @param index the index
+     * @param value the value that {@link #canStore(Value) can be stored}
+     */
+    protected abstract void store(int index, Value value);
+
+    /**
+     * Remove the value at the given index, which is known to be valid, and shift all subsequent values.
+     *
+     * @param index the index
+     */
+    protected abstract void removeAt(int index);
+
+    /**
+     * Discard the primitive array after the values have been moved into a generic array.
+     */
+    protected abstract void release();
+
+    protected final boolean isGeneric() {
+        return generic != null;
+    }
+
+    protected final Array generic() {
+        if (generic == null) {
+            ArrayList<Value> values = new ArrayList<>(Math.max(size, DEFAULT_CAPACITY));
+            for (int i = 0; i != size; ++i) {
+                values.add(valueAt(i));
+            }
+            generic = new BasicArray(values);
+            size = 0;
+            release();
+        }
+        return generic;
+    }
+
+    protected static int grow(int capacity, int minCapacity) {
+        int newCapacity = capacity + (capacity >> 1) + 1;
+        return newCapacity < minCapacity ? minCapacity : newCapacity;
+    }
+
+    protected final boolean isValidIndex(int index) {
+        return index >= 0 && index < size;
+    }
+
+    @Override
+    public int size() {
+        return generic != null ? generic.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean has(int index) {
+        return generic != null ? generic.has(index) : isValidIndex(index);
+    }
+
+    @Override
+    public Value get(int index) {
+        if (generic != null) return generic.get(index);
+        return isValidIndex(index) ? valueAt(index) : null;
+    }
+
+    @Override
+    public Value remove(int index) {
+        if (generic != null) return generic.remove(index);
+        if (!isValidIndex(index)) return null;
+        Value removed = valueAt(index);
+        removeAt(index);
+        --size;
+        return removed;
+    }
+
+    @Override
+    public Array removeAll() {
+        if (generic != null) {
+            generic.removeAll();
+        } else {
+            size = 0;
+        }
+        return this;
+    }
+
+    @Override
+    public Array setValue(int index, Value value) {
+        if (value == null) value = Value.nullValue();
+        if (generic == null && canStore(value)) {
+            if (index < 0 || index > size) {
+                throw new IllegalArgumentException("The index " + index + " is too large for this array, which has only " + size
+                        + " values");
+            }
+            store(index, value);
+            if (index == size) ++size;
+            return this;
+        }
+        generic().setValue(index, value);
+        return this;
+    }
+
+    @Override
+    public Array add(Value value) {
+        if (value == null) value = Value.nullValue();
+        if (generic == null && canStore(value)) {
+            store(size++, value);
+            return this;
+        }
+        generic().add(value);
+        return this;
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        if (generic != null) return generic.iterator();
+        return new Iterator<Entry>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Entry next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int index = next++;
+                return new BasicEntry(index, get(index));
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Value> values() {
+        if (generic != null) return generic.values();
+        return () -> new Iterator<Value>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Value next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    @Override
+    public Stream<Value> streamValues() {
+        if (generic != null) return generic.streamValues();
+        return IntStream.range(0, size).mapToObj(this::valueAt);
+    }
+
+    @Override
+    public int compareTo(Array that) {
+        if (that == null) return 1;
+        int size = this.size();
+        if (size != that.size()) return size - that.size();
+        for (int i = 0; i != size; ++i) {
+            int diff = that.get(i).compareTo(get(i));
+            if (diff != 0) return diff;
+        }
+        return 0;
+    }
+
+    @Override
+    public abstract Array clone();
+
+    @Override
+    public int hashCode() {
+        // Same as the hash code of a list of values ...
+        int hashCode = 1;
+        for (int i = 0, size = size(); i != size; ++i) {
+            hashCode = 31 * hashCode + get(i).hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj instanceof Array) {
+            Array that = (Array) obj;
+            int size = this.size();
+            if (size != that.size()) return false;
+            for (int i = 0; i != size; ++i) {
+                if (!get(i).equals(that.get(i))) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0, size = size(); i != size; ++i) {
+            if (i != 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * The base class for the immutable {@link Value} implementations that hold a primitive rather than a boxed object. These behave
+ * exactly like a {@link ComparableValue} holding the equivalent boxed object, but only box when the value is requested as an
+ * object.
+ *
+ * @author Randall Hauch
+ */
+abstract class PrimitiveValue implements Value {
+
+    @Override
+    public abstract Comparable<?> asObject();
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj instanceof Value) {
+            Value that = (Value) obj;
+            if (this.isNumber() && that.isNumber()) {
+                if (this.isLong()) return this.asLong().equals(that.asLong());
+                if (this.isDouble()) return this.asDouble().equals(that.asDouble());
+            }
+            return asObject().equals(that.asObject());
+        }
+        // Compare the value straight away ...
+        return asObject().equals(obj);
+    }
+
+    @Override
+    public String toString() {
+        return asObject().toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int compareTo(Value that) {
+        if (that.isNull()) return 1;
+        return ((Comparable<Object>) asObject()).compareTo(that.asObject());
+    }
+
+    @Override
+    public String asString() {
+        return null;
+    }
+
+    @Override
+    public Integer asInteger() {
+        return null;
+    }
+
+    @Override
+    public Long asLong() {
+        return null;
+    }
+
+    @Override
+    public Boolean asBoolean() {
+        return null;
+    }
+
+    @Override
+    public Number asNumber() {
+        return null;
+    }
+
+    @Override
+    public BigInteger asBigInteger() {
+        return null;
+    }
+
+    @Override
+    public BigDecimal asBigDecimal() {
+        return null;
+    }
+
+    @Override
+    public Float asFloat() {
+        return null;
+    }
+
+    @Override
+    public Double asDouble() {
+        return null;
+    }
+
+    @Override
+    public Document asDocument() {
+        return null;
+    }
+
+    @Override
+    public Array asArray() {
+        return null;
+    }
+
+    @Override
+    public byte[] asBytes() {
+        return null;
+    }
+
+    @Override
+    public boolean isNull() {
+        return false;
+    }
+
+    @Override
+    public boolean isString() {
+        return false;
+    }
+
+    @Override
+    public boolean isInteger() {
+        return false;
+    }
+
+    @Override
+    public boolean isLong() {
+        return false;
+    }
+
+    @Override
+    public boolean isBoolean() {
+        return false;
+    }
+
+    @Override
+    public boolean isNumber() {
+        return false;
+    }
+
+    @Override
+    public boolean isBigInteger() {
+        return false;
+    }
+
+    @Override
+    public boolean isBigDecimal() {
+        return false;
+    }
+
+    @Override
+    public boolean isFloat() {
+        return false;
+    }
+
+    @Override
+    public boolean isDouble() {
+        return false;
+    }
+
+    @Override
+    public boolean isDocument() {
+        return false;
+    }
+
+    @Override
+    public boolean isArray() {
+        return false;
+    }
+
+    @Override
+    public boolean isBinary() {
+        return false;
+    }
+
+    @Override
+    public Value convert() {
+        return new ConvertingValue(this);
+    }
+
+    @Override
+    public Value clone() {
+        // Primitive values are immutable ...
+        return this;
+    }
+}
@@ -41,6 +41,12 @@ public interface Value extends Comparable<Value> {
 
     static Value create(Object value) {
         if ( value instanceof Value ) return (Value)value;
+        // Use the primitive values where possible ...
+        if ( value instanceof Integer ) return IntValue.of(((Integer)value).intValue());
+        if ( value instanceof Long ) return LongValue.of(((Long)value).longValue());
+        if ( value instanceof Double ) return DoubleValue.of(((Double)value).doubleValue());
+        if ( value instanceof Boolean ) return BooleanValue.of(((Boolean)value).booleanValue());
+        if ( value instanceof Short || value instanceof Byte ) return IntValue.of(((Number)value).intValue());
         if ( !isValid(value) ) {
             assert value != null;
             throw new IllegalArgumentException("Unexpected value " + value + "' of type " + value.getClass());
@@ -49,15 +55,15 @@ public interface Value extends Comparable<Value> {
     }
 
     static Value create(boolean value) {
-        return new ComparableValue(Boolean.valueOf(value));
+        return BooleanValue.of(value);
     }
 
     static Value create(int value) {
-        return new ComparableValue(Integer.valueOf(value));
+        return IntValue.of(value);
     }
 
     static Value create(long value) {
-        return new ComparableValue(Long.valueOf(value));
+        return LongValue.of(value);
     }
 
     static Value create(float value) {
@@ -65,7 +71,7 @@ public interface Value extends Comparable<Value> {
     }
 
     static Value create(double value) {
-        return new ComparableValue(Double.valueOf(value));
+        return DoubleValue.of(value);
     }
 
     static Value create(BigInteger value) {
@@ -77,11 +83,11 @@ public interface Value extends Comparable<Value> {
     }
 
     static Value create(Integer value) {
-        return value == null ? NullValue.INSTANCE : new ComparableValue(value);
+        return value == null ? NullValue.INSTANCE : IntValue.of(value.intValue());
     }
 
     static Value create(Long value) {
-        return value == null ? NullValue.INSTANCE : new ComparableValue(value);
+        return value == null ? NullValue.INSTANCE : LongValue.of(value.longValue());
     }
 
     static Value create(Float value) {
@@ -89,7 +95,7 @@ public interface Value extends Comparable<Value> {
     }
 
     static Value create(Double value) {
-        return value == null ? NullValue.INSTANCE : new ComparableValue(value);
+        return value == null ? NullValue.INSTANCE : DoubleValue.of(value.doubleValue());
     }
 
     static Value create(String value) {
@@ -127,8 +133,30 @@ public interface Value extends Comparable<Value> {
 
     Integer asInteger();
 
+    /**
+     * Get the value as a primitive int, without boxing when the value is stored as a primitive.
+     * 
+     * @param defaultValue the value to return if this value is not an {@link #isInteger() integer}
+     * @return the integer value, or the default value
+     */
+    default int asInteger(int defaultValue) {
+        Integer value = isInteger() ? asInteger() : null;
+        return value != null ? value.intValue() : defaultValue;
+    }
+
     Long asLong();
 
+    /**
+     * Get the value as a primitive long, without boxing when the value is stored as a primitive.
+     * 
+     * @param defaultValue the value to return if this value is not a {@link #isLong() long}
+     * @return the long value, or the default value
+     */
+    default long asLong(long defaultValue) {
+        Long value = isLong() ? asLong() : null;
+        return value != null ? value.longValue() : defaultValue;
+    }
+
     Boolean asBoolean();
 
     Number asNumber();
@@ -141,6 +169,17 @@ public interface Value extends Comparable<Value> {
 
     Double asDouble();
 
+    /**
+     * Get the value as a primitive double, without boxing when the value is stored as a primitive.
+     * 
+     * @param defaultValue the value to return if this value is not a {@link #isDouble() double}
+     * @return the double value, or the default value
+     */
+    default double asDouble(double defaultValue) {
+        Double value = isDouble() ? asDouble() : null;
+        return value != null ? value.doubleValue() : defaultValue;
+    }
+
     Document asDocument();
 
     Array asArray();
@@ -264,7 +303,7 @@ public interface Value extends Comparable<Value> {
      */
     default boolean ifInteger( IntConsumer consumer ) {
         if ( isInteger() ) {
-            consumer.accept(asInteger().intValue());
+            consumer.accept(asInteger(0));
             return true;
         }
         return false;
@@ -277,7 +316,7 @@ public interface Value extends Comparable<Value> {
      */
     default boolean ifLong( LongConsumer consumer ) {
         if ( isLong() ) {
-            consumer.accept(asLong().longValue());
+            consumer.accept(asLong(0L));
             return true;
         }
         return false;
@@ -303,7 +342,7 @@ public interface Value extends Comparable<Value> {
      */
     default boolean ifDouble( DoubleConsumer consumer ) {
         if ( isDouble() ) {
-            consumer.accept(asDouble().intValue());
+            consumer.accept(asDouble(0.0d));
             return true;
         }
         return false;
@@ -8,6 +8,7 @@ package org.debezium.core.message;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
@@ -22,6 +23,7 @@ import org.debezium.core.component.ZoneId;
 import org.debezium.core.component.ZoneSubscription.Interest;
 import org.debezium.core.doc.Array;
 import org.debezium.core.doc.Document;
+import org.debezium.core.doc.Path;
 import org.debezium.core.doc.Value;
 import org.debezium.core.util.Collect;
 
@@ -51,7 +53,9 @@ public final class Message {
         public static final String PATCHES = "patches";
         public static final String INCLUDE_AFTER = "includeAfter";
         public static final String INCLUDE_BEFORE = "includeBefore";
+        public static final String RESPONSE_PARTITION = "responsePartition";
         public static final String OPS = "ops";
+        public static final String PROJECTION = "projection";
         public static final String STATUS = "status";
         public static final String ERROR = "error";
         public static final String BEFORE = "before";
@@ -122,19 +126,33 @@ public final class Message {
         }
     }
 
-    private static final Set<String> HEADER_FIELD_NAMES = Collect.unmodifiableSet(Field.CLIENT_ID,
-                                                                                  Field.REQUEST,
-                                                                                  Field.USER,
-                                                                                  Field.PART,
-                                                                                  Field.PARTS,
-                                                                                  Field.DATABASE_ID,
-                                                                                  Field.COLLECTION,
-                                                                                  Field.ZONE_ID,
-                                                                                  Field.ENTITY,
-                                                                                  Field.BEGUN,
-                                                                                  Field.LEARNING,
-                                                                                  Field.INCLUDE_BEFORE,
-                                                                                  Field.INCLUDE_AFTER);
+    static final Set<String> HEADER_FIELD_NAMES = Collect.unmodifiableSet(Field.CLIENT_ID,
+                                                                          Field.REQUEST,
+                                                                          Field.USER,
+                                                                          Field.PART,
+                                                                          Field.PARTS,
+                                                                          Field.DATABASE_ID,
+                                                                          Field.COLLECTION,
+                                                                          Field.ZONE_ID,
+                                                                          Field.ENTITY,
+                                                                          Field.BEGUN,
+                                                                          Field.LEARNING,
+                                                                          Field.INCLUDE_BEFORE,
+                                                                          Field.INCLUDE_AFTER,
+                                                                          Field.RESPONSE_PARTITION);
+
+    /**
+     * The header fields that identify one part of a batch request, and that therefore are not shared by all of its parts.
+     */
+    static final Set<String> PER_PART_HEADER_FIELD_NAMES = Collect.unmodifiableSet(Field.PART,
+                                                                                   Field.PARTS,
+                                                                                   Field.DATABASE_ID,
+                                                                                   Field.COLLECTION,
+                                                                                   Field.ZONE_ID,
+                                                                                   Field.ENTITY);
+
+    private static final Set<String> SHARED_HEADER_FIELD_NAMES = Collect.unmodifiableSet(
+            HEADER_FIELD_NAMES.stream().filter(name -> !PER_PART_HEADER_FIELD_NAMES.contains(name)).collect(Collectors.toSet()));
 
     /**
      * Create a new response message from the supplied request. The response will contain all of the {@link #HEADER_FIELD_NAMES
@@ -176,6 +194,28 @@ public final class Message {
         return complete;
     }
 
+    /**
+     * Create a complete aggregate response message from all of the supplied partial responses.
+     * 
+     * @param partialResponses the partial responses, ordered by their {@link Field#PART part number}; may not be null or empty
+     * @param begun the time at which the first partial response was received
+     * @return the complete aggregate response document; never null
+     */
+    public static Document createAggregateResponse(List<Document> partialResponses, long begun) {
+        assert !partialResponses.isEmpty();
+        Document first = partialResponses.get(0);
+        Document complete = Document.create();
+        // Set only some of the headers ...
+        complete.setString(Field.CLIENT_ID, first.getString(Field.CLIENT_ID));
+        complete.setNumber(Field.REQUEST, first.getLong(Field.REQUEST));
+        complete.setString(Field.USER, first.getString(Field.USER));
+        complete.setNumber(Field.PARTS, partialResponses.size());
+        complete.setNumber(Field.BEGUN, begun);
+        complete.setNumber(Field.ENDED, System.currentTimeMillis());
+        complete.setArray(Field.RESPONSES, Array.create(partialResponses));
+        return complete;
+    }
+
     /**
      * Add the supplied partial response to the given aggregate response message.
      * 
@@ -348,6 +388,18 @@ public final class Message {
     public static void copyHeaders(Document source, Document target) {
         target.putAll(source, (name) -> HEADER_FIELD_NAMES.contains(name.toString()));
     }
+
+    /**
+     * Copy into the target document the header fields in the source batch request that apply to every patch in the batch. These
+     * are all of the {@link #copyHeaders(Document, Document) header fields} except for the {@link #PER_PART_HEADER_FIELD_NAMES
+     * identifier and part fields}.
+     * 
+     * @param batchRequest the batch request with the header fields to be copied; may not be null
+     * @param target the document into which copies of the shared header fields should be placed; may not be null
+     */
+    public static void copySharedHeaders(Document batchRequest, Document target) {
+        target.putAll(batchRequest, (name) -> SHARED_HEADER_FIELD_NAMES.contains(name.toString()));
+    }
     
     /**
      * Copy into the target document the {@link Field#ENDED ended} time in the source message, which is the time
@@ -403,6 +455,16 @@ public final class Message {
         message.setNumber(Field.ENDED, timestamp);
     }
 
+    /**
+     * Get the {@link Field#ENDED ended} time in the supplied message, which is the time at which processing was completed.
+     * 
+     * @param message the message; may not be null
+     * @return the ended time in milliseconds, or -1 if the message has no ended time
+     */
+    public static long getEnded(Document message) {
+        return message.getLong(Field.ENDED, -1L);
+    }
+
     /**
      * Get the {@link Status} in the supplied message.
      * 
@@ -490,6 +552,29 @@ public final class Message {
         return message.getString(Field.CLIENT_ID);
     }
 
+    /**
+     * Specify the partition of the {@value Topic#PARTIAL_RESPONSES} topic to which the responses to the request should be sent.
+     * 
+     * @param request the request message; may not be null
+     * @param partition the partition number; must not be negative
+     */
+    public static void setResponsePartition(Document request, int partition) {
+        request.setNumber(Field.RESPONSE_PARTITION, partition);
+    }
+
+    /**
+     * Get the partition key that should be used when sending the supplied response to the {@value Topic#PARTIAL_RESPONSES}
+     * topic. This is the {@link #setResponsePartition(Document, int) response partition} requested by the client, which as an
+     * integer key selects that partition directly, or the client identifier if the client did not request a partition.
+     * 
+     * @param response the response message; may not be null
+     * @return the partition key; never null
+     */
+    public static Object getResponsePartitionKey(Document response) {
+        Integer partition = response.getInteger(Field.RESPONSE_PARTITION);
+        return partition != null ? partition : getClient(response);
+    }
+
     public static boolean isFromClient(Document message, String clientId) {
         Value value = message.get(Field.CLIENT_ID);
         return value != null && value.isString() && value.asString().equals(clientId);
@@ -529,17 +614,114 @@ public final class Message {
         return message.getDocument(Field.BEFORE);
     }
 
+    /**
+     * Specify that the response to the read request should contain only the values at the given paths of the entity.
+     * 
+     * @param request the read request; may not be null
+     * @param paths the paths of the values to be returned; may not be null
+     * @see #project(Document, Iterable)
+     */
+    public static void setProjection(Document request, Iterable<String> paths) {
+        request.setArray(Field.PROJECTION, Array.create(paths));
+    }
+
+    /**
+     * Get the paths of the values that should be returned in response to the read request.
+     * 
+     * @param request the read request; may not be null
+     * @return the paths, or null if the whole entity should be returned
+     * @see #setProjection(Document, Iterable)
+     */
+    public static List<Path> getProjection(Document request) {
+        Array paths = request.getArray(Field.PROJECTION);
+        if (paths == null) return null;
+        return paths.streamValues().filter(Value::isString).map(value -> Path.parse(value.asString())).collect(Collectors.toList());
+    }
+
+    /**
+     * Create a document that contains only the values at the given paths within the supplied representation. The fields that
+     * contain the values are created as needed, and a path that passes through an array includes the whole array. Paths that do
+     * not exist in the representation are ignored, and the root path includes the whole representation.
+     * 
+     * @param representation the complete representation; may not be null
+     * @param paths the paths of the values to be included; may not be null
+     * @return the new document with the projected values, which are shared with the representation; never null
+     */
+    public static Document project(Document representation, Iterable<Path> paths) {
+        Document projection = Document.create();
+        for (Path path : paths) {
+            if (path.isRoot()) return representation;
+            int length = 0;
+            for (String segment : path) {
+                if (Path.Segments.isArrayIndex(segment)) break;
+                ++length;
+            }
+            if (length == 0) continue;
+            Path included = path.subpath(length);
+            representation.find(included).ifPresent(value -> projection.set(included, true, value, invalid -> {}));
+        }
+        return projection;
+    }
+
     public static Document getAfterOrBefore(Document message) {
         Document result = getAfter(message);
         return result != null ? result : getBefore(message);
     }
 
+    /**
+     * Specify whether the response to the write request should include the representation after the change. The
+     * {@value Topic#ENTITY_UPDATES} and {@value Topic#SCHEMA_UPDATES} topics always include it.
+     * 
+     * @param request the request; may not be null
+     * @param include {@code true} if the response should include the representation (the default), or {@code false} otherwise
+     */
+    public static void setIncludeAfter(Document request, boolean include) {
+        if (include) {
+            request.remove(Field.INCLUDE_AFTER);
+        } else {
+            request.setBoolean(Field.INCLUDE_AFTER, false);
+        }
+    }
+
+    /**
+     * Specify whether the response to the write request should include the representation before the change. The
+     * {@value Topic#ENTITY_UPDATES} and {@value Topic#SCHEMA_UPDATES} topics always include it.
+     * 
+     * @param request the request; may not be null
+     * @param include {@code true} if the response should include the representation (the default), or {@code false} otherwise
+     */
+    public static void setIncludeBefore(Document request, boolean include) {
+        if (include) {
+            request.remove(Field.INCLUDE_BEFORE);
+        } else {
+            request.setBoolean(Field.INCLUDE_BEFORE, false);
+        }
+    }
+
     public static boolean includeAfter(Document message) {
-        return message.getBoolean(Field.INCLUDE_AFTER, false);
+        return message.getBoolean(Field.INCLUDE_AFTER, true);
     }
 
     public static boolean includeBefore(Document message) {
-        return message.getBoolean(Field.INCLUDE_BEFORE, false);
+        return message.getBoolean(Field.INCLUDE_BEFORE, true);
+    }
+
+    /**
+     * Get the response to a write request that should be sent to the client, which omits the representations that the client
+     * did not {@link #setIncludeAfter(Document, boolean) ask to include}.
+     * 
+     * @param response the complete response; may not be null
+     * @return the supplied response if it has only the requested representations, or a (copy-on-write) copy without the other
+     *         representations; never null
+     */
+    public static Document trimWriteResponse(Document response) {
+        boolean removeBefore = !includeBefore(response) && response.has(Field.BEFORE);
+        boolean removeAfter = !includeAfter(response) && response.has(Field.AFTER);
+        if (!removeBefore && !removeAfter) return response;
+        Document trimmed = response.clone();
+        if (removeBefore) trimmed.remove(Field.BEFORE);
+        if (removeAfter) trimmed.remove(Field.AFTER);
+        return trimmed;
     }
     
     public static long getDurationInMillis( Document message ) {
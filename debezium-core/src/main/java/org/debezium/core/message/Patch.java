@@ -500,10 +500,12 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
     protected static final class AddOp implements Add {
         private final String path;
+        private final Path parsedPath;
         private final Value value;
 
         protected AddOp(String path, Value value) {
             this.path = path;
+            this.parsedPath = Path.parse(path);
             this.value = value;
         }
 
@@ -534,15 +536,17 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
         @Override
         public Boolean apply(Document doc, Consumer<Path> invalid) {
-            return doc.set(Path.parse(this.path), true, value(), invalid).isPresent();
+            return doc.set(parsedPath, true, value(), invalid).isPresent();
         }
     }
 
     protected static final class RemoveOp implements Remove {
         private final String path;
+        private final Path parsedPath;
 
         protected RemoveOp(String path) {
             this.path = path;
+            this.parsedPath = Path.parse(path);
         }
 
         @Override
@@ -567,7 +571,7 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
         @Override
         public Boolean apply(Document doc, Consumer<Path> invalid) {
-            Path path = Path.parse(this.path);
+            Path path = parsedPath;
             if (path.isRoot()) {
                 // The whole document is to be removed ...
                 if (doc.isEmpty()) {
@@ -580,10 +584,11 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
             // If the parent path does exist, remove the child from the parent ...
             doc.find(path.parent().get(), (missingPath, missingIndex) -> Optional.empty(), invalid).ifPresent((parent) -> {
                 if (parent.isArray()) {
-                    Path.Segments.asInteger(path.lastSegment()).ifPresent((index) -> {
-                        parent.asArray().remove(index.intValue());
+                    int index = path.arrayIndex(path.size() - 1);
+                    if (index >= 0) {
+                        parent.asArray().remove(index);
                         result.set(true);
-                    });
+                    }
                 } else if (parent.isDocument()) {
                     result.set(parent.asDocument().remove(path.lastSegment()) != null);
                 }
@@ -594,10 +599,12 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
     protected static final class RequireOp implements Require {
         private final String path;
+        private final Path parsedPath;
         private final Value value;
 
         protected RequireOp(String path, Value requiredValue) {
             this.path = path;
+            this.parsedPath = Path.parse(path);
             this.value = requiredValue;
         }
 
@@ -628,7 +635,7 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
         @Override
         public Boolean apply(Document doc, Consumer<Path> invalid) {
-            Path path = Path.parse(this.path);
+            Path path = parsedPath;
             Optional<Value> result = doc.find(path, (missingPath, missingIndex) -> Optional.empty(), invalid);
             if (!result.isPresent() || !result.get().equals(requiredValue())) {
                 invalid.accept(path);
@@ -639,10 +646,12 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
     protected static final class ReplaceOp implements Replace {
         private final String path;
+        private final Path parsedPath;
         private final Value value;
 
         protected ReplaceOp(String path, Value value) {
             this.path = path;
+            this.parsedPath = Path.parse(path);
             this.value = value;
         }
 
@@ -673,17 +682,21 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
         @Override
         public Boolean apply(Document doc, Consumer<Path> invalid) {
-            return doc.set(Path.parse(this.path), true, value(), invalid).isPresent();
+            return doc.set(parsedPath, true, value(), invalid).isPresent();
         }
     }
 
     protected static final class CopyOp implements Copy {
         private final String fromPath;
         private final String toPath;
+        private final Path parsedFromPath;
+        private final Path parsedToPath;
 
         protected CopyOp(String fromPath, String toPath) {
             this.fromPath = fromPath;
             this.toPath = toPath;
+            this.parsedFromPath = Path.parse(fromPath);
+            this.parsedToPath = Path.parse(toPath);
         }
 
         @Override
@@ -719,12 +732,11 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
             }
 
             // Silently look for the 'from' value ...
-            Path fromPath = Path.parse(this.fromPath);
+            Path fromPath = parsedFromPath;
             Optional<Value> from = doc.find(fromPath, (missingPath, missingIndex) -> Optional.empty(), (invalidPath) -> {
             });
             if (from.isPresent()) {
-                Path toPath = Path.parse(this.toPath);
-                return doc.set(toPath, true, from.get(), invalid).isPresent();
+                return doc.set(parsedToPath, true, from.get(), invalid).isPresent();
             }
             return Boolean.FALSE;
         }
@@ -733,10 +745,14 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
     protected static final class MoveOp implements Move {
         private final String fromPath;
         private final String toPath;
+        private final Path parsedFromPath;
+        private final Path parsedToPath;
 
         protected MoveOp(String fromPath, String toPath) {
             this.fromPath = fromPath;
             this.toPath = toPath;
+            this.parsedFromPath = Path.parse(fromPath);
+            this.parsedToPath = Path.parse(toPath);
         }
 
         @Override
@@ -772,7 +788,7 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
             }
 
             // Silently look for the 'from' value ...
-            Path fromPath = Path.parse(this.fromPath);
+            Path fromPath = parsedFromPath;
             Optional<Path> fromParentPath = fromPath.parent();
             if (fromParentPath.isPresent()) {
                 Optional<Value> fromParent = doc.find(fromParentPath.get(),
@@ -782,8 +798,7 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
                     Value parent = fromParent.get();
                     if (parent.isDocument()) {
                         Value valueToMove = parent.asDocument().remove(fromPath.lastSegment());
-                        Path toPath = Path.parse(this.toPath);
-                        return doc.set(toPath, true, valueToMove, invalid).isPresent();
+                        return doc.set(parsedToPath, true, valueToMove, invalid).isPresent();
                     }
                 }
             }
@@ -793,10 +808,12 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
     protected static final class IncrementOp implements Increment {
         private final String path;
+        private final Path parsedPath;
         private final Number value;
 
         protected IncrementOp(String path, Number value) {
             this.path = path;
+            this.parsedPath = Path.parse(path);
             this.value = value;
         }
 
@@ -827,11 +844,11 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
 
         @Override
         public Boolean apply(Document doc, Consumer<Path> invalid) {
-            Path path = Path.parse(this.path);
+            Path path = parsedPath;
             Optional<Value> existing = doc.find(path, (missingPath, missingIndex) -> Optional.empty(), invalid);
             Value incremented = null;
             if (existing.isPresent()) {
-                incremented = Value.create(MathOps.add(existing.get().asNumber(), value()));
+                incremented = increment(existing.get(), value());
             } else {
                 incremented = Value.create(value());
             }
@@ -840,6 +857,27 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
         }
     }
 
+    /**
+     * Add the increment to the existing value, without boxing when both are integral or both are doubles.
+     * 
+     * @param existing the existing value; may not be null
+     * @param increment the increment; may not be null
+     * @return the incremented value; never null
+     */
+    static Value increment(Value existing, Number increment) {
+        Value.Type type = existing.getType();
+        if ((type == Value.Type.INTEGER || type == Value.Type.LONG) && (increment instanceof Integer || increment instanceof Long)) {
+            long sum = existing.asLong(0L) + increment.longValue();
+            // Use an integer whenever the sum fits, as MathOps does ...
+            if (sum >= Integer.MIN_VALUE && sum <= Integer.MAX_VALUE) return Value.create((int) sum);
+            return Value.create(sum);
+        }
+        if (type == Value.Type.DOUBLE && increment instanceof Double) {
+            return Value.create(existing.asDouble(0.0d) + increment.doubleValue());
+        }
+        return Value.create(MathOps.add(existing.asNumber(), increment));
+    }
+
     private final IdType id;
     private final List<Operation> ops;
 
@@ -997,7 +1035,7 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
      * 
      * @param document the document that should be patched; never null
      * @param failed the function that is called for each failed operation
-     * @return true if any of the operations modified the document, or false if the document is unchanged
+     * @return true if the operations were applied to the document, or false if the patch is a read request or deletion
      */
     public boolean apply(Document document, Consumer<Operation> failed) {
         if (isEmpty()) return false;
@@ -1010,6 +1048,10 @@ public final class Patch<IdType extends Identifier> implements Iterable<Patch.Op
         if (isDeletion()) {
             return false;
         }
-        return ops.stream().map(op -> op.apply(document, invalidPath -> failed.accept(op))).count() > 0;
+        // Apply every operation; a stream's count() may skip the mapping function entirely ...
+        for (Operation op : ops) {
+            op.apply(document, invalidPath -> failed.accept(op));
+        }
+        return true;
     }
 }
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.serde;
+
+import org.apache.samza.config.Config;
+import org.apache.samza.serializers.Serde;
+import org.apache.samza.serializers.SerdeFactory;
+import org.debezium.core.doc.Document;
+
+/**
+ * A factory for a {@link Document} serializer and deserializer, or <em>serde</em>, that writes a compact binary format. The
+ * deserializer also reads JSON documents, so it can replace the {@link DocumentSerdeFactory} on streams and stores that
+ * already contain JSON.
+ * @author Randall Hauch
+ */
+public final class BinaryDocumentSerdeFactory implements SerdeFactory<Document> {
+    
+    @Override
+    public Serde<Document> getSerde(String name, Config config) {
+        return Serdes.binaryDocument();
+    }
+    
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.serde;
+
+import org.apache.samza.config.Config;
+import org.apache.samza.serializers.Serde;
+import org.apache.samza.serializers.SerdeFactory;
+import org.debezium.core.doc.Document;
+
+/**
+ * A factory for a {@link Document} serializer and deserializer, or <em>serde</em>, that writes the same compact binary format as
+ * the {@link BinaryDocumentSerdeFactory} but that deserializes binary content into read-only documents that decode each field
+ * only when it is accessed. This is best suited for input streams of services that only read a few fields of each message.
+ * @author Randall Hauch
+ */
+public final class LazyDocumentSerdeFactory implements SerdeFactory<Document> {
+    
+    @Override
+    public Serde<Document> getSerde(String name, Config config) {
+        return Serdes.lazyDocument();
+    }
+    
+}
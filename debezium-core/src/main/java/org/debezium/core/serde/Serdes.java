@@ -24,10 +24,14 @@ import org.debezium.core.doc.DocumentWriter;
 public final class Serdes {
     
     private static final DocumentSerde DOCUMENT_SERDE_INSTANCE = new DocumentSerde();
+    private static final BinaryDocumentSerde BINARY_DOCUMENT_SERDE_INSTANCE = new BinaryDocumentSerde();
+    private static final LazyDocumentSerde LAZY_DOCUMENT_SERDE_INSTANCE = new LazyDocumentSerde();
     private static final ArraySerde ARRAY_SERDE_INSTANCE = new ArraySerde();
     private static final StringSerde STRING_SERDE_INSTANCE = new StringSerde();
-    private static final DocumentReader DOCUMENT_READER = DocumentReader.defaultReader();
     private static final DocumentWriter DOCUMENT_WRITER = DocumentWriter.defaultWriter();
+    private static final DocumentReader BINARY_DOCUMENT_READER = DocumentReader.binaryReader();
+    private static final DocumentReader LAZY_DOCUMENT_READER = DocumentReader.lazyReader();
+    private static final DocumentWriter BINARY_DOCUMENT_WRITER = DocumentWriter.binaryWriter();
     private static final ArrayReader ARRAY_READER = ArrayReader.defaultReader();
     private static final ArrayWriter ARRAY_WRITER = ArrayWriter.defaultWriter();
     
@@ -35,6 +39,30 @@ public final class Serdes {
         return DOCUMENT_SERDE_INSTANCE;
     }
 
+    /**
+     * Get the serde that writes documents in the compact binary format. Its decoder reads both the binary format and JSON.
+     * 
+     * @return the binary document serde; never null
+     */
+    public static Serde<Document> binaryDocument() {
+        return BINARY_DOCUMENT_SERDE_INSTANCE;
+    }
+
+    public static Encoder<Document> binaryDocumentEncoder() {
+        return BINARY_DOCUMENT_SERDE_INSTANCE;
+    }
+
+    /**
+     * Get the serde that writes documents in the compact binary format, and that decodes binary documents into read-only views
+     * that decode each field only when it is accessed. This is best suited for services that only inspect a few fields of each
+     * message. Its decoder also reads JSON.
+     * 
+     * @return the lazy document serde; never null
+     */
+    public static Serde<Document> lazyDocument() {
+        return LAZY_DOCUMENT_SERDE_INSTANCE;
+    }
+
     public static Serde<Array> array() {
         return ARRAY_SERDE_INSTANCE;
     }
@@ -67,26 +95,41 @@ public final class Serdes {
         return str.getBytes(StandardCharsets.UTF_8);
     }
     
+    /**
+     * Read a document from the supplied bytes, which may contain either JSON or the compact binary format.
+     * 
+     * @param bytes the encoded document
+     * @return the document; never null
+     */
     public static Document bytesToDocument( byte[] bytes ) {
         try {
-            return DOCUMENT_READER.read(bytesToString(bytes));
+            return BINARY_DOCUMENT_READER.read(bytes);
         } catch (IOException e) {
             // Should never see this, but shit if we do ...
             throw new RuntimeException(e);
         }
     }
     
-    public static byte[] documentToBytes( Document doc ) {
+    public static Document bytesToLazyDocument( byte[] bytes ) {
         try {
-            return stringToBytes(DOCUMENT_WRITER.write(doc));
+            return LAZY_DOCUMENT_READER.read(bytes);
         } catch (IOException e) {
             // Should never see this, but shit if we do ...
             throw new RuntimeException(e);
         }
     }
+    
+    public static byte[] documentToBytes( Document doc ) {
+        return DOCUMENT_WRITER.writeAsBytes(doc);
+    }
+
+    public static byte[] documentToBinary( Document doc ) {
+        return BINARY_DOCUMENT_WRITER.writeAsBytes(doc);
+    }
+
     public static Array bytesToArray( byte[] bytes ) {
         try {
-            return ARRAY_READER.readArray(bytesToString(bytes));
+            return ARRAY_READER.readArray(bytes);
         } catch (IOException e) {
             // Should never see this, but shit if we do ...
             throw new RuntimeException(e);
@@ -94,12 +137,7 @@ public final class Serdes {
     }
     
     public static byte[] arrayToBytes( Array array ) {
-        try {
-            return stringToBytes(ARRAY_WRITER.write(array));
-        } catch (IOException e) {
-            // Should never see this, but shit if we do ...
-            throw new RuntimeException(e);
-        }
+        return ARRAY_WRITER.writeAsBytes(array);
     }
 
     @Immutable
@@ -115,6 +153,32 @@ public final class Serdes {
         }
     }
 
+    @Immutable
+    private static final class BinaryDocumentSerde implements Serde<Document>, Encoder<Document>, Decoder<Document> {
+        @Override
+        public Document fromBytes(byte[] bytes) {
+            return bytesToDocument(bytes);
+        }
+        
+        @Override
+        public byte[] toBytes(Document document) {
+            return documentToBinary(document);
+        }
+    }
+
+    @Immutable
+    private static final class LazyDocumentSerde implements Serde<Document>, Encoder<Document>, Decoder<Document> {
+        @Override
+        public Document fromBytes(byte[] bytes) {
+            return bytesToLazyDocument(bytes);
+        }
+        
+        @Override
+        public byte[] toBytes(Document document) {
+            return documentToBinary(document);
+        }
+    }
+
     @Immutable
     private static final class ArraySerde implements Serde<Array>, Encoder<Array>, Decoder<Array> {
         @Override
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.debezium.Testing;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Randall Hauch
+ */
+public class DocumentTemplateTest implements Testing {
+
+    private Document common;
+    private DocumentTemplate template;
+
+    @Before
+    public void beforeEach() {
+        common = Document.create("clientid", "client-1", "request", 22L, "user", "jsmith");
+        template = DocumentTemplate.with(common);
+    }
+
+    @Test
+    public void shouldBuildDocumentWithCommonAndAdditionalFields() {
+        Document ops = Document.create("op", "add", "path", "firstName", "value", "Sally");
+        Document doc = template.create()
+                               .setAll(Document.create("entity", "ent1", "clientid2", "x").iterator())
+                               .set("part", Value.create(1))
+                               .set("ops", Value.create(Array.create(new Value[] { Value.create(ops) })))
+                               .build();
+        Document expected = common.clone();
+        expected.setString("entity", "ent1");
+        expected.setString("clientid2", "x");
+        expected.setNumber("part", 1);
+        expected.setArray("ops", Array.create(new Value[] { Value.create(ops) }));
+        assertThat(doc.size()).isEqualTo(expected.size());
+        assertThat((Object) doc).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldBuildDocumentsThatAreWrittenAsTheirBinaryForm() throws Exception {
+        Document doc1 = template.create().set("part", Value.create(1)).build();
+        Document doc2 = template.create().set("part", Value.create(2)).build();
+        assertThat(((LazyDocument) doc2).isSpliceable()).isTrue();
+        byte[] bytes = DocumentWriter.binaryWriter().writeAsBytes(doc2);
+        assertThat(DocumentReader.binaryReader().read(bytes).getInteger("part")).isEqualTo(2);
+        assertThat(doc1.getInteger("part")).isEqualTo(1);
+        assertThat(doc1.getString("user")).isEqualTo("jsmith");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowAdditionalFieldWithSameNameAsCommonField() {
+        template.create().set("user", Value.create("jdoe"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowDuplicateAdditionalFields() {
+        template.create().set("part", Value.create(1)).set("part", Value.create(2));
+    }
+}
@@ -6,9 +6,13 @@
 package org.debezium.core.doc;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -41,6 +45,150 @@ public class DocumentTest {
         assertNoMore(iterator);
     }
     
+    @Test
+    public void shouldNotAffectCloneWhenOriginalIsModified() {
+        doc = Document.create("a", "A", "b", Document.create("c", "C", "d", Document.create("e", 1)));
+        Document clone = doc.clone();
+        doc.setString("a", "A2");
+        doc.getDocument("b").getDocument("d").setNumber("e", 2);
+        doc.getDocument("b").remove("c");
+        assertThat(clone.getString("a")).isEqualTo("A");
+        assertThat(clone.getDocument("b").getString("c")).isEqualTo("C");
+        assertThat(clone.getDocument("b").getDocument("d").getInteger("e")).isEqualTo(1);
+        assertThat(doc.getString("a")).isEqualTo("A2");
+        assertThat(doc.getDocument("b").has("c")).isFalse();
+        assertThat(doc.getDocument("b").getDocument("d").getInteger("e")).isEqualTo(2);
+    }
+    
+    @Test
+    public void shouldNotAffectOriginalWhenCloneIsModified() {
+        doc = Document.create("a", "A", "b", Document.create("c", "C"));
+        doc.setArray("f", Array.create(1, 2));
+        Document clone = doc.clone();
+        Document cloneOfClone = clone.clone();
+        clone.getDocument("b").setString("c", "C2");
+        clone.getArray("f").add(3);
+        clone.clear();
+        assertThat(clone.isEmpty()).isTrue();
+        assertThat(doc.getDocument("b").getString("c")).isEqualTo("C");
+        assertThat(doc.getArray("f").size()).isEqualTo(2);
+        assertThat((Object) cloneOfClone).isEqualTo(doc);
+    }
+    
+    @Test
+    public void shouldPreserveInsertionOrderOfFieldsBeforeAndAfterGrowingLarge() {
+        doc = Document.create();
+        int count = CompactFields.MAX_COMPACT_SIZE * 2;
+        for (int i = 0; i != count; ++i) {
+            doc.setNumber("f" + i, i);
+            if (i == CompactFields.MAX_COMPACT_SIZE - 1) assertFieldOrder(doc, 0, i + 1, -1);
+        }
+        doc.remove("f3");
+        assertFieldOrder(doc, 0, count, 3);
+        Document small = Document.create("a", "A", "b", "B", "c", "C");
+        small.remove("a");
+        small.setString("a", "A2");
+        assertThat(small.keySet().iterator().next().toString()).isEqualTo("b");
+        assertThat((Object) small).isEqualTo(Document.create("b", "B", "c", "C", "a", "A2"));
+        assertThat(small.hashCode()).isEqualTo(Document.create("b", "B", "c", "C", "a", "A2").hashCode());
+    }
+    
+    @Test
+    public void shouldNotChangeCloneWhenModifyingNestedValuesObtainedBeforeCloning() {
+        Document doc = Document.create("a", "A", "b", Document.create("c", "C", "d", Document.create("e", 1)));
+        doc.setArray("f", Array.create(1, 2));
+        Document nested = doc.getDocument("b");
+        Document deeper = nested.getDocument("d");
+        Array array = doc.getArray("f");
+        Document clone = doc.clone();
+        nested.setString("c", "MUTATED");
+        deeper.setNumber("e", 2);
+        array.add(3);
+        assertThat(clone.getDocument("b").getString("c")).isEqualTo("C");
+        assertThat(clone.getDocument("b").getDocument("d").getInteger("e")).isEqualTo(1);
+        assertThat(clone.getArray("f").size()).isEqualTo(2);
+        for (Document.Field field : doc) {
+            if (field.getValue().isDocument()) field.getValue().asDocument().setString("c", "ITERATED");
+            if (field.getValue().isArray()) field.getValue().asArray().add(4);
+        }
+        assertThat(clone.getDocument("b").getString("c")).isEqualTo("C");
+        assertThat(clone.getArray("f").size()).isEqualTo(2);
+        Document second = doc.clone();
+        nested.setString("c", "AGAIN");
+        assertThat(second.getDocument("b").getString("c")).isEqualTo("ITERATED");
+        assertThat(doc.getDocument("b").getString("c")).isEqualTo("AGAIN");
+    }
+
+    @Test
+    public void shouldModifyInPlaceOnceOtherClonesHaveCopied() {
+        Document doc = Document.create("a", "A", "b", Document.create("c", "C"));
+        Document clone = doc.clone();
+        clone.setString("a", "A2");
+        Document nested = doc.getDocument("b");
+        assertThat((Object) doc.getDocument("b")).isSameAs(nested);
+        nested.setString("c", "C2");
+        assertThat(doc.getDocument("b").getString("c")).isEqualTo("C2");
+        assertThat(clone.getDocument("b").getString("c")).isEqualTo("C");
+        assertThat(clone.getString("a")).isEqualTo("A2");
+        assertThat(doc.getString("a")).isEqualTo("A");
+    }
+
+    @Test
+    public void shouldReturnReadOnlyKeysThatReflectLaterChangesOfClone() {
+        Document doc = Document.create("a", "A", "b", "B");
+        Document clone = doc.clone();
+        Iterable<CharSequence> keys = clone.keySet();
+        assertThat(names(keys)).isEqualTo(Arrays.asList("a", "b"));
+        Iterator<CharSequence> iter = keys.iterator();
+        iter.next();
+        try {
+            iter.remove();
+            fail("The keys should be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        clone.setString("c", "C");
+        clone.remove("a");
+        assertThat(names(keys)).isEqualTo(Arrays.asList("b", "c"));
+        assertThat(names(doc.keySet())).isEqualTo(Arrays.asList("a", "b"));
+    }
+
+    protected List<String> names(Iterable<CharSequence> keys) {
+        List<String> names = new ArrayList<>();
+        keys.forEach(name -> names.add(name.toString()));
+        return names;
+    }
+
+    @Test
+    public void shouldShareNamesOfFieldsInDifferentDocuments() {
+        Document first = Document.create(new String("sharedName"), 1);
+        Document second = Document.create(new String("sharedName"), 2);
+        assertThat(first.keySet().iterator().next()).isSameAs(second.keySet().iterator().next());
+        assertThat(second.getInteger("sharedName")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldContinueSharingNamesAfterManyDistinctNames() {
+        // Far more distinct names than fit in the symbol table ...
+        for (int i = 0; i != 100000; ++i) {
+            Document.create("name" + i, i);
+        }
+        Document first = Document.create(new String("anotherSharedName"), 1);
+        Document second = Document.create(new String("anotherSharedName"), 2);
+        assertThat(first.keySet().iterator().next()).isSameAs(second.keySet().iterator().next());
+    }
+    
+    protected void assertFieldOrder( Document doc, int first, int end, int removed ) {
+        int expected = first;
+        for (Document.Field field : doc) {
+            if (expected == removed) ++expected;
+            assertThat(field.getName().toString()).isEqualTo("f" + expected);
+            assertThat(field.getValue().asInteger().intValue()).isEqualTo(expected);
+            ++expected;
+        }
+        assertThat(expected).isEqualTo(end);
+    }
+    
     protected void assertPair( Iterator<Map.Entry<Path, Value>> iterator, String path, Object value ) {
         Map.Entry<Path,Value> entry = iterator.next();
         assertThat((Object)entry.getKey()).isEqualTo(Path.parse(path));
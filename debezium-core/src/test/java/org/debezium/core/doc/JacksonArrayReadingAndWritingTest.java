@@ -5,6 +5,8 @@
  */
 package org.debezium.core.doc;
 
+import java.util.Arrays;
+
 import org.debezium.Testing;
 import org.junit.Before;
 import org.junit.Test;
@@ -77,5 +79,88 @@ public class JacksonArrayReadingAndWritingTest implements Testing {
         assertThat(deepNested.getString("x")).isEqualTo("X");
         assertThat(deepNested.size()).isEqualTo(1);
     }
-    
+
+    @Test
+    public void shouldReadIntegerArrayIntoIntegerStorage() throws Exception {
+        array.add(1).add(2).add(3);
+        after = reader.readArray(writer.write(array));
+        assertThat((Object) after).isInstanceOf(IntArray.class);
+        assertThat(after.get(0).getType()).isEqualTo(Value.Type.INTEGER);
+        assertThat((Object) after).isEqualTo(array);
+        assertThat((Object) array).isEqualTo(after);
+        assertThat(after.hashCode()).isEqualTo(array.hashCode());
+        assertThat(after.remove(0).asInteger()).isEqualTo(1);
+        after.setNumber(0, 7).add(9);
+        assertThat((Object) after).isInstanceOf(IntArray.class);
+        assertThat(writer.write(after)).isEqualTo("[7,3,9]");
+        after.add(5000000000L);
+        assertThat(after.get(2).getType()).isEqualTo(Value.Type.INTEGER);
+        assertThat(after.get(3).getType()).isEqualTo(Value.Type.LONG);
+        assertThat(writer.write(after)).isEqualTo("[7,3,9,5000000000]");
+    }
+
+    @Test
+    public void shouldReadLongArrayIntoLongStorage() throws Exception {
+        array.add(5000000000L).add(6000000000L);
+        after = reader.readArray(writer.write(array));
+        assertThat((Object) after).isInstanceOf(LongArray.class);
+        assertThat(after.get(1).getType()).isEqualTo(Value.Type.LONG);
+        assertThat((Object) after).isEqualTo(array);
+        after.add(1);
+        assertThat(after.get(2).getType()).isEqualTo(Value.Type.INTEGER);
+        assertThat((Object) after).isEqualTo(Array.create(5000000000L, 6000000000L, 1));
+    }
+
+    @Test
+    public void shouldReadDoubleArrayIntoDoubleStorage() throws Exception {
+        array.add(1.5d).add(-2.25d);
+        after = reader.readArray(writer.write(array));
+        assertThat((Object) after).isInstanceOf(DoubleArray.class);
+        assertThat(after.get(1).asDouble()).isEqualTo(-2.25d);
+        assertThat((Object) after).isEqualTo(array);
+        assertThat(after.streamValues().mapToDouble(Value::asDouble).sum()).isEqualTo(-0.75d);
+    }
+
+    @Test
+    public void shouldSwitchNumericArrayToGenericStorageUponNonNumericValue() throws Exception {
+        array.add(1).add(2);
+        after = reader.readArray(writer.write(array));
+        Array copy = after.clone();
+        after.add("three").add(2.5d);
+        assertThat(after.size()).isEqualTo(4);
+        assertThat(after.get(1).asInteger()).isEqualTo(2);
+        assertThat(after.get(2)).isEqualTo("three");
+        assertThat(after.get(3).asDouble()).isEqualTo(2.5d);
+        assertThat((Object) after).isEqualTo(Array.create(1, 2, "three", 2.5d));
+        assertThat((Object) copy).isEqualTo(array);
+        array.add(1.5d);
+        after = reader.readArray(writer.write(array));
+        assertThat(after.get(2).getType()).isEqualTo(Value.Type.DOUBLE);
+        assertThat(after.get(0).getType()).isEqualTo(Value.Type.INTEGER);
+    }
+
+    @Test
+    public void shouldReadNumericArrayFromBinaryIntoPrimitiveStorage() throws Exception {
+        Document doc = Document.create("samples", Array.create(3, 4, 5), "readings", Array.create(0.5d, 1.5d));
+        Document read = DocumentReader.binaryReader().read(DocumentWriter.binaryWriter().writeAsBytes(doc));
+        assertThat((Object) read.getArray("samples")).isInstanceOf(IntArray.class);
+        assertThat((Object) read.getArray("readings")).isInstanceOf(DoubleArray.class);
+        assertThat((Object) read).isEqualTo(doc);
+    }
+
+    @Test
+    public void shouldRoundTripLongArrayThroughBinaryWithSameTypesAndBytes() throws Exception {
+        Document doc = Document.create("small", Array.create(1L, 2L, 3L), "mixed", Array.create(1, 2L, 3.5d), "scalar", 4L);
+        byte[] bytes = DocumentWriter.binaryWriter().writeAsBytes(doc);
+        Document read = DocumentReader.binaryReader().read(bytes);
+        Array small = read.getArray("small");
+        assertThat((Object) small).isInstanceOf(LongArray.class);
+        assertThat(small.get(0).getType()).isEqualTo(Value.Type.LONG);
+        assertThat((Object) read.getArray("mixed")).isInstanceOf(BasicArray.class);
+        assertThat(read.getArray("mixed").get(0).getType()).isEqualTo(Value.Type.INTEGER);
+        assertThat(read.getArray("mixed").get(1).getType()).isEqualTo(Value.Type.LONG);
+        assertThat(read.get("scalar").getType()).isEqualTo(Value.Type.LONG);
+        assertThat(Arrays.equals(DocumentWriter.binaryWriter().writeAsBytes(read), bytes)).isTrue();
+    }
+
 }
@@ -6,6 +6,11 @@
 package org.debezium.core.doc;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.debezium.Testing;
 import org.junit.Before;
@@ -78,5 +83,43 @@ public class JacksonWriterTest implements Testing {
         assertThat(deepNested.getString("x")).isEqualTo("X");
         assertThat(deepNested.size()).isEqualTo(1);
     }
-    
+
+    @Test
+    public void shouldWriteSameBytesWhenReusingOutput() throws Exception {
+        doc.set("field1", "value");
+        doc.set("field2", Array.create(1, 2, 3));
+        byte[] first = writer.writeAsBytes(doc);
+        byte[] second = writer.writeAsBytes(doc);
+        assertThat(new String(second, "UTF-8")).isEqualTo(writer.write(doc));
+        assertThat(Arrays.equals(second, first)).isTrue();
+        assertThat(new String(writer.writeAsBytes(doc.getArray("field2")), "UTF-8")).isEqualTo("[1,2,3]");
+        assertThat((Object) reader.read(JacksonWriter.PRETTY_WRITER.writeAsBytes(doc))).isEqualTo(doc);
+        assertThat((Object) reader.read(JacksonWriter.PRETTY_WRITER.writeAsBytes(doc))).isEqualTo(doc);
+    }
+
+    @Test
+    public void shouldWriteIntoByteBufferOnlyWhenThereIsEnoughSpace() throws Exception {
+        doc.set("field1", "value");
+        doc.set("field2", 22);
+        byte[] expected = writer.writeAsBytes(doc);
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length - 1);
+        try {
+            writer.write(doc, buffer);
+            fail("Expected the buffer to overflow");
+        } catch (BufferOverflowException e) {
+            assertThat(buffer.position()).isEqualTo(0);
+        }
+        buffer = ByteBuffer.allocate(expected.length + 10);
+        buffer.put((byte) 1);
+        assertThat(writer.write(doc, buffer)).isEqualTo(expected.length);
+        assertThat(buffer.position()).isEqualTo(expected.length + 1);
+        assertThat(Arrays.equals(Arrays.copyOfRange(buffer.array(), 1, expected.length + 1), expected)).isTrue();
+
+        DocumentWriter binary = DocumentWriter.binaryWriter();
+        buffer.clear();
+        int length = binary.write(doc, buffer);
+        assertThat(Arrays.equals(Arrays.copyOf(buffer.array(), length), binary.writeAsBytes(doc))).isTrue();
+        assertThat((Object) DocumentReader.binaryReader().read(Arrays.copyOf(buffer.array(), length))).isEqualTo(doc);
+    }
+
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.debezium.Testing;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Randall Hauch
+ */
+public class LazyDocumentTest implements Testing {
+
+    private Document original;
+    private Document lazy;
+
+    @Before
+    public void beforeEach() throws Exception {
+        original = Document.create("clientid", "client-1", "request", 22L, "parts", 3);
+        original.setDocument("after", Document.create("firstName", "Jackie", "lastName", "Jones",
+                                                      "address", Document.create("city", "Springfield")));
+        original.setArray("tags", Array.create("a", "b", Document.create("firstName", "Sam")));
+        original.setString("lastName", "Smith");
+        lazy = DocumentReader.lazyReader().read(DocumentWriter.binaryWriter().writeAsBytes(original));
+    }
+
+    @Test
+    public void shouldReadBinaryContentAsLazyDocument() {
+        assertThat((Object) lazy).isInstanceOf(LazyDocument.class);
+        assertThat(lazy.getString("clientid")).isEqualTo("client-1");
+        assertThat(lazy.getLong("request")).isEqualTo(22L);
+        assertThat(lazy.getInteger("parts")).isEqualTo(3);
+        assertThat(lazy.getString("lastName")).isEqualTo("Smith");
+        assertThat(lazy.getDocument("after").getString("lastName")).isEqualTo("Jones");
+        assertThat(lazy.getDocument("after").getDocument("address").getString("city")).isEqualTo("Springfield");
+        assertThat(lazy.getArray("tags").get(2).asDocument().getString("firstName")).isEqualTo("Sam");
+        assertThat(lazy.has("missing")).isFalse();
+        assertThat(lazy.size()).isEqualTo(original.size());
+    }
+
+    @Test
+    public void shouldReadJsonContentAsRegularDocument() throws Exception {
+        Document doc = DocumentReader.lazyReader().read(DocumentWriter.defaultWriter().writeAsBytes(original));
+        assertThat((Object) doc).isInstanceOf(BasicDocument.class);
+        assertThat((Object) doc).isEqualTo(original);
+    }
+
+    @Test
+    public void shouldBeEqualToEagerlyReadDocument() {
+        assertThat((Object) lazy).isEqualTo(original);
+        assertThat((Object) original).isEqualTo(lazy);
+        assertThat(lazy.hashCode()).isEqualTo(original.hashCode());
+        assertThat(lazy.compareTo(original)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldBecomeMutableCopyUponModification() {
+        lazy.setString("clientid", "client-2");
+        lazy.remove("parts");
+        assertThat(lazy.getString("clientid")).isEqualTo("client-2");
+        assertThat(lazy.has("parts")).isFalse();
+        assertThat(lazy.getDocument("after").getString("firstName")).isEqualTo("Jackie");
+        assertThat(((LazyDocument) lazy).isUnmodified()).isFalse();
+    }
+
+    @Test
+    public void shouldCloneUnmodifiedDocumentWithoutDecoding() {
+        Document clone = lazy.clone();
+        assertThat((Object) clone).isInstanceOf(LazyDocument.class);
+        assertThat((Object) clone).isEqualTo(original);
+    }
+
+    @Test
+    public void shouldCloneDocumentWithModifiedNestedDocument() {
+        lazy.getDocument("after").setString("firstName", "Jack");
+        assertThat(((LazyDocument) lazy).isUnmodified()).isFalse();
+        Document clone = lazy.clone();
+        assertThat(clone.getDocument("after").getString("firstName")).isEqualTo("Jack");
+        clone.getDocument("after").setString("firstName", "Jill");
+        assertThat(lazy.getDocument("after").getString("firstName")).isEqualTo("Jack");
+    }
+
+    @Test
+    public void shouldWriteLazyDocumentInBothFormats() throws Exception {
+        assertThat((Object) DocumentReader.defaultReader().read(DocumentWriter.defaultWriter().write(lazy))).isEqualTo(original);
+        assertThat((Object) DocumentReader.binaryReader().read(DocumentWriter.binaryWriter().writeAsBytes(lazy))).isEqualTo(original);
+    }
+
+    @Test
+    public void shouldWriteUnmodifiedLazyDocumentAsOriginalBytes() throws Exception {
+        byte[] bytes = DocumentWriter.binaryWriter().writeAsBytes(original);
+        Document doc = DocumentReader.lazyReader().read(bytes);
+        assertThat(Arrays.equals(DocumentWriter.binaryWriter().writeAsBytes(doc), bytes)).isTrue();
+        assertThat(Arrays.equals(DocumentWriter.binaryWriter().writeAsBytes(doc.clone()), bytes)).isTrue();
+    }
+
+    @Test
+    public void shouldSpliceUnmodifiedLazyDocumentIntoOtherDocument() throws Exception {
+        Document response = Document.create("clientid", "client-9", "status", 1);
+        response.setDocument("before", lazy);
+        response.setDocument("after", lazy.clone());
+        response.getDocument("after").setString("lastName", "Jones");
+        byte[] bytes = DocumentWriter.binaryWriter().writeAsBytes(response);
+        Document eager = DocumentReader.binaryReader().read(bytes);
+        Document lazyResponse = DocumentReader.lazyReader().read(bytes);
+        // The embedded document can itself be spliced again ...
+        Document before = lazyResponse.getDocument("before");
+        assertThat(((LazyDocument) before).isSpliceable()).isTrue();
+        assertThat(((LazyDocument) lazyResponse.getDocument("after")).isSpliceable()).isFalse();
+        assertThat((Object) DocumentReader.binaryReader().read(DocumentWriter.binaryWriter().writeAsBytes(before))).isEqualTo(original);
+        // And both readers produce the same document ...
+        assertThat((Object) eager).isEqualTo(response);
+        assertThat((Object) lazyResponse).isEqualTo(response);
+        assertThat(eager.getDocument("after").getString("lastName")).isEqualTo("Jones");
+        assertThat(eager.getDocument("before").getString("lastName")).isEqualTo("Smith");
+    }
+}
@@ -93,6 +93,34 @@ public class PathsTest implements Testing {
         assertThat(path.segment(4)).isEqualTo("e");
     }
 
+    @Test
+    public void shouldReuseParsedPathsWithJsonPointerEscapes() {
+        path = Path.parse("/a/b~1c/d~0e");
+        assertThat((Object) Path.parse("/a/b~1c/d~0e")).isSameAs(path);
+        assertThat(path.size()).isEqualTo(3);
+        assertThat(path.segment(1)).isEqualTo("b/c");
+        assertThat(path.segment(2)).isEqualTo("d~e");
+        assertThat(Paths.cacheSize()).isGreaterThan(0);
+    }
+    
+    @Test
+    public void shouldComputeArrayIndexesOfSegments() {
+        path = parse("/a/3/-/-1/b");
+        assertThat(path.arrayIndex(0)).isEqualTo(-1);
+        assertThat(path.arrayIndex(1)).isEqualTo(3);
+        assertThat(path.arrayIndex(2)).isEqualTo(-1);
+        assertThat(path.arrayIndex(3)).isEqualTo(-1);
+        assertThat(path.parent().get().arrayIndex(1)).isEqualTo(3);
+        assertThat(parse("12").arrayIndex(0)).isEqualTo(12);
+    }
+    
+    @Test
+    public void shouldHaveSameHashCodeForEqualMultiSegmentPaths() {
+        path = parse("/a/b/c");
+        assertThat((Object) parse("a/b/c/")).isEqualTo(path);
+        assertThat(parse("a/b/c/").hashCode()).isEqualTo(path.hashCode());
+    }
+
     protected Path parse( String path ) {
         return Paths.parse(path, false);
     }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.doc;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class ValueTest {
+
+    @Test
+    public void shouldReuseValuesForSmallIntegersAndBooleans() {
+        assertThat(Value.create(42)).isSameAs(Value.create(Integer.valueOf(42)));
+        assertThat(Value.create(42L)).isSameAs(Value.create((Object) Long.valueOf(42L)));
+        assertThat(Value.create(true)).isSameAs(Value.create(Boolean.TRUE));
+        assertThat(Value.create(100000)).isNotSameAs(Value.create(100000));
+    }
+
+    @Test
+    public void shouldHaveTypesOfEquivalentBoxedValues() {
+        assertThat(Value.create(1).getType()).isEqualTo(Value.Type.INTEGER);
+        assertThat(Value.create(1L).getType()).isEqualTo(Value.Type.LONG);
+        assertThat(Value.create(1.5d).getType()).isEqualTo(Value.Type.DOUBLE);
+        assertThat(Value.create(1.5f).getType()).isEqualTo(Value.Type.FLOAT);
+        assertThat(Value.create(false).getType()).isEqualTo(Value.Type.BOOLEAN);
+        assertThat(Value.create("1").getType()).isEqualTo(Value.Type.STRING);
+        assertThat(Value.create((Object) Short.valueOf((short) 3)).getType()).isEqualTo(Value.Type.INTEGER);
+    }
+
+    @Test
+    public void shouldCompareAndHashLikeEquivalentBoxedValues() {
+        assertThat(Value.create(5)).isEqualTo(Value.create(5L));
+        assertThat(Value.create(5L)).isEqualTo(Value.create(5));
+        assertThat(Value.create(5)).isNotEqualTo(Value.create(5.0d));
+        assertThat(Value.create(2000).hashCode()).isEqualTo(Integer.valueOf(2000).hashCode());
+        assertThat(Value.create(-2L).hashCode()).isEqualTo(Long.valueOf(-2L).hashCode());
+        assertThat(Value.create(1.5d).hashCode()).isEqualTo(Double.valueOf(1.5d).hashCode());
+        assertThat(Value.create(3).compareTo(Value.create(4))).isLessThan(0);
+        assertThat(Value.create(4.5d).compareTo(Value.create(4.25d))).isGreaterThan(0);
+        assertThat(Value.create(true).compareTo(Value.create(false))).isGreaterThan(0);
+        assertThat(Value.create(3).asLong(-1L)).isEqualTo(3L);
+        assertThat(Value.create(Long.MAX_VALUE).asInteger(-1)).isEqualTo(-1);
+        assertThat(Value.create("x").asDouble(-1.0d)).isEqualTo(-1.0d);
+    }
+
+    @Test
+    public void shouldCreateIntegerValuesFromShortsAndBytes() {
+        assertThat(Value.create((Object) Short.valueOf((short) -300))).isEqualTo(Value.create(-300));
+        assertThat(Value.create((Object) Byte.valueOf((byte) 7))).isEqualTo(Value.create(7));
+        assertThat(Value.create((Object) Byte.valueOf((byte) 7)).getType()).isEqualTo(Value.Type.INTEGER);
+        assertThat(Value.create((Object) Short.valueOf(Short.MAX_VALUE)).asInteger(-1)).isEqualTo(Short.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldPassWholeDoubleToDoubleConsumer() {
+        List<Double> accepted = new ArrayList<>();
+        assertThat(Value.create(2.75d).ifDouble(accepted::add)).isTrue();
+        assertThat(Value.create(-0.5d).ifDouble(accepted::add)).isTrue();
+        assertThat(Value.create(3).ifDouble(accepted::add)).isFalse();
+        assertThat(accepted).containsExactly(2.75d, -0.5d);
+    }
+}
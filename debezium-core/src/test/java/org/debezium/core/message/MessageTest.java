@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.core.message;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.debezium.Testing;
+import org.debezium.core.doc.Array;
+import org.debezium.core.doc.Document;
+import org.debezium.core.doc.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class MessageTest implements Testing {
+
+    private final Document entity = Document.create("firstName", "Jackie", "lastName", "Jones");
+
+    @Before
+    public void beforeEach() {
+        entity.setDocument("address", Document.create("city", "Springfield", "zip", "12345"));
+        entity.setArray("phones", Array.create("555-1212", "555-1234"));
+    }
+
+    @Test
+    public void shouldRoundTripProjectionPaths() {
+        Document request = Document.create();
+        assertThat(Message.getProjection(request)).isNull();
+        Message.setProjection(request, Arrays.asList("firstName", "address/city"));
+        List<Path> paths = Message.getProjection(request);
+        assertThat(paths).isEqualTo(Arrays.asList(Path.parse("firstName"), Path.parse("address/city")));
+    }
+
+    @Test
+    public void shouldProjectFieldsAndNestedFields() {
+        Document projection = Message.project(entity, paths("lastName", "address/city", "missing", "address/missing"));
+        assertThat(projection.size()).isEqualTo(2);
+        assertThat(projection.getString("lastName")).isEqualTo("Jones");
+        assertThat(projection.getDocument("address").size()).isEqualTo(1);
+        assertThat(projection.getDocument("address").getString("city")).isEqualTo("Springfield");
+    }
+
+    @Test
+    public void shouldProjectWholeArrayForPathThroughArray() {
+        Document projection = Message.project(entity, paths("phones/1"));
+        assertThat(projection.size()).isEqualTo(1);
+        assertThat(projection.getArray("phones").size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldProjectWholeEntityForRootPath() {
+        assertThat((Object) Message.project(entity, paths("/"))).isSameAs(entity);
+    }
+
+    @Test
+    public void shouldTrimOnlyRepresentationsThatWereNotRequested() {
+        Document response = Document.create();
+        Message.setBefore(response, entity);
+        Message.setAfter(response, entity);
+        assertThat((Object) Message.trimWriteResponse(response)).isSameAs(response);
+
+        Message.setIncludeBefore(response, false);
+        Document trimmed = Message.trimWriteResponse(response);
+        assertThat(Message.getBefore(trimmed)).isNull();
+        assertThat(Message.getAfter(trimmed)).isNotNull();
+        assertThat(Message.getBefore(response)).isNotNull();
+
+        Message.setIncludeBefore(response, true);
+        Message.setIncludeAfter(response, false);
+        trimmed = Message.trimWriteResponse(response);
+        assertThat(Message.getBefore(trimmed)).isNotNull();
+        assertThat(Message.getAfter(trimmed)).isNull();
+    }
+
+    @Test
+    public void shouldCopyAllButPerPartHeadersIntoEachPartOfBatch() {
+        Document batchRequest = Document.create();
+        Message.HEADER_FIELD_NAMES.forEach(name -> batchRequest.setString(name, "value-" + name));
+        batchRequest.setString("operations", "not a header");
+        Document part = Document.create();
+        Message.copySharedHeaders(batchRequest, part);
+        Set<String> expected = new HashSet<>(Message.HEADER_FIELD_NAMES);
+        expected.removeAll(Message.PER_PART_HEADER_FIELD_NAMES);
+        Set<String> copied = new HashSet<>();
+        part.keySet().forEach(name -> copied.add(name.toString()));
+        assertThat(copied).isEqualTo(expected);
+        expected.forEach(name -> assertThat(part.getString(name)).isEqualTo("value-" + name));
+        assertThat(Message.HEADER_FIELD_NAMES.containsAll(Message.PER_PART_HEADER_FIELD_NAMES)).isTrue();
+    }
+
+    protected static List<Path> paths(String... paths) {
+        return Arrays.stream(paths).map(Path::parse).collect(Collectors.toList());
+    }
+}
@@ -7,6 +7,9 @@ package org.debezium.core.message;
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.debezium.Testing;
 import org.debezium.core.component.DatabaseId;
 import org.debezium.core.component.EntityId;
@@ -188,5 +191,48 @@ public class PatchTest implements Testing {
         Document quotes = other.getDocument("quotes");
         assertThat(quotes.getString("woah")).isEqualTo("crikey");
     }
-    
+
+    @Test
+    public void shouldIncrementIntegralAndDoubleValues() {
+        Document doc = Document.create("count", 1, "total", 10L, "ratio", 0.5d);
+        doc.setNumber("big", Integer.MAX_VALUE);
+        Patch<EntityId> patch = Patch.edit(ENTITY_ID)
+                                     .increment("count", 2)
+                                     .increment("total", 5L)
+                                     .increment("ratio", 0.25d)
+                                     .increment("big", 1)
+                                     .increment("missing", 3)
+                                     .end();
+        patch.apply(doc, (op)->Fail.fail("Unable to apply patch: " + op));
+        assertThat(doc.getInteger("count")).isEqualTo(3);
+        assertThat(doc.getLong("total")).isEqualTo(15L);
+        assertThat(doc.getDouble("ratio")).isEqualTo(0.75d);
+        assertThat(doc.get("big").getType()).isEqualTo(Value.Type.LONG);
+        assertThat(doc.getLong("big")).isEqualTo(Integer.MAX_VALUE + 1L);
+        assertThat(doc.getInteger("missing")).isEqualTo(3);
+    }
+
+
+    @Test
+    public void shouldApplyEveryOperationEvenWhenSomeFail() {
+        Patch<EntityId> patch = Patch.edit(ENTITY_ID)
+                .add("first", Value.create(1))
+                .add("name/nested", Value.create(2))
+                .add("last", Value.create(3))
+                .end();
+        Document doc = Document.create("name", "Jackie");
+        Message.addId(doc, ENTITY_ID);
+        List<Patch.Operation> failed = new ArrayList<>();
+        assertThat(patch.apply(doc, failed::add)).isTrue();
+        // Only the operation whose path goes through a non-document fails, and the operations after it are still applied ...
+        assertThat(failed.size()).isEqualTo(1);
+        assertThat(failed.get(0).toString()).contains("name/nested");
+        assertThat(doc.getInteger("first")).isEqualTo(1);
+        assertThat(doc.getInteger("last")).isEqualTo(3);
+        assertThat(doc.getString("name")).isEqualTo("Jackie");
+
+        Document unchanged = doc.clone();
+        assertThat(Patch.edit(ENTITY_ID).end().apply(doc, (op)->Fail.fail("Unable to apply patch: " + op))).isFalse();
+        assertThat((Object) doc).isEqualTo(unchanged);
+    }
 }
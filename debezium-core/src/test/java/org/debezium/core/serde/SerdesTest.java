@@ -8,8 +8,11 @@ package org.debezium.core.serde;
 import static org.fest.assertions.Assertions.assertThat;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 
 import org.debezium.Testing;
+import org.debezium.core.doc.Array;
 import org.debezium.core.doc.Document;
 import org.debezium.core.doc.DocumentReader;
 import org.junit.Test;
@@ -45,6 +48,56 @@ public class SerdesTest implements Testing {
         readAsStringAndBytes("json/response2.json");
     }
     
+    @Test
+    public void shouldRoundTripDocumentsThroughBinaryFormat() throws IOException {
+        writeAndReadAsBinary("json/sample1.json");
+        writeAndReadAsBinary("json/sample2.json");
+        writeAndReadAsBinary("json/sample3.json");
+        writeAndReadAsBinary("json/response1.json");
+        writeAndReadAsBinary("json/response2.json");
+    }
+    
+    @Test
+    public void shouldRoundTripAllValueTypesThroughBinaryFormat() {
+        Document doc = Document.create();
+        doc.setString("str", "h\u00e9llo");
+        doc.setBoolean("t", true);
+        doc.setBoolean("f", false);
+        doc.setNull("null");
+        doc.setNumber("int", -42);
+        doc.setNumber("long", Long.MAX_VALUE);
+        doc.setNumber("float", 3.5f);
+        doc.setNumber("double", -1.25d);
+        doc.setNumber("bigint", new BigInteger("123456789012345678901234567890"));
+        doc.setNumber("decimal", new BigDecimal("-12345.678900"));
+        doc.setBinary("bin", new byte[] { 0, 1, 2, (byte) 0xDB, -1 });
+        doc.setDocument("nested", Document.create("str", "x", "int", 1));
+        doc.setArray("array", Array.create(1, "two", Document.create("str", "three")));
+        byte[] bytes = Serdes.binaryDocument().toBytes(doc);
+        assertThat((Object) Serdes.binaryDocument().fromBytes(bytes)).isEqualTo(doc);
+    }
+    
+    @Test
+    public void shouldWriteBinaryFormatSmallerThanJson() throws IOException {
+        Document doc = DocumentReader.defaultReader().read(Testing.Files.readResourceAsString("json/response2.json"));
+        assertThat(Serdes.documentToBinary(doc).length).isLessThan(Serdes.documentToBytes(doc).length);
+    }
+    
+    @Test
+    public void shouldReadJsonWithBinaryDocumentSerde() throws IOException {
+        String content = Testing.Files.readResourceAsString("json/sample1.json");
+        Document expected = DocumentReader.defaultReader().read(content);
+        Document doc = Serdes.binaryDocument().fromBytes(Serdes.stringToBytes(content));
+        assertThat((Object)doc).isEqualTo(expected);
+    }
+    
+    protected void writeAndReadAsBinary( String resourceFile ) throws IOException {
+        Document expected = DocumentReader.defaultReader().read(Testing.Files.readResourceAsString(resourceFile));
+        byte[] binary = Serdes.binaryDocument().toBytes(expected);
+        Document doc = Serdes.bytesToDocument(binary);
+        assertThat((Object)doc).isEqualTo(expected);
+    }
+    
     protected void readAsStringAndBytes( String resourceFile ) throws IOException {
         String content = Testing.Files.readResourceAsString(resourceFile);
         byte[] binary = Serdes.stringToBytes(content);
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.debezium.core.component.EntityId;
+import org.debezium.core.message.Patch;
+
+/**
+ * A non-blocking view of a {@link Debezium} driver, obtained with {@link Debezium#async()}. Each method submits the request and
+ * immediately returns a {@link CompletableFuture} that is completed when the response is received, so the caller's thread is
+ * never blocked waiting for responses. Timeouts are enforced by the driver's shared scheduled executor.
+ * <p>
+ * The futures are completed on the driver's threads that read responses, so any dependent actions that are expensive should be
+ * registered with the {@code *Async} methods of {@link CompletableFuture} to run them on another executor.
+ * <p>
+ * Any failure is reported by completing the future exceptionally with the same exception that the corresponding {@link Debezium}
+ * method would throw, such as {@link DebeziumAuthorizationException} if the user is not authorized to perform the operation
+ * or {@link DebeziumTimeoutException} if the response did not arrive within the timeout.
+ *
+ * @author Randall Hauch
+ */
+public interface AsyncDebezium {
+
+    /**
+     * Read one entity from the database.
+     *
+     * @param token a valid session token for the user; may not be null
+     * @param entityId the entity's unique identifier; may not be null
+     * @param timeout the amount of time to wait for the response
+     * @param unit the unit of time for the timeout
+     * @return the future representation of the entity; never null
+     * @see Debezium#readEntity(SessionToken, EntityId, long, TimeUnit)
+     */
+    public CompletableFuture<Entity> readEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit);
+
+    /**
+     * Read only the given parts of one entity from the database.
+     *
+     * @param token a valid session token for the user; may not be null
+     * @param entityId the entity's unique identifier; may not be null
+     * @param paths the paths of the fields to be read; may not be null
+     * @param timeout the amount of time to wait for the response
+     * @param unit the unit of time for the timeout
+     * @return the future representation of the requested parts of the entity; never null
+     * @see Debezium#readEntity(SessionToken, EntityId, Collection, long, TimeUnit)
+     */
+    public CompletableFuture<Entity> readEntity(SessionToken token, EntityId entityId, Collection<String> paths, long timeout,
+                                                TimeUnit unit);
+
+    /**
+     * Request to apply the given patch to an entity.
+     *
+     * @param token a valid session token for the user; may not be null
+     * @param patch the patch; may not be null
+     * @param timeout the amount of time to wait for the response
+     * @param unit the unit of time for the timeout
+     * @return the future result of the change request; never null
+     * @see Debezium#changeEntity(SessionToken, Patch, long, TimeUnit)
+     */
+    public CompletableFuture<EntityChange> changeEntity(SessionToken token, Patch<EntityId> patch, long timeout, TimeUnit unit);
+
+    /**
+     * Destroy one entity from the database.
+     *
+     * @param token a valid session token for the user; may not be null
+     * @param entityId the entity's unique identifier within this database; may not be null
+     * @param timeout the amount of time to wait for the response
+     * @param unit the unit of time for the timeout
+     * @return the future that is {@code true} if the entity existed and was destroyed, or {@code false} if it did not exist;
+     *         never null
+     * @see Debezium#destroyEntity(SessionToken, EntityId, long, TimeUnit)
+     */
+    public CompletableFuture<Boolean> destroyEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit);
+
+    /**
+     * Begin a batch operation. Use the resulting {@link Debezium.BatchBuilder} object to assemble the requests, and then
+     * {@link Debezium.BatchBuilder#submitAsync(SessionToken, long, TimeUnit) submit} the batch without blocking.
+     *
+     * @return the builder of the batch request; never null
+     */
+    public Debezium.BatchBuilder batch();
+}
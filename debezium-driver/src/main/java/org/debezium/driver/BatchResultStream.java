@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The results of a {@link Debezium.BatchBuilder#stream(SessionToken, long, java.util.concurrent.TimeUnit) streamed batch
+ * operation}, where each {@link BatchResult} contains the result for a single entity and is available as soon as the response
+ * for that entity has been received. Results are pulled by the caller, so {@link #hasNext()} blocks until the next result arrives or the timeout expires.
+ * <p>
+ * The stream should always be {@link #close() closed}, which discards all results that have not yet been pulled. It is closed
+ * automatically after the last result has been pulled.
+ *
+ * @author Randall Hauch
+ */
+public interface BatchResultStream extends Iterator<BatchResult>, AutoCloseable {
+
+    /**
+     * Get the number of results that have not yet been pulled from this stream.
+     *
+     * @return the number of remaining results; never negative
+     */
+    public int remaining();
+
+    /**
+     * Determine whether there is another result, blocking until it arrives.
+     *
+     * @return {@code true} if there is another result, or {@code false} if all results have been pulled or if this stream has
+     *         been {@link #close() closed}
+     * @throws DebeziumTimeoutException if the next result did not arrive within the timeout
+     */
+    @Override
+    public boolean hasNext();
+
+    /**
+     * Stop waiting for results. Any results that have not yet been pulled are discarded. This method may be called from any
+     * thread, including while another thread is blocked in {@link #hasNext()}.
+     */
+    @Override
+    public void close();
+
+    /**
+     * Get a sequential {@link Stream} of the results that have not yet been pulled. Closing the returned stream closes this
+     * object.
+     *
+     * @return the stream of results; never null
+     */
+    default public Stream<BatchResult> stream() {
+        Spliterator<BatchResult> spliterator = Spliterators.spliterator(this, remaining(), Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+}
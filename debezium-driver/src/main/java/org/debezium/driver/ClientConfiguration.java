@@ -110,6 +110,80 @@ interface ClientConfiguration extends Configuration {
         return getInteger("response.reader.thread.count",10);
     }
     
+    default public int getResponsePartition(){
+        return getInteger("response.partition",-1);
+    }
+    
+    default public int getOffsetCommitMessageCount(){
+        return getInteger("offset.commit.messages",100);
+    }
+    
+    default public long getOffsetCommitIntervalInMillis(){
+        return getLong("offset.commit.interval.ms",1000L);
+    }
+    
+    default public int getConsumerQueueSize(){
+        return getInteger("consumer.queue.size",100);
+    }
+    
+    default public long getConsumerShutdownTimeoutInMillis(){
+        return getLong("consumer.shutdown.timeout.ms",10000L);
+    }
+    
+    default public long getSendLingerInMillis(){
+        return getLong("send.linger.ms",0L);
+    }
+    
+    default public int getSendBatchSize(){
+        return getInteger("send.batch.size",200);
+    }
+    
+    default public int getSendMaxInFlightBytes(){
+        return getInteger("send.max.in.flight.bytes",16 * 1024 * 1024);
+    }
+    
+    default public boolean coalesceReads(String databaseId){
+        return getBoolean("coalesce.reads." + databaseId,getBoolean("coalesce.reads",false));
+    }
+    
+    default public boolean microBatch(String databaseId){
+        return getBoolean("micro.batch." + databaseId,getBoolean("micro.batch",false));
+    }
+    
+    default public boolean isMicroBatchEnabled(){
+        return keys().stream().filter(key->key.equals("micro.batch") || key.startsWith("micro.batch."))
+                     .filter(key->!key.equals("micro.batch.linger.ms") && !key.equals("micro.batch.max.size"))
+                     .anyMatch(key->getBoolean(key,false));
+    }
+    
+    default public long getMicroBatchLingerInMillis(){
+        return getLong("micro.batch.linger.ms",5L);
+    }
+    
+    default public int getMicroBatchMaxSize(){
+        return getInteger("micro.batch.max.size",100);
+    }
+    
+    default public int getEntityCacheSize(String databaseId){
+        return getInteger("entity.cache.size." + databaseId,getInteger("entity.cache.size",0));
+    }
+    
+    default public boolean isEntityCacheEnabled(){
+        return keys().stream().anyMatch(key->key.startsWith("entity.cache.size") && getInteger(key,0) > 0);
+    }
+    
+    default public long getEntityCacheMaxAgeInMillis(){
+        return getLong("entity.cache.max.age.ms",10000L);
+    }
+    
+    default public boolean includeBeforeInResponses(){
+        return getBoolean("responses.include.before",true);
+    }
+    
+    default public boolean includeAfterInResponses(){
+        return getBoolean("responses.include.after",true);
+    }
+    
     default public Configuration getProducerConfiguration() {
         return subset("producer",true);
     }
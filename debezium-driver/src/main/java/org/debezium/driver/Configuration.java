@@ -13,6 +13,7 @@ import java.io.Reader;
 import java.net.URL;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.function.BooleanSupplier;
@@ -405,12 +406,12 @@ interface Configuration {
      */
     default public Configuration subset(Predicate<? super String> matcher, Function<String, String> mapper) {
         Function<String, String> prefixRemover = mapper != null ? mapper : key -> key;
-        Set<String> keys = Collections.unmodifiableSet(
-                                      keys().stream()
-                                            .filter(key -> key != null) // may not be null
-                                            .filter(matcher) // only keys that match the predicate
-                                            .map(prefixRemover) // remove prefix if desired
-                                            .collect(Collectors.toSet()));
+        // Map each of the resulting keys to the key in this configuration ...
+        Map<String, String> originalKeys = keys().stream()
+                                                 .filter(key -> key != null) // may not be null
+                                                 .filter(matcher) // only keys that match the predicate
+                                                 .collect(Collectors.toMap(prefixRemover, key -> key, (first, second) -> first));
+        Set<String> keys = Collections.unmodifiableSet(originalKeys.keySet());
         Configuration delegate = this;
         return new Configuration() {
             @Override
@@ -420,7 +421,8 @@ interface Configuration {
 
             @Override
             public String getString(String key) {
-                return keys.contains(prefixRemover.apply(key)) ? delegate.getString(key) : null;
+                String originalKey = originalKeys.get(key);
+                return originalKey != null ? delegate.getString(originalKey) : null;
             }
         };
     }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import org.debezium.core.annotation.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A loop that reads messages from one or more blocking {@link Source sources}, each on its own fetch thread, and hands each message
+ * to a pool of worker threads that process the messages. Each worker has a bounded queue, and all messages with the same stripe
+ * (e.g., from the same partition) are processed by the same worker in the order they were read. A slow consumer therefore does
+ * not stall the fetch threads until its worker's queue is full.
+ * <p>
+ * Fetch threads block in their source while waiting for messages and back off after errors, so idle loops use no CPU. Each fetch
+ * thread stops when its source has no more messages or when the loop is no longer running, and the workers stop after the last
+ * fetch thread has stopped and they have processed all of their queued messages.
+ *
+ * @param <M> the type of message
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class ConsumerLoop<M> {
+
+    /**
+     * A blocking source of messages.
+     *
+     * @param <M> the type of message
+     */
+    public static interface Source<M> {
+        /**
+         * Block until the next message is available or until the source's own timeout expires.
+         *
+         * @return {@code true} if a message is available, or {@code false} if the source timed out
+         * @throws NoSuchElementException if the source has no more messages
+         */
+        public boolean await();
+
+        /**
+         * Get the next message, which must be available.
+         *
+         * @return the next message; never null
+         */
+        public M next();
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConsumerLoop.class);
+    private static final long MIN_BACKOFF_MS = 10L;
+    private static final long MAX_BACKOFF_MS = 1000L;
+
+    private final String name;
+    private final BlockingQueue<Object>[] queues;
+    private final ToIntFunction<M> stripe;
+    private final Consumer<M> handler;
+    private final Executor executor;
+    private final BooleanSupplier running;
+    private final AtomicInteger activeFetchers = new AtomicInteger();
+    private final CountDownLatch terminated;
+    private final Object stop = new Object();
+
+    /**
+     * Create a new loop.
+     *
+     * @param name the name of the loop, used for logging; may not be null
+     * @param workers the number of worker threads; must be positive
+     * @param queueCapacity the maximum number of messages waiting for each worker; must be positive
+     * @param stripe the function that determines the stripe of a message; messages with the same stripe are processed in order
+     * @param handler the function that processes each message; may not be null
+     * @param executor the executor for the fetch and worker threads; may not be null
+     * @param running the function that determines whether the loop should continue to fetch messages; may not be null
+     */
+    @SuppressWarnings("unchecked")
+    ConsumerLoop(String name, int workers, int queueCapacity, ToIntFunction<M> stripe, Consumer<M> handler, Executor executor,
+            BooleanSupplier running) {
+        this.name = name;
+        this.queues = new BlockingQueue[Math.max(1, workers)];
+        for (int i = 0; i != queues.length; ++i) {
+            queues[i] = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        }
+        this.terminated = new CountDownLatch(queues.length);
+        this.stripe = stripe;
+        this.handler = handler;
+        this.executor = executor;
+        this.running = running;
+    }
+
+    /**
+     * Start the worker threads, and start one fetch thread for each of the supplied sources. This method should be called only
+     * once.
+     *
+     * @param sources the sources of the messages; may not be null
+     */
+    public void start(List<? extends Source<M>> sources) {
+        if (sources.isEmpty()) {
+            // There are no workers to wait for ...
+            while (terminated.getCount() != 0L) {
+                terminated.countDown();
+            }
+            return;
+        }
+        activeFetchers.set(sources.size());
+        for (BlockingQueue<Object> queue : queues) {
+            executor.execute(() -> work(queue));
+        }
+        sources.forEach(source -> executor.execute(() -> fetch(source)));
+    }
+
+    /**
+     * Block until all of the fetch threads have stopped and the workers have processed all of the messages that were read.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout; may not be null
+     * @return {@code true} if the loop has terminated, or {@code false} if the timeout elapsed first
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    private void fetch(Source<M> source) {
+        long backoff = 0L;
+        try {
+            while (running.getAsBoolean()) {
+                try {
+                    // This blocks while there are no messages ...
+                    if (!source.await()) continue;
+                    M message = source.next();
+                    // Never drop a message that was read, since it may need to be processed before offsets are committed ...
+                    if (putUninterruptibly(queues[(stripe.applyAsInt(message) & Integer.MAX_VALUE) % queues.length], message)) break;
+                    backoff = 0L;
+                } catch (NoSuchElementException e) {
+                    LOGGER.debug("No more messages for consumer '{}'", name);
+                    break;
+                } catch (RuntimeException e) {
+                    backoff = Math.min(Math.max(MIN_BACKOFF_MS, backoff * 2), MAX_BACKOFF_MS);
+                    LOGGER.error("Error reading messages for consumer '{}'; retrying in {} ms", name, backoff, e);
+                    if (!sleep(backoff)) break;
+                }
+            }
+        } finally {
+            if (activeFetchers.decrementAndGet() == 0) {
+                // Tell each of the workers to stop after processing the queued messages ...
+                for (BlockingQueue<Object> queue : queues) {
+                    putUninterruptibly(queue, stop);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work(BlockingQueue<Object> queue) {
+        try {
+            while (true) {
+                Object message = null;
+                try {
+                    message = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.interrupted();
+                    continue;
+                }
+                if (message == stop) return;
+                try {
+                    handler.accept((M) message);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Error processing message for consumer '{}'", name, e);
+                }
+            }
+        } finally {
+            terminated.countDown();
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            return false;
+        }
+    }
+
+    private static boolean putUninterruptibly(BlockingQueue<Object> queue, Object message) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(message);
+                return interrupted;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.debezium.core.annotation.NotThreadSafe;
+import org.debezium.core.doc.Document;
+import org.debezium.driver.DbzPartialResponses.PartialResponseStream;
+
+/**
+ * A {@link BatchResultStream} that converts each partial response into a {@link BatchResult} as it is pulled. Only one thread
+ * should pull results, although any thread may {@link #close() close} the stream.
+ *
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class DbzBatchResultStream implements BatchResultStream {
+
+    private final PartialResponseStream responses;
+    private final Function<Document, BatchResult> converter;
+    private final long timeout;
+    private final TimeUnit unit;
+    private final Supplier<DebeziumTimeoutException> timedOut;
+    private final Runnable uponClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private BatchResult next;
+
+    DbzBatchResultStream(PartialResponseStream responses, Function<Document, BatchResult> converter, long timeout, TimeUnit unit,
+            Supplier<DebeziumTimeoutException> timedOut, Runnable uponClose) {
+        this.responses = responses;
+        this.converter = converter;
+        this.timeout = timeout;
+        this.unit = unit;
+        this.timedOut = timedOut;
+        this.uponClose = uponClose;
+    }
+
+    @Override
+    public int remaining() {
+        return responses.remaining() + (next != null ? 1 : 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        if (responses.remaining() == 0 || closed.get()) {
+            close();
+            return false;
+        }
+        Document response = null;
+        try {
+            response = responses.poll(timeout, unit);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+        if (response == null) {
+            // Either we were closed by another thread, or we timed out ...
+            boolean cancelled = closed.get();
+            close();
+            if (cancelled) return false;
+            throw timedOut.get();
+        }
+        next = converter.apply(response);
+        return true;
+    }
+
+    @Override
+    public BatchResult next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        BatchResult result = next;
+        next = null;
+        if (responses.remaining() == 0) close();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            responses.close();
+            uponClose.run();
+        }
+    }
+}
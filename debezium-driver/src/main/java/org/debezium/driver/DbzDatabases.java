@@ -91,10 +91,12 @@ final class DbzDatabases extends DbzNode.Service {
             return responses.submit(Boolean.class, requestId -> {
                 logger.trace("Attempting to submit request to create schema for database '{}'", dbId);
                 Document request = Patch.create(dbId).asDocument();
-                Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), username);
-                if (!node.send(Topic.SCHEMA_PATCHES, dbId.asString(), request)) {
-                    throw new DebeziumClientException("Unable to send request to create schema for " + dbId);
-                }
+                requestId.addHeaders(request, username);
+                node.sendAsync(Topic.SCHEMA_PATCHES, dbId.asString(), request).thenAccept(sent -> {
+                    if (!sent) {
+                        responses.fail(requestId, new DebeziumClientException("Unable to send request to create schema for " + dbId));
+                    }
+                });
             }).onResponse(timeout,unit, response -> {
                 logger.debug("Reading schema for new database '{}'", dbId);
                 Message.getFirstFailureReason(response).ifPresent(msg->{
@@ -6,24 +6,35 @@
 package org.debezium.driver;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.debezium.core.component.DatabaseId;
 import org.debezium.core.component.EntityId;
 import org.debezium.core.component.EntityType;
 import org.debezium.core.component.Identifier;
 import org.debezium.core.doc.Document;
+import org.debezium.core.doc.Path;
 import org.debezium.core.doc.Value;
 import org.debezium.core.message.Batch;
 import org.debezium.core.message.Message;
 import org.debezium.core.message.Patch;
 import org.debezium.core.message.Patch.Editor;
 import org.debezium.core.message.Topic;
+import org.debezium.driver.DbzPartialResponses.PartialResponseStream;
+import org.debezium.driver.DbzPartialResponses.Responder;
 import org.debezium.driver.EntityChange.ChangeStatus;
 import org.debezium.driver.SecurityProvider.CompositeAction;
 import org.slf4j.Logger;
@@ -35,13 +46,113 @@ import org.slf4j.LoggerFactory;
  */
 final class DbzDriver implements Debezium {
 
+    /**
+     * The user and database of the patches that may be submitted together in one micro-batch.
+     */
+    private static final class BatchKey {
+        private final String username;
+        private final DatabaseId databaseId;
+
+        BatchKey(String username, DatabaseId databaseId) {
+            this.username = username;
+            this.databaseId = databaseId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * username.hashCode() + databaseId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj instanceof BatchKey) {
+                BatchKey that = (BatchKey) obj;
+                return this.username.equals(that.username) && this.databaseId.equals(that.databaseId);
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return username + " @ " + databaseId;
+        }
+    }
+
+    /**
+     * A single-entity patch that is waiting to be submitted in a micro-batch.
+     * 
+     * @param <R> the type of result
+     */
+    private static final class PendingPatch<R> {
+        private final Patch<EntityId> patch;
+        private final long timeoutInNanos;
+        private final Responder<R> responder;
+        private final Supplier<? extends RuntimeException> timedOut;
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        PendingPatch(Patch<EntityId> patch, long timeoutInNanos, Responder<R> responder, Supplier<? extends RuntimeException> timedOut) {
+            this.patch = patch;
+            this.timeoutInNanos = timeoutInNanos;
+            this.responder = responder;
+            this.timedOut = timedOut;
+        }
+
+        void complete(Document response) {
+            try {
+                future.complete(responder.accept(response));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        void fail(Throwable error) {
+            // Report a timeout with the same exception as a request that was not batched ...
+            future.completeExceptionally(error instanceof DebeziumTimeoutException ? timedOut.get() : error);
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final Configuration config;
     private final Environment env;
     private final DbzNode node;
     private final DbzDatabases databases;
     private final DbzPartialResponses partialResponses;
+    private final DbzEntityCache cache;
+    private final SingleFlight<EntityId, Entity> reads = new SingleFlight<>(DbzDriver::copy);
+    private final Map<String, Boolean> coalescedDatabases = new ConcurrentHashMap<>();
+    private final MicroBatcher<BatchKey, PendingPatch<?>> batcher;
+    private final Map<String, Boolean> microBatchedDatabases = new ConcurrentHashMap<>();
+    private final boolean includeBefore;
+    private final boolean includeAfter;
     private final Clock clock = Clock.system();
+    private final AsyncDebezium asyncDriver = new AsyncDebezium() {
+        @Override
+        public CompletableFuture<Entity> readEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit) {
+            return async(() -> readEntityAsync(token, entityId, null, timeout, unit));
+        }
+
+        @Override
+        public CompletableFuture<Entity> readEntity(SessionToken token, EntityId entityId, Collection<String> paths, long timeout,
+                                                    TimeUnit unit) {
+            return async(() -> readEntityAsync(token, entityId, paths, timeout, unit));
+        }
+
+        @Override
+        public CompletableFuture<EntityChange> changeEntity(SessionToken token, Patch<EntityId> patch, long timeout, TimeUnit unit) {
+            return async(() -> changeEntityAsync(token, patch, timeout, unit));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> destroyEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit) {
+            return async(() -> destroyEntityAsync(token, entityId, timeout, unit));
+        }
+
+        @Override
+        public BatchBuilder batch() {
+            return DbzDriver.this.batch();
+        }
+    };
 
     DbzDriver(Configuration config, Environment env) {
         this.config = config;
@@ -49,11 +160,25 @@ final class DbzDriver implements Debezium {
         this.node = new DbzNode(this.config, env);
         this.partialResponses = new DbzPartialResponses();
         this.databases = new DbzDatabases(this.partialResponses);
-        this.node.add(this.databases, this.partialResponses);
+        ClientConfiguration clientConfig = ClientConfiguration.adapt(config);
+        this.cache = new DbzEntityCache(clientConfig);
+        this.node.add(this.databases, this.partialResponses, this.cache);
+        this.batcher = new MicroBatcher<>(clientConfig.getMicroBatchMaxSize(), clientConfig.getMicroBatchLingerInMillis(),
+                TimeUnit.MILLISECONDS, this::submitMicroBatch);
+        // Submit any collected patches before the node stops sending ...
+        this.node.registerPreShutdown(batcher::flushAll);
+        this.includeBefore = clientConfig.includeBeforeInResponses();
+        this.includeAfter = clientConfig.includeAfterInResponses();
     }
 
     public DbzDriver start() {
         node.start();
+        ClientConfiguration clientConfig = ClientConfiguration.adapt(config);
+        if (clientConfig.isMicroBatchEnabled()) {
+            // Only poll for expired batches when some database can have patches waiting in the batcher ...
+            long period = Math.max(1L, clientConfig.getMicroBatchLingerInMillis());
+            node.execute(period, period, TimeUnit.MILLISECONDS, batcher::flushExpired);
+        }
         return this;
     }
 
@@ -135,6 +260,16 @@ final class DbzDriver implements Debezium {
 
     @Override
     public Entity readEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit) {
+        return await(readEntityAsync(token, entityId, null, timeout, unit));
+    }
+
+    @Override
+    public Entity readEntity(SessionToken token, EntityId entityId, Collection<String> paths, long timeout, TimeUnit unit) {
+        return await(readEntityAsync(token, entityId, paths, timeout, unit));
+    }
+
+    private CompletableFuture<Entity> readEntityAsync(SessionToken token, EntityId entityId, Collection<String> paths, long timeout,
+                                                      TimeUnit unit) {
         return node.whenRunning(() -> {
             long start = clock.currentTimeInNanos();
             // Check the privilege first ...
@@ -144,34 +279,173 @@ final class DbzDriver implements Debezium {
             if (username == null) {
                 throw new DebeziumAuthorizationException("Unable to read entity '" + entityId + "'");
             }
+            Entity cached = cache.get(entityId);
+            if (cached != null) {
+                logUsage(token, databaseName, duration(start), "readEntity", "found", true);
+                logger.trace("Found cached entity '{}'", entityId);
+                return CompletableFuture.completedFuture(paths != null ? project(cached, paths) : cached);
+            }
+            if (paths != null) {
+                // Only the whole entity can be cached or shared with other reads ...
+                logger.debug("Attempting to read paths {} of entity '{}'", paths, entityId);
+                return submitProjectedRead(token, entityId, paths, username, start, timeout, unit);
+            }
             logger.debug("Attempting to read entity '{}'", entityId);
-            return partialResponses.submit(Entity.class, requestId -> {
-                logger.trace("Attempting to submit request to read entity '{}'", entityId);
-                Document request = Patch.read(entityId).asDocument();
-                Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), username);
-                if (!node.send(Topic.ENTITY_PATCHES, entityId.asString(), request)) {
-                    throw new DebeziumClientException("Unable to send request to read entity '" + entityId + "'");
-                }
-            }).onResponse(timeout, unit, response -> {
-                logger.trace("Received response from reading entity '{}'", entityId);
-                EntityId id = Message.getEntityId(response);
-                Document representation = Message.getAfter(response);
-                if (representation != null) {
-                    logUsage(token, databaseName, duration(start), "readEntity", "found", true);
-                    logger.trace("Successfully read entity '{}'", entityId);
-                } else {
-                    logUsage(token, databaseName, duration(start), "readEntity", "found", false);
-                    logger.trace("Unable to find entity '{}'", entityId);
-                }
-                return new DbzEntity(id, representation);
-            }).onTimeout(() -> {
-                throw new DebeziumTimeoutException("The request to read entity '" + entityId + "' timed out");
-            });
+            if (coalesceReads(databaseName)) {
+                // Join any read of this entity that is already in flight ...
+                return reads.execute(entityId, () -> submitRead(token, entityId, username, start, timeout, unit));
+            }
+            return submitRead(token, entityId, username, start, timeout, unit);
         }).orElseThrow(this::notRunning);
     }
 
+    private static Entity project(Entity entity, Collection<String> paths) {
+        Document doc = entity.asDocument();
+        if (doc == null) return entity;
+        return new DbzEntity(entity.id(), Message.project(doc, paths.stream().map(Path::parse).collect(Collectors.toList())), false);
+    }
+
+    private static Entity copy(Entity entity) {
+        // Each caller that reads a coalesced entity gets its own document ...
+        Document doc = entity.asDocument();
+        return new DbzEntity(entity.id(), doc != null ? doc.clone() : null);
+    }
+
+    /**
+     * Forget what this client knows about the entity that it is about to change, so that subsequent reads neither join a read
+     * that was submitted before the change nor return the cached representation from before the change.
+     * 
+     * @param entityId the entity identifier; may not be null
+     */
+    private void forget(EntityId entityId) {
+        reads.forget(entityId);
+        cache.invalidate(entityId);
+    }
+
+    private boolean coalesceReads(String databaseName) {
+        return coalescedDatabases.computeIfAbsent(databaseName, ClientConfiguration.adapt(config)::coalesceReads);
+    }
+
+    private CompletableFuture<Entity> submitRead(SessionToken token, EntityId entityId, String username, long start, long timeout,
+                                                 TimeUnit unit) {
+        String databaseName = entityId.databaseId().asString();
+        return submitPatch(username, Patch.read(entityId), null, "read", timeout, unit, response -> {
+            logger.trace("Received response from reading entity '{}'", entityId);
+            EntityId id = Message.getEntityId(response);
+            Document representation = Message.getAfter(response);
+            cache.put(id, representation, Message.getEnded(response));
+            if (representation != null) {
+                logUsage(token, databaseName, duration(start), "readEntity", "found", true);
+                logger.trace("Successfully read entity '{}'", entityId);
+            } else {
+                logUsage(token, databaseName, duration(start), "readEntity", "found", false);
+                logger.trace("Unable to find entity '{}'", entityId);
+            }
+            return new DbzEntity(id, representation);
+        }, () -> new DebeziumTimeoutException("The request to read entity '" + entityId + "' timed out"));
+    }
+
+    private CompletableFuture<Entity> submitProjectedRead(SessionToken token, EntityId entityId, Collection<String> paths,
+                                                          String username, long start, long timeout, TimeUnit unit) {
+        String databaseName = entityId.databaseId().asString();
+        return submitPatch(username, Patch.read(entityId), paths, "read", timeout, unit, response -> {
+            logger.trace("Received response from reading paths of entity '{}'", entityId);
+            Document representation = Message.getAfter(response);
+            logUsage(token, databaseName, duration(start), "readEntity", "found", representation != null);
+            return new DbzEntity(Message.getEntityId(response), representation, false);
+        }, () -> new DebeziumTimeoutException("The request to read entity '" + entityId + "' timed out"));
+    }
+
+    /**
+     * Submit the patch for a single entity, either as its own request or, if the entity's database is
+     * {@link ClientConfiguration#microBatch(String) micro-batched}, as a part of a batch with other patches submitted by the same
+     * user at about the same time. Reads of only some parts of an entity are always submitted as their own request.
+     * 
+     * @param username the name of the user; may not be null
+     * @param patch the patch; may not be null
+     * @param projection the paths of the parts of the entity to be returned by a read, or null if the whole entity is needed
+     * @param action the name of the action, for logging and error messages; may not be null
+     * @param timeout the maximum amount of time to wait for the response
+     * @param unit the timeout unit; may not be null
+     * @param responder the function that converts the response; may not be null
+     * @param timedOut the function that creates the exception when the request times out; may not be null
+     * @return the future result; never null
+     */
+    private <R> CompletableFuture<R> submitPatch(String username, Patch<EntityId> patch, Collection<String> projection,
+                                                 String action, long timeout, TimeUnit unit, Responder<R> responder,
+                                                 Supplier<? extends RuntimeException> timedOut) {
+        EntityId entityId = patch.target();
+        if (projection == null && microBatch(entityId.databaseId().asString())) {
+            logger.trace("Adding request to {} entity '{}' to the next batch", action, entityId);
+            PendingPatch<R> pending = new PendingPatch<>(patch, unit.toNanos(timeout), responder, timedOut);
+            batcher.add(new BatchKey(username, entityId.databaseId()), pending);
+            return pending.future;
+        }
+        return partialResponses.<R> submitAsync(requestId -> {
+            logger.trace("Attempting to submit request to {} entity '{}'", action, entityId);
+            Document request = patch.asDocument();
+            requestId.addHeaders(request, username);
+            if (projection != null) Message.setProjection(request, projection);
+            if (!patch.isReadRequest()) {
+                // A destroy is successful only if the response has the representation before the change ...
+                Message.setIncludeBefore(request, includeBefore || patch.isDeletion());
+                Message.setIncludeAfter(request, includeAfter);
+            }
+            if (!node.send(Topic.ENTITY_PATCHES, entityId.asString(), request)) {
+                throw new DebeziumClientException("Unable to send request to " + action + " entity '" + entityId + "'");
+            }
+        }, timeout, unit, responder, timedOut);
+    }
+
+    private boolean microBatch(String databaseName) {
+        return microBatchedDatabases.computeIfAbsent(databaseName, ClientConfiguration.adapt(config)::microBatch);
+    }
+
+    /**
+     * Submit as one batch the patches that were collected by the {@link MicroBatcher}, and complete each patch's future with the
+     * partial response for its part of the batch.
+     * 
+     * @param key the user and database of the patches; never null
+     * @param parts the pending patches; never null or empty
+     */
+    private void submitMicroBatch(BatchKey key, List<PendingPatch<?>> parts) {
+        Batch.Builder<EntityId> builder = Batch.create();
+        long timeoutInNanos = 0L;
+        boolean before = includeBefore;
+        for (PendingPatch<?> part : parts) {
+            builder.patch(part.patch);
+            if (part.patch.isDeletion()) before = true;
+            // Wait as long as the most patient caller ...
+            timeoutInNanos = Math.max(timeoutInNanos, part.timeoutInNanos);
+        }
+        Batch<EntityId> batch = builder.build();
+        int count = parts.size();
+        String dbId = key.databaseId.asString();
+        logger.debug("Submitting micro-batch with {} patches against database '{}'", count, dbId);
+        Consumer<RequestId> sender = sendBatch(batch, key.username, dbId, before, includeAfter);
+        try {
+            partialResponses.submitAsync(count, sender, timeoutInNanos, TimeUnit.NANOSECONDS,
+                                         response -> {
+                                             // Parts are numbered from 1 in the order they were added to the batch ...
+                                             int part = Message.getPart(response, 0);
+                                             if (part > 0 && part <= count) parts.get(part - 1).complete(response);
+                                         }, () -> {
+                                             return new DebeziumTimeoutException("The request timed out while submitting batch with "
+                                                     + count + " patches against database: " + dbId);
+                                         }).whenComplete((result, error) -> {
+                                             if (error != null) parts.forEach(part -> part.fail(error));
+                                         });
+        } catch (RuntimeException e) {
+            parts.forEach(part -> part.fail(e));
+        }
+    }
+
     @Override
     public EntityChange changeEntity(SessionToken token, Patch<EntityId> patch, long timeout, TimeUnit unit) {
+        return await(changeEntityAsync(token, patch, timeout, unit));
+    }
+
+    private CompletableFuture<EntityChange> changeEntityAsync(SessionToken token, Patch<EntityId> patch, long timeout, TimeUnit unit) {
         return node.whenRunning(() -> {
             long start = clock.currentTimeInNanos();
             // Check the privilege first ...
@@ -183,23 +457,18 @@ final class DbzDriver implements Debezium {
                 throw new DebeziumAuthorizationException("Unable to change entity '" + entityId + "'");
             }
             logger.debug("Attempting to change entity '{}' with patch: {}", entityId, patch);
-            return partialResponses.submit(EntityChange.class, requestId -> {
-                logger.trace("Attempting to submit request to change entity '{}'", entityId);
-                Document request = patch.asDocument();
-                Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), username);
-                if (!node.send(Topic.ENTITY_PATCHES, entityId.asString(), request)) {
-                    throw new DebeziumClientException("Unable to send request to change entity '" + entityId + "'");
-                }
-            }).onResponse(timeout, unit, response -> {
+            if (!patch.isReadRequest()) forget(entityId);
+            return this.<EntityChange> submitPatch(username, patch, null, "change", timeout, unit, response -> {
                 logger.trace("Received response from changing entity '{}'", entityId);
                 EntityId id = Message.getEntityId(response);
-                Document representation = Message.getAfterOrBefore(response);
+                Document representation = representation(response);
                 ChangeStatus status = null;
                 Collection<String> failureReasons = null;
                 switch (Message.getStatus(response)) {
                     case SUCCESS:
                         status = ChangeStatus.OK;
                         failureReasons = Message.getFailureReasons(response);
+                        if (!patch.isReadRequest()) cache.put(id, representation, Message.getEnded(response));
                         logUsage(token, databaseName, duration(start), "changeEntity", "found", true, "changed", true);
                         logger.trace("Successfully changed entity '{}'", id);
                         break;
@@ -216,16 +485,18 @@ final class DbzDriver implements Debezium {
                         logger.trace("Unable to find entity '{}'", id);
                         break;
                 }
-                Entity entity = new DbzEntity(id, representation);
+                Entity entity = new DbzEntity(id, representation, Message.includeAfter(response));
                 return new DbzEntityChange(patch, entity, status, failureReasons);
-            }).onTimeout(() -> {
-                throw new DebeziumTimeoutException("The request to change entity '" + entityId + "' timed out");
-            });
+            }, () -> new DebeziumTimeoutException("The request to change entity '" + entityId + "' timed out"));
         }).orElseThrow(this::notRunning);
     }
 
     @Override
     public boolean destroyEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit) {
+        return await(destroyEntityAsync(token, entityId, timeout, unit));
+    }
+
+    private CompletableFuture<Boolean> destroyEntityAsync(SessionToken token, EntityId entityId, long timeout, TimeUnit unit) {
         return node.whenRunning(() -> {
             long start = clock.currentTimeInNanos();
             // Check the privilege first ...
@@ -236,14 +507,8 @@ final class DbzDriver implements Debezium {
                 throw new DebeziumAuthorizationException("Unable to destroy entity '" + entityId + "'");
             }
             logger.debug("Attempting to destroy entity '{}'", entityId);
-            return partialResponses.submit(Boolean.class, requestId -> {
-                logger.trace("Attempting to submit request to destroy entity '{}'", entityId);
-                Document request = Patch.destroy(entityId).asDocument();
-                Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), username);
-                if (!node.send(Topic.ENTITY_PATCHES, entityId.asString(), request)) {
-                    throw new DebeziumClientException("Unable to send request to read entity '" + entityId + "'");
-                }
-            }).onResponse(timeout, unit, response -> {
+            forget(entityId);
+            return this.<Boolean> submitPatch(username, Patch.destroy(entityId), null, "destroy", timeout, unit, response -> {
                 logger.trace("Received response from destroying entity '{}'", entityId);
                 EntityId id = Message.getEntityId(response);
                 if (Message.getBefore(response) != null) {
@@ -254,9 +519,7 @@ final class DbzDriver implements Debezium {
                 logUsage(token, databaseName, duration(start), "destroyEntity", "succeed", false);
                 logger.trace("Unable to find and destroy entity '{}'", id);
                 return false;
-            }).onTimeout(() -> {
-                throw new DebeziumTimeoutException("The request to destroy '" + entityId + "' timed out");
-            });
+            }, () -> new DebeziumTimeoutException("The request to destroy '" + entityId + "' timed out"));
         }).orElseThrow(this::notRunning);
     }
 
@@ -264,6 +527,8 @@ final class DbzDriver implements Debezium {
     public BatchBuilder batch() {
         return new BatchBuilder() {
             private final Batch.Builder<EntityId> batchBuilder = Batch.create();
+            private boolean before = includeBefore;
+            private boolean after = includeAfter;
 
             @Override
             public BatchBuilder readEntity(EntityId entityId) {
@@ -340,65 +605,147 @@ final class DbzDriver implements Debezium {
                 batchBuilder.remove(entityId);
                 return this;
             }
+
+            @Override
+            public BatchBuilder includeInResponses(boolean before, boolean after) {
+                this.before = before;
+                this.after = after;
+                return this;
+            }
             
             @Override
             public BatchResult submit(SessionToken token, long timeout, TimeUnit unit) {
-                return submitBatch(token, batchBuilder.build(), timeout, unit); // resets batch builder each time
+                Map<String, Entity> reads = new HashMap<>();
+                Map<String, EntityChange> changes = new HashMap<>();
+                Set<String> destroys = new HashSet<>();
+                try (BatchResultStream results = stream(token, timeout, unit)) {
+                    results.forEachRemaining(result -> {
+                        reads.putAll(result.reads());
+                        changes.putAll(result.changes());
+                        destroys.addAll(result.removals());
+                    });
+                }
+                return new DbzBatchResult(reads, changes, destroys);
             }
+
+            @Override
+            public BatchResultStream stream(SessionToken token, long timeout, TimeUnit unit) {
+                return streamBatch(token, batchBuilder.build(), before, after, timeout, unit); // resets batch builder each time
+            }
+
+            @Override
+            public CompletableFuture<BatchResult> submitAsync(SessionToken token, long timeout, TimeUnit unit) {
+                Batch<EntityId> batch = batchBuilder.build(); // resets batch builder each time
+                boolean before = this.before;
+                boolean after = this.after;
+                return async(() -> submitBatchAsync(token, batch, before, after, timeout, unit));
+            }
+        };
+    }
+
+    private String checkBatch(CompositeAction check, Batch<EntityId> batch) {
+        batch.forEach(patch -> {
+            String dbId = patch.target().databaseId().asString();
+            if (patch.isReadRequest()) check.canRead(dbId);
+            else if (patch.isDeletion()) check.canWrite(dbId);
+            else if (patch.isEmpty()) {}
+            else check.canWrite(dbId);
+            if (!patch.isReadRequest()) forget(patch.target());
+        });
+        String username = check.submit();
+        if (username == null) {
+            throw new DebeziumAuthorizationException("Unable to submit batch against database(s) " + check);
+        }
+        return username;
+    }
+
+    private Consumer<RequestId> sendBatch(Batch<EntityId> batch, String username, Object databases, boolean before,
+                                          boolean after) {
+        return requestId -> {
+            Document request = batch.asDocument();
+            requestId.addHeaders(request, username);
+            // The batch service copies these to each patch ...
+            Message.setIncludeBefore(request, before || batch.stream().anyMatch(Patch::isDeletion));
+            Message.setIncludeAfter(request, after);
+            // Send in the background, so the caller can prepare the next request while this one is sent ...
+            node.sendAsync(Topic.ENTITY_BATCHES, requestId.asString(), request).thenAccept(sent -> {
+                if (!sent) {
+                    partialResponses.fail(requestId, new DebeziumClientException("Unable to send batch with " + batch.patchCount()
+                            + " patches against database(s) " + databases));
+                }
+            });
         };
     }
 
-    private BatchResult submitBatch(SessionToken token, Batch<EntityId> batch, long timeout, TimeUnit unit) {
+    private BatchResultStream streamBatch(SessionToken token, Batch<EntityId> batch, boolean before, boolean after, long timeout,
+                                          TimeUnit unit) {
         return node.whenRunning(() -> {
             long start = clock.currentTimeInNanos();
             // Check the privilege first ...
             CompositeAction check = env.getSecurity().check(token);
-            batch.forEach(patch -> {
-                String dbId = patch.target().databaseId().asString();
-                if (patch.isReadRequest()) check.canRead(dbId);
-                else if (patch.isDeletion()) check.canWrite(dbId);
-                else if (patch.isEmpty()) {}
-                else check.canWrite(dbId);
-            });
-            String username = check.submit();
-            if (username == null) {
-                throw new DebeziumAuthorizationException("Unable to submit batch against database(s) " + check);
-            }
+            String username = checkBatch(check, batch);
+            int count = batch.patchCount();
+            logger.debug("Attempting to submit batch with {} patches against database(s): {}", count, check);
+            PartialResponseStream responses = partialResponses.stream(count, sendBatch(batch, username, check, before, after));
+            return new DbzBatchResultStream(responses, DbzDriver::batchResult, timeout, unit, () -> {
+                return new DebeziumTimeoutException("The request timed out while submitting batch with " + count
+                        + " patches against database(s): " + check);
+            }, () -> logUsage(token, null, duration(start), "submitBatch", "parts", count));
+        }).orElseThrow(DebeziumClientException::new);
+    }
+
+    private CompletableFuture<BatchResult> submitBatchAsync(SessionToken token, Batch<EntityId> batch, boolean before, boolean after,
+                                                            long timeout, TimeUnit unit) {
+        return node.whenRunning(() -> {
+            long start = clock.currentTimeInNanos();
+            // Check the privilege first ...
+            CompositeAction check = env.getSecurity().check(token);
+            String username = checkBatch(check, batch);
             int count = batch.patchCount();
             Map<String, Entity> reads = new ConcurrentHashMap<>();
             Map<String, EntityChange> changes = new ConcurrentHashMap<>();
-            Set<String> destroys = new HashSet<>();
+            Set<String> destroys = ConcurrentHashMap.newKeySet();
             logger.debug("Attempting to submit batch with {} patches against database(s): {}", count, check);
-            partialResponses.submit(count, requestId -> {
-                Document request = batch.asDocument();
-                Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), username);
-                if (!node.send(Topic.ENTITY_BATCHES, requestId.asString(), request)) {
-                    throw new DebeziumClientException("Unable to send batch with " + count + " patches against database(s) " + check);
-                }
-            }).onEachResponse(timeout, unit, response -> {
-                EntityId id = Message.getEntityId(response);
-                Document representation = Message.getAfterOrBefore(response);
-                Patch<EntityId> patch = Patch.forEntity(response);
-                if ( patch == null ) {
-                    // We read the entity ...
-                    reads.put(id.asString(), new DbzEntity(id, representation));
-                } else if ( patch.isDeletion() ) {
-                    destroys.add(id.asString());
-                } else {
-                    Entity entity = new DbzEntity(id, representation);
-                    ChangeStatus status = changeStatus(Message.getStatus(response));
-                    Collection<String> failureReasons = Message.getFailureReasons(response);
-                    changes.put(id.asString(), new DbzEntityChange(patch, entity, status, failureReasons));
-                }
-            }).onTimeout(() -> {
-                throw new DebeziumTimeoutException("The request timed out while submitting batch with " + count
+            return partialResponses.submitAsync(count, sendBatch(batch, username, check, before, after), timeout, unit, response -> {
+                BatchResult result = batchResult(response);
+                reads.putAll(result.reads());
+                changes.putAll(result.changes());
+                destroys.addAll(result.removals());
+            }, () -> {
+                return new DebeziumTimeoutException("The request timed out while submitting batch with " + count
                         + " patches against database(s): " + check);
+            }).<BatchResult> thenApply(v -> {
+                logUsage(token, null, duration(start), "submitBatch", "parts", count);
+                return new DbzBatchResult(reads, changes, destroys);
             });
-            logUsage(token, null, duration(start), "submitBatch", "parts", count);
-            return new DbzBatchResult(reads, changes, destroys);
         }).orElseThrow(DebeziumClientException::new);
     }
 
+    private static BatchResult batchResult(Document response) {
+        EntityId id = Message.getEntityId(response);
+        Document representation = representation(response);
+        Patch<EntityId> patch = Patch.forEntity(response);
+        if (patch == null) {
+            // We read the entity ...
+            Entity entity = new DbzEntity(id, representation);
+            return new DbzBatchResult(Collections.singletonMap(id.asString(), entity), Collections.emptyMap(), Collections.emptySet());
+        }
+        if (patch.isDeletion()) {
+            return new DbzBatchResult(Collections.emptyMap(), Collections.emptyMap(), Collections.singleton(id.asString()));
+        }
+        Entity entity = new DbzEntity(id, representation, Message.includeAfter(response));
+        ChangeStatus status = changeStatus(Message.getStatus(response));
+        Collection<String> failureReasons = Message.getFailureReasons(response);
+        EntityChange change = new DbzEntityChange(patch, entity, status, failureReasons);
+        return new DbzBatchResult(Collections.emptyMap(), Collections.singletonMap(id.asString(), change), Collections.emptySet());
+    }
+
+    private static Document representation(Document response) {
+        // A successful change has no representation if the client did not ask for it ...
+        if (Message.getStatus(response) == Message.Status.SUCCESS) return Message.getAfter(response);
+        return Message.getAfterOrBefore(response);
+    }
+
     private static ChangeStatus changeStatus(Message.Status messageStatus) {
         switch (messageStatus) {
             case SUCCESS:
@@ -411,6 +758,45 @@ final class DbzDriver implements Debezium {
         throw new IllegalStateException("Unknown status: " + messageStatus);
     }
 
+    @Override
+    public AsyncDebezium async() {
+        return asyncDriver;
+    }
+
+    /**
+     * Call the function that asynchronously submits a request, and return a future that reports any exception thrown by the
+     * function (e.g., when the user is not authorized).
+     * 
+     * @param function the function that submits the request; may not be null
+     * @return the future result; never null
+     */
+    private static <R> CompletableFuture<R> async(Supplier<CompletableFuture<R>> function) {
+        try {
+            return function.get();
+        } catch (RuntimeException e) {
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * Block until the future is completed, and rethrow the exception that caused the future to fail.
+     * 
+     * @param future the future; may not be null
+     * @return the result; may be null
+     */
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
     @Override
     public void shutdown(long timeout, TimeUnit unit) {
         // Shutdown the cluster node, which shuts down all services and the service manager ...
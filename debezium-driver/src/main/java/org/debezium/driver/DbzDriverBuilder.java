@@ -123,12 +123,56 @@ final class DbzDriverBuilder implements Builder {
         return this;
     }
     
+    @Override
+    public DbzDriverBuilder responsePartition(int partition) {
+        props.setProperty("response.partition", Integer.toString(partition));
+        return this;
+    }
+
     @Override
     public DbzDriverBuilder responseMaxBacklog(int count) {
         props.setProperty("response.max.backlog", Integer.toString(count));
         return this;
     }
 
+    @Override
+    public DbzDriverBuilder coalesceReads(String databaseId, boolean coalesce) {
+        props.setProperty("coalesce.reads." + databaseId, Boolean.toString(coalesce));
+        return this;
+    }
+
+    @Override
+    public DbzDriverBuilder microBatch(String databaseId, boolean batch) {
+        props.setProperty("micro.batch." + databaseId, Boolean.toString(batch));
+        return this;
+    }
+
+    @Override
+    public DbzDriverBuilder microBatchWindow(long linger, TimeUnit unit, int maxSize) {
+        props.setProperty("micro.batch.linger.ms", Long.toString(unit.toMillis(linger)));
+        props.setProperty("micro.batch.max.size", Integer.toString(maxSize));
+        return this;
+    }
+
+    @Override
+    public DbzDriverBuilder cacheEntities(String databaseId, int maxEntities) {
+        props.setProperty("entity.cache.size." + databaseId, Integer.toString(maxEntities));
+        return this;
+    }
+
+    @Override
+    public DbzDriverBuilder entityCacheMaxAge(long maxAge, TimeUnit unit) {
+        props.setProperty("entity.cache.max.age.ms", Long.toString(unit.toMillis(maxAge)));
+        return this;
+    }
+
+    @Override
+    public DbzDriverBuilder includeInWriteResponses(boolean before, boolean after) {
+        props.setProperty("responses.include.before", Boolean.toString(before));
+        props.setProperty("responses.include.after", Boolean.toString(after));
+        return this;
+    }
+
     @Override
     public DbzDriverBuilder initializeProducerImmediately(boolean immediately) {
         props.setProperty("initialize.producers", Boolean.toString(immediately));
@@ -177,7 +221,8 @@ final class DbzDriverBuilder implements Builder {
         }
         if ( scheduledExecutorFactory == null ) {
             ThreadFactory scheduledThreadFactory = new NamedThreadFactory("debezium", "timer", true);
-            scheduledExecutorFactory = ()-> Executors.newScheduledThreadPool(0, scheduledThreadFactory);
+            // One timer thread runs the periodic tasks, including advancing the wheel of request timeouts ...
+            scheduledExecutorFactory = ()-> Executors.newScheduledThreadPool(1, scheduledThreadFactory);
         }
         if ( busFactory == null ) {
             busFactory = (execSupplier) -> new KafkaMessageBus(config, execSupplier);
@@ -5,10 +5,11 @@
  */
 package org.debezium.driver;
 
+import java.util.Objects;
+
 import org.debezium.core.annotation.Immutable;
 import org.debezium.core.component.EntityId;
 import org.debezium.core.doc.Document;
-import org.fest.util.Objects;
 
 /**
  * A representation of an {@link Entity} that may or may not exist.
@@ -19,11 +20,17 @@ final class DbzEntity implements Entity {
 
     private final EntityId id;
     private final Document doc;
+    private final boolean complete;
     
     public DbzEntity( EntityId id, Document doc ) {
+        this(id, doc, true);
+    }
+    
+    public DbzEntity( EntityId id, Document doc, boolean complete ) {
         assert id != null;
         this.id = id;
         this.doc = doc;
+        this.complete = complete;
     }
 
     @Override
@@ -41,6 +48,11 @@ final class DbzEntity implements Entity {
         return doc;
     }
     
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+    
     @Override
     public int hashCode() {
         return id.hashCode();
@@ -51,7 +63,7 @@ final class DbzEntity implements Entity {
         if ( obj == this ) return true;
         if ( obj instanceof Entity ) {
             Entity that = (Entity)obj;
-            return this.id.equals(that.id()) && Objects.areEqual(this.doc, that.asDocument());
+            return this.id.equals(that.id()) && Objects.equals(this.doc, that.asDocument());
         }
         return false;
     }
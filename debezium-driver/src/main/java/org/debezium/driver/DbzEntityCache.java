@@ -0,0 +1,212 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+import org.debezium.core.annotation.ThreadSafe;
+import org.debezium.core.component.EntityId;
+import org.debezium.core.component.Identifier;
+import org.debezium.core.doc.Document;
+import org.debezium.core.message.Message;
+import org.debezium.core.message.Patch;
+import org.debezium.core.message.Topic;
+import org.debezium.driver.DbzNode.Service;
+
+/**
+ * The service that keeps a bounded cache of recently read entities, so that reads of those entities can be answered without a
+ * request. Each database has its own least-recently-used cache, and the databases whose {@link ClientConfiguration#getEntityCacheSize(String)
+ * cache size} is 0 are not cached.
+ * <p>
+ * The cached entities are kept up to date by reading the {@value Topic#ENTITY_UPDATES} topic, but only entities that are already
+ * in the cache are updated. Each cached entity records the {@link Message#getEnded(Document) time} at which its representation
+ * was produced, and a representation is never replaced by an older one. Because the updates are read asynchronously, a cached
+ * entity is used only until it reaches the maximum age, after which it must be read again.
+ *
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class DbzEntityCache extends Service {
+
+    private static final class Cached {
+        private final Document representation;
+        private final long version;
+        private final long refreshed;
+
+        Cached(Document representation, long version, long refreshed) {
+            this.representation = representation;
+            this.version = version;
+            this.refreshed = refreshed;
+        }
+    }
+
+    private static final class Segment {
+        private final Map<String, Cached> entities;
+
+        Segment(int capacity) {
+            this.entities = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+
+    private static final Segment NOT_CACHED = new Segment(0);
+
+    private final ConcurrentMap<String, Segment> segments = new ConcurrentHashMap<>();
+    private final ToIntFunction<String> capacity;
+    private final long maxAgeInNanos;
+    private final LongSupplier nanoClock;
+    private final boolean enabled;
+
+    DbzEntityCache(ClientConfiguration config) {
+        this(config::getEntityCacheSize, config.getEntityCacheMaxAgeInMillis(), TimeUnit.MILLISECONDS, config.isEntityCacheEnabled(),
+             System::nanoTime);
+    }
+
+    DbzEntityCache(ToIntFunction<String> capacity, long maxAge, TimeUnit unit, boolean enabled, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.maxAgeInNanos = unit.toNanos(maxAge);
+        this.enabled = enabled;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public String getName() {
+        return "entity-cache";
+    }
+
+    @Override
+    protected void onStart(DbzNode node) {
+        if (!enabled) return;
+        logger().debug("Starting entity cache. Subscribing to '{}'...", Topic.ENTITY_UPDATES);
+        // We use a unique group ID so that we see *all* the updates ...
+        String groupId = "entity-cache-" + node.id();
+        node.subscribe(groupId, DbzTopics.of(Topic.ENTITY_UPDATES), 1, (topic, partition, offset, key, msg) -> {
+            update(Identifier.parseEntityId(key), msg);
+            return true;
+        });
+    }
+
+    @Override
+    protected void beginShutdown(DbzNode node) {
+    }
+
+    @Override
+    protected void completeShutdown(DbzNode node) {
+        segments.clear();
+    }
+
+    /**
+     * Get the cached entity with the given identifier.
+     *
+     * @param entityId the entity identifier; may not be null
+     * @return a copy of the cached entity, or null if the entity is not cached or its cached representation is too old
+     */
+    public Entity get(EntityId entityId) {
+        Segment segment = segment(entityId);
+        if (segment == NOT_CACHED) return null;
+        Cached cached = null;
+        synchronized (segment) {
+            cached = segment.entities.get(entityId.asString());
+        }
+        if (cached == null || nanoClock.getAsLong() - cached.refreshed >= maxAgeInNanos) return null;
+        // The caller may modify the entity's document ...
+        return new DbzEntity(entityId, cached.representation.clone());
+    }
+
+    /**
+     * Cache the representation of an entity that was read or changed by this client.
+     *
+     * @param entityId the entity identifier; may not be null
+     * @param representation the entity's representation, which is copied; may be null if the entity does not exist
+     * @param version the {@link Message#getEnded(Document) time} at which the representation was produced
+     */
+    public void put(EntityId entityId, Document representation, long version) {
+        Segment segment = segment(entityId);
+        if (segment == NOT_CACHED) return;
+        if (representation == null) {
+            invalidate(entityId);
+            return;
+        }
+        Cached cached = new Cached(representation.clone(), version, nanoClock.getAsLong());
+        synchronized (segment) {
+            Cached existing = segment.entities.get(entityId.asString());
+            if (existing == null || existing.version <= version) segment.entities.put(entityId.asString(), cached);
+        }
+    }
+
+    /**
+     * Remove an entity from the cache, so that it must be read again.
+     *
+     * @param entityId the entity identifier; may not be null
+     */
+    public void invalidate(EntityId entityId) {
+        Segment segment = segment(entityId);
+        if (segment == NOT_CACHED) return;
+        synchronized (segment) {
+            segment.entities.remove(entityId.asString());
+        }
+    }
+
+    /**
+     * Apply a message from the {@value Topic#ENTITY_UPDATES} topic to the entity, if it is cached.
+     *
+     * @param entityId the entity identifier; may not be null
+     * @param update the update message; may not be null
+     */
+    void update(EntityId entityId, Document update) {
+        Segment segment = segment(entityId);
+        if (segment == NOT_CACHED) return;
+        Patch<EntityId> patch = Patch.forEntity(update);
+        Document after = Message.getAfter(update);
+        if (after == null || (patch != null && patch.isDeletion())) {
+            invalidate(entityId);
+            return;
+        }
+        long version = Message.getEnded(update);
+        String key = entityId.asString();
+        synchronized (segment) {
+            Cached existing = segment.entities.get(key);
+            // Only refresh entities that have been read recently, and never replace a newer representation ...
+            if (existing != null && existing.version <= version) {
+                segment.entities.put(key, new Cached(after, version, nanoClock.getAsLong()));
+            }
+        }
+    }
+
+    /**
+     * Get the number of cached entities in the given database.
+     *
+     * @param databaseId the database identifier; may not be null
+     * @return the number of cached entities; never negative
+     */
+    public int size(String databaseId) {
+        Segment segment = segments.get(databaseId);
+        if (segment == null) return 0;
+        synchronized (segment) {
+            return segment.entities.size();
+        }
+    }
+
+    private Segment segment(EntityId entityId) {
+        if (!enabled) return NOT_CACHED;
+        return segments.computeIfAbsent(entityId.databaseId().asString(), dbId -> {
+            int size = capacity.applyAsInt(dbId);
+            return size > 0 ? new Segment(size) : NOT_CACHED;
+        });
+    }
+}
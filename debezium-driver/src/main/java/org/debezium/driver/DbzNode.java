@@ -7,8 +7,10 @@ package org.debezium.driver;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
@@ -145,6 +147,7 @@ final class DbzNode {
     private final Lock runningLock = new ReentrantLock();
     private final Logger logger = DbzNode.logger(getClass());
     private volatile boolean running = false;
+    private volatile PipelinedProducer pipeline;
 
     DbzNode(Configuration config, Environment env ) {
         this.config = config;
@@ -328,6 +331,11 @@ final class DbzNode {
     public void start() {
         whenNotRunning(() -> {
             this.running = true;
+            // Start the thread that sends the messages produced with 'sendAsync' ...
+            ClientConfiguration clientConfig = ClientConfiguration.adapt(config);
+            this.pipeline = new PipelinedProducer(() -> messageBus.get().producer(), clientConfig.getSendLingerInMillis(),
+                    TimeUnit.MILLISECONDS, clientConfig.getSendBatchSize(), clientConfig.getSendMaxInFlightBytes());
+            this.executor.get().execute(pipeline);
             this.startListeners.forEach(Callable::call);
         });
     }
@@ -350,7 +358,10 @@ final class DbzNode {
                 } finally {
                     scheduledTasks.clear();
                     try {
-                        // Shutdown the producer if it was accessed ...
+                        // Send the messages that were already accepted, and then shutdown the producer if it was accessed ...
+                        if (pipeline != null && !pipeline.close(10, TimeUnit.SECONDS)) {
+                            logger.warn("Timed out waiting for messages to be sent");
+                        }
                         messageBus.get().shutdown();
                     } finally {
                         postShutdownListeners.forEach(Callable::call);
@@ -417,6 +428,24 @@ final class DbzNode {
         return send(topic, partitionKey, Serdes.stringToBytes(key), Serdes.documentToBytes(doc));
     }
 
+    /**
+     * Asynchronously send the document as a message on the named topic using the given key for the message. The document is
+     * serialized on the calling thread, but it is sent on a separate thread so that the caller can prepare the next message.
+     * This method blocks only when too many bytes are already waiting to be sent.
+     * 
+     * @param topic the name of the topic; may not be null
+     * @param key the key for the message; may not be null
+     * @param doc the message document; may not be null
+     * @return the future that is completed with {@code true} if message was sent, or {@code false} otherwise; never null
+     */
+    public CompletableFuture<Boolean> sendAsync(String topic, String key, Document doc) {
+        KeyedMessage<byte[], byte[]> message = new KeyedMessage<>(topic, Serdes.stringToBytes(key), null,
+                Serdes.documentToBytes(doc));
+        PipelinedProducer pipeline = this.pipeline;
+        if (pipeline == null) return CompletableFuture.completedFuture(messageBus.get().producer().send(message));
+        return pipeline.send(message);
+    }
+
     /**
      * Send the binary array as a message on the named topic using the given key for the message.
      * 
@@ -486,6 +515,48 @@ final class DbzNode {
         messageBus.get().subscribe(groupId, topicFilter, numThreads, keyDecoder, messageDecoder, consumer);
     }
     
+    /**
+     * Subscribe to a single partition of a topic, consuming only the messages added to the partition after subscribing.
+     * 
+     * @param groupId the identifier of the consumer's group; may not be null
+     * @param topic the name of the topic; may not be null
+     * @param partition the partition number
+     * @param consumer the consumer; may not be null
+     */
+    public void subscribe(String groupId, String topic, int partition, MessageConsumer<String, Document> consumer) {
+        logger.debug("NODE: subscribing {} in group '{}' to partition {} of topic '{}'", consumer, groupId, partition, topic);
+        messageBus.get().subscribe(groupId, topic, partition, Serdes::bytesToString, Serdes::bytesToDocument, consumer);
+    }
+
+    /**
+     * Get the number of partitions in the named topic.
+     * 
+     * @param topic the name of the topic; may not be null
+     * @return the number of partitions, or 0 if the number of partitions is not known
+     */
+    public int partitionCount(String topic) {
+        return messageBus.get().partitionCount(topic);
+    }
+
+    /**
+     * Get the number of messages consumed by this node's subscriptions whose offsets have not yet been committed.
+     * 
+     * @return the number of uncommitted messages; never negative
+     */
+    public long uncommittedMessageCount() {
+        return messageBus.get().uncommittedMessageCount();
+    }
+
+    /**
+     * Get the commit lag of each partition consumed by this node's subscriptions.
+     * 
+     * @return the number of consumed but uncommitted offsets keyed by "{@code groupId/topic/partition}"; never null
+     * @see MessageBus#commitLag()
+     */
+    public Map<String, Long> commitLag() {
+        return messageBus.get().commitLag();
+    }
+
     /**
      * Call the supplied runnable using this node's {@link Executor executor}.
      * 
@@ -6,28 +6,37 @@
 package org.debezium.driver;
 
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.debezium.core.doc.Document;
+import org.debezium.core.message.Message;
 import org.debezium.core.message.Topic;
 import org.debezium.driver.DbzNode.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * The service that reads the partial responses sent to this client and forwards each one to the receiver registered for its
+ * request. Receivers are registered by {@link RequestId#getRequestNumber() request number}, and the timeouts of non-blocking
+ * requests are tracked with a {@link TimingWheel} that is advanced every {@value #TICK_MS} milliseconds by the node's scheduled
+ * executor.
+ * 
  * @author Randall Hauch
  *
  */
 final class DbzPartialResponses extends Service {
 
+    private static final long TICK_MS = 10L;
+    private static final int TICKS_PER_WHEEL = 512;
+
     /**
      * Function that should be implemented to process a response document.
      * 
@@ -96,6 +105,45 @@ final class DbzPartialResponses extends Service {
         public TimeoutHandler<Void> onEachResponse(long timeout, TimeUnit unit, PartialResponder responder);
     }
 
+    /**
+     * An object returned from {@link DbzPartialResponses#stream(int, Consumer)}, from which the caller pulls each of the
+     * partial responses as they arrive. The caller should always {@link #close() close} the stream, which stops accepting
+     * any partial responses that have not yet been pulled.
+     */
+    public static interface PartialResponseStream extends AutoCloseable {
+        /**
+         * Get the number of partial responses that have not yet been pulled from this stream.
+         * 
+         * @return the number of remaining partial responses; never negative
+         */
+        public int remaining();
+
+        /**
+         * Wait for and return the next partial response.
+         * 
+         * @param timeout the maximum amount of time to block for the partial response
+         * @param unit the timeout unit; may not be null
+         * @return the next partial response, or null if there are no {@link #remaining() remaining} responses, if this
+         *         stream was closed, or if the operation timed out or was interrupted
+         * @throws RuntimeException if the request {@link DbzPartialResponses#fail(RequestId, RuntimeException) failed}
+         */
+        public Document poll(long timeout, TimeUnit unit);
+
+        /**
+         * Determine whether this stream has been {@link #close() closed}.
+         * 
+         * @return {@code true} if this stream was closed, or {@code false} otherwise
+         */
+        public boolean isClosed();
+
+        /**
+         * Stop accepting partial responses and release the resources used by this stream. Any partial responses that arrive
+         * after this method is called are discarded.
+         */
+        @Override
+        public void close();
+    }
+
     /**
      * An object that the caller uses to specify the function they want to be called when the operation times out or is
      * interrupted.
@@ -131,11 +179,20 @@ final class DbzPartialResponses extends Service {
          *         partial responses are expected.
          */
         public boolean acceptResponse(Document doc);
+
+        /**
+         * Stop waiting for responses because the request could not be completed.
+         * 
+         * @param error the exception that describes the failure; never null
+         */
+        default public void fail(RuntimeException error) {
+        }
     }
 
     static final class SingleResponseReceiver<R> implements ResponseReceiver, Response<R> {
         private final RequestId id;
         private final AtomicReference<Document> response = new AtomicReference<>();
+        private final AtomicReference<RuntimeException> error = new AtomicReference<>();
         private final CountDownLatch latch = new CountDownLatch(1);
         private final Runnable uponCompletionOrTimeout;
 
@@ -153,6 +210,7 @@ final class DbzPartialResponses extends Service {
             try {
                 // Wait for the response ...
                 if (latch.await(timeout, unit)) {
+                    if (error.get() != null) throw error.get();
                     // Found a response (runtime exceptions are propagated) ...
                     return normalCompletion(responder.accept(response.get()));
                 }
@@ -177,14 +235,24 @@ final class DbzPartialResponses extends Service {
             latch.countDown();
             return true;
         }
+
+        @Override
+        public void fail(RuntimeException error) {
+            if (this.error.compareAndSet(null, error)) latch.countDown();
+        }
     }
 
-    static final class MultiResponseReceiver implements ResponseReceiver, PartialResponse {
+    private static final Document CLOSED = Document.create();
+
+    static final class MultiResponseReceiver implements ResponseReceiver, PartialResponse, PartialResponseStream {
         private final RequestId id;
         private final int numResponses;
         private final AtomicLong numRemainingResponses;
         private final BlockingQueue<Document> partialResponses;
         private final Runnable uponCompletionOrTimeout;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile RuntimeException error;
+        private int numPulled = 0;
 
         MultiResponseReceiver(RequestId id, int numberOfParts, Runnable uponCompletionOrTimeout) {
             this.id = id;
@@ -201,22 +269,52 @@ final class DbzPartialResponses extends Service {
         @Override
         public TimeoutHandler<Void> onEachResponse(long timeout, TimeUnit unit, PartialResponder responder) {
             try {
-                for (int i = 0; i != numResponses; ++i) {
-                    try {
-                        Document doc = partialResponses.poll(timeout, unit);
-                        if (doc != null) {
-                            responder.accept(doc);
-                        } else {
-                            // timed out
-                            return timedOut();
-                        }
-                    } catch (InterruptedException e) {
-                        Thread.interrupted();
+                while (remaining() != 0) {
+                    Document doc = poll(timeout, unit);
+                    if (doc == null) {
+                        // timed out
                         return timedOut();
                     }
+                    responder.accept(doc);
                 }
                 return normalCompletion(null);
             } finally {
+                close();
+            }
+        }
+
+        @Override
+        public int remaining() {
+            return numResponses - numPulled;
+        }
+
+        @Override
+        public Document poll(long timeout, TimeUnit unit) {
+            if (error != null) throw error;
+            if (remaining() <= 0 || isClosed()) return null;
+            try {
+                Document doc = partialResponses.poll(timeout, unit);
+                if (error != null) throw error;
+                if (doc == null || doc == CLOSED) return null;
+                ++numPulled;
+                return doc;
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+                return null;
+            }
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed.get();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                // Discard the unread responses, and wake up any thread that is waiting for a response ...
+                partialResponses.clear();
+                partialResponses.offer(CLOSED);
                 // Always run the completion function ...
                 try {
                     uponCompletionOrTimeout.run();
@@ -226,15 +324,58 @@ final class DbzPartialResponses extends Service {
             }
         }
 
+        @Override
+        public void fail(RuntimeException error) {
+            this.error = error;
+            close();
+        }
+
         @Override
         public boolean acceptResponse(Document doc) {
+            // Discard any responses that arrive after the caller is no longer interested ...
+            if (isClosed()) return true;
             this.partialResponses.add(doc);
             return this.numRemainingResponses.decrementAndGet() <= 0;
         }
     }
 
+    static final class AsyncResponseReceiver implements ResponseReceiver {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final AtomicLong numRemainingResponses;
+        private final PartialResponder responder;
+
+        AsyncResponseReceiver(int numberOfParts, PartialResponder responder) {
+            this.numRemainingResponses = new AtomicLong(numberOfParts);
+            this.responder = responder;
+        }
+
+        public CompletableFuture<Void> future() {
+            return future;
+        }
+
+        @Override
+        public boolean acceptResponse(Document doc) {
+            if (future.isDone()) return true;
+            try {
+                responder.accept(doc);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                return true;
+            }
+            if (numRemainingResponses.decrementAndGet() > 0) return false;
+            future.complete(null);
+            return true;
+        }
+
+        @Override
+        public void fail(RuntimeException error) {
+            future.completeExceptionally(error);
+        }
+    }
+
     private static final Logger logger = LoggerFactory.getLogger(DbzPartialResponses.class);
-    private final ConcurrentMap<RequestId, ResponseReceiver> receivers = new ConcurrentHashMap<>();
+    private final RequestRegistry<ResponseReceiver> receivers = new RequestRegistry<>();
+    private final TimingWheel timeouts = new TimingWheel(TICK_MS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
     private volatile String clientId;
     private volatile Supplier<RequestId> requestIdSupplier;
 
@@ -249,14 +390,30 @@ final class DbzPartialResponses extends Service {
     @Override
     protected void onStart(DbzNode node) {
         this.clientId = node.id();
-        this.requestIdSupplier = () -> RequestId.create(clientId);
-
+        node.execute(TICK_MS, TICK_MS, TimeUnit.MILLISECONDS, timeouts::advance);
         ClientConfiguration config = ClientConfiguration.adapt(node.getConfiguration());
-        int numReaderThreads = config.getResponseReaderThreadCount();
-
-        // Subscribe to the 'partial-responses' topic with the desired number of threads ...
-        logger.debug("Starting partial response service. Subscribing to '{}'...", Topic.PARTIAL_RESPONSES);
-        node.subscribe(node.id(), DbzTopics.of(Topic.PARTIAL_RESPONSES), numReaderThreads, this::processResponse);
+        int partitionCount = node.partitionCount(Topic.PARTIAL_RESPONSES);
+        if (partitionCount > 0) {
+            // Have all responses to this client sent to a single partition, and read only that partition ...
+            int partition = config.getResponsePartition();
+            if (partition >= partitionCount) {
+                logger.warn("The '{}' topic has only {} partitions, so ignoring the configured response partition {}",
+                            Topic.PARTIAL_RESPONSES, partitionCount, partition);
+                partition = -1;
+            }
+            if (partition < 0) partition = (clientId.hashCode() & Integer.MAX_VALUE) % partitionCount;
+            int responsePartition = partition;
+            this.requestIdSupplier = () -> RequestId.create(clientId, responsePartition);
+            logger.debug("Starting partial response service. Subscribing to partition {} of '{}'...", partition,
+                         Topic.PARTIAL_RESPONSES);
+            node.subscribe(node.id(), Topic.PARTIAL_RESPONSES, partition, this::processResponse);
+        } else {
+            // Otherwise, subscribe to the whole 'partial-responses' topic with the desired number of threads ...
+            this.requestIdSupplier = () -> RequestId.create(clientId);
+            int numReaderThreads = config.getResponseReaderThreadCount();
+            logger.debug("Starting partial response service. Subscribing to '{}'...", Topic.PARTIAL_RESPONSES);
+            node.subscribe(node.id(), DbzTopics.of(Topic.PARTIAL_RESPONSES), numReaderThreads, this::processResponse);
+        }
     }
 
     @Override
@@ -265,34 +422,114 @@ final class DbzPartialResponses extends Service {
 
     @Override
     protected void completeShutdown(DbzNode node) {
+        DebeziumClientException error = new DebeziumClientException("The Debezium driver was shut down");
+        receivers.forEach(receiver -> receiver.fail(error));
     }
 
     public <R> Response<R> submit(Class<R> type, Consumer<RequestId> request) {
         RequestId requestId = requestIdSupplier.get();
-        SingleResponseReceiver<R> response = new SingleResponseReceiver<>(requestId, () -> receivers.remove(requestId));
-        receivers.put(requestId, response);
+        SingleResponseReceiver<R> response = new SingleResponseReceiver<>(requestId, () -> receivers.remove(requestId.getRequestNumber()));
+        receivers.put(requestId.getRequestNumber(), response);
         try {
             request.accept(requestId);
         } catch (RuntimeException e) {
-            receivers.remove(requestId);
+            receivers.remove(requestId.getRequestNumber());
             throw e;
         }
         return response;
     }
 
     public PartialResponse submit(int numberOfParts, Consumer<RequestId> request) {
+        return register(numberOfParts, request);
+    }
+
+    public PartialResponseStream stream(int numberOfParts, Consumer<RequestId> request) {
+        return register(numberOfParts, request);
+    }
+
+    private MultiResponseReceiver register(int numberOfParts, Consumer<RequestId> request) {
         RequestId requestId = requestIdSupplier.get();
-        MultiResponseReceiver response = new MultiResponseReceiver(requestId, numberOfParts, () -> receivers.remove(requestId));
-        receivers.put(requestId, response);
+        MultiResponseReceiver response = new MultiResponseReceiver(requestId, numberOfParts, () -> receivers.remove(requestId.getRequestNumber()));
+        receivers.put(requestId.getRequestNumber(), response);
         try {
             request.accept(requestId);
         } catch (RuntimeException e) {
-            receivers.remove(requestId);
+            receivers.remove(requestId.getRequestNumber());
             throw e;
         }
         return response;
     }
 
+    /**
+     * Submit a request that has a single response, and return a future that is completed (on the thread that reads the response)
+     * with the result of the responder function. This method does not block.
+     * 
+     * @param request the function that submits the request; may not be null
+     * @param timeout the maximum amount of time to wait for the response
+     * @param unit the timeout unit; may not be null
+     * @param responder the function that should be called when the response is received; may not be null
+     * @param timedOut the function that creates the exception used to complete the future if the response is not received
+     *            within the timeout; may not be null
+     * @return the future result; never null
+     */
+    public <R> CompletableFuture<R> submitAsync(Consumer<RequestId> request, long timeout, TimeUnit unit, Responder<R> responder,
+                                                Supplier<? extends RuntimeException> timedOut) {
+        AtomicReference<R> result = new AtomicReference<>();
+        PartialResponder onResponse = response -> result.set(responder.accept(response));
+        return submitAsync(1, request, timeout, unit, onResponse, timedOut).thenApply(v -> result.get());
+    }
+
+    /**
+     * Submit a request that has the given number of partial responses, and return a future that is completed (on the thread that
+     * reads the last partial response) after the responder has been called for each partial response. This method does not
+     * block, and the timeout is enforced by the service's timing wheel rather than by a waiting thread.
+     * 
+     * @param numberOfParts the number of partial responses
+     * @param request the function that submits the request; may not be null
+     * @param timeout the maximum amount of time to wait for all of the partial responses
+     * @param unit the timeout unit; may not be null
+     * @param responder the function that should be called when each of the responses is received; may not be null
+     * @param timedOut the function that creates the exception used to complete the future if the partial responses are not all
+     *            received within the timeout; may not be null
+     * @return the future that is completed after all partial responses have been processed; never null
+     */
+    public CompletableFuture<Void> submitAsync(int numberOfParts, Consumer<RequestId> request, long timeout, TimeUnit unit,
+                                               PartialResponder responder, Supplier<? extends RuntimeException> timedOut) {
+        RequestId requestId = requestIdSupplier.get();
+        AsyncResponseReceiver response = new AsyncResponseReceiver(numberOfParts, responder);
+        CompletableFuture<Void> future = response.future();
+        receivers.put(requestId.getRequestNumber(), response);
+        try {
+            request.accept(requestId);
+        } catch (RuntimeException e) {
+            receivers.remove(requestId.getRequestNumber());
+            throw e;
+        }
+        if (numberOfParts < 1) {
+            receivers.remove(requestId.getRequestNumber());
+            future.complete(null);
+            return future;
+        }
+        TimingWheel.Timeout timer = timeouts.schedule(timeout, unit, () -> future.completeExceptionally(timedOut.get()));
+        future.whenComplete((result, error) -> {
+            receivers.remove(requestId.getRequestNumber());
+            timer.cancel();
+        });
+        return future;
+    }
+
+    /**
+     * Stop waiting for the responses to the given request, because the request could not be completed. The caller that is waiting
+     * for the responses will receive the supplied exception.
+     * 
+     * @param requestId the identifier of the request; may not be null
+     * @param error the exception that describes the failure; may not be null
+     */
+    public void fail(RequestId requestId, RuntimeException error) {
+        ResponseReceiver receiver = receivers.remove(requestId.getRequestNumber());
+        if (receiver != null) receiver.fail(error);
+    }
+
     /**
      * Method to accept a new message read from the 'partial-responses' topic, and to forward this to the {@link ResponseReceiver}
      * registered with the same request ID. Note that each request might produce multiple partial responses, so the registered
@@ -309,7 +546,9 @@ final class DbzPartialResponses extends Service {
     private boolean processResponse(String topic, int partition, long offset, String key, Document response) {
         return ifRunning(node -> {
             logger.trace("Processing partial response message from topic '{}' with key '{}': \n{}", topic, key, response);
-            RequestId id = RequestId.from(response);
+            // Responses to other clients may share the partition, and their request numbers may match ours ...
+            if (!Message.isFromClient(response, clientId)) return true;
+            long id = Message.getRequest(response);
             ResponseReceiver receiver = receivers.get(id);
             if (receiver != null) {
                 logger.trace("Calling response receiver for partial response with ID '{}' and message: \n{}", id, response);
@@ -12,7 +12,9 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -285,6 +287,18 @@ public interface Debezium {
          */
         Builder responsePartitionCount(int count);
 
+        /**
+         * Specify the partition of the partial responses topic from which this client reads the responses to its requests. Each
+         * client reads only its own partition, so clients that run concurrently should use different partitions whenever
+         * there are enough partitions.
+         * <p>
+         * By default the partition is chosen from the client's identifier.
+         * 
+         * @param partition the partition number; must not be negative
+         * @return this builder instance for chaining together methods; never null
+         */
+        Builder responsePartition(int partition);
+
         /**
          * Specify the maximum backlog per partition for registered callbacks. If the number of incomplete requests
          * exceeds this number per callback partition, then any new requests will block until existing requests have
@@ -295,6 +309,84 @@ public interface Debezium {
          */
         Builder responseMaxBacklog(int count);
 
+        /**
+         * Specify whether concurrent requests to read the same entity in the given database should be coalesced into a single
+         * request, whose result is returned to all of the callers. This reduces the load caused by frequently-read entities, but a
+         * read may then return the result of a request that was submitted shortly before the read was called. Reads are never
+         * coalesced with requests submitted before this client changed or destroyed the same entity.
+         * <p>
+         * By default reads are not coalesced.
+         * 
+         * @param databaseId the identifier of the database; may not be null
+         * @param coalesce {@code true} if concurrent reads of the same entity should be coalesced, or {@code false} otherwise
+         * @return this builder instance for chaining together methods; never null
+         */
+        Builder coalesceReads(String databaseId, boolean coalesce);
+
+        /**
+         * Specify whether the single-entity requests to read, change, and destroy entities in the given database should be
+         * collected from all threads and submitted together as batches. This reduces the per-request overhead for clients that
+         * make many small requests, at the cost of a slightly higher latency for each request. Each request still completes with
+         * its own result, and a batch that times out does so after the longest timeout of its requests.
+         * <p>
+         * By default requests are not batched.
+         * 
+         * @param databaseId the identifier of the database; may not be null
+         * @param batch {@code true} if single-entity requests should be batched, or {@code false} otherwise
+         * @return this builder instance for chaining together methods; never null
+         * @see #microBatchWindow(long, TimeUnit, int)
+         */
+        Builder microBatch(String databaseId, boolean batch);
+
+        /**
+         * Specify how single-entity requests are collected into batches for databases that are
+         * {@link #microBatch(String, boolean) micro-batched}. A batch is submitted when it has the maximum number of requests, or
+         * when it has been collecting requests for the linger time. The default is 5 milliseconds and 100 requests.
+         * 
+         * @param linger the maximum amount of time that a batch collects requests
+         * @param unit the unit of the linger time; may not be null
+         * @param maxSize the maximum number of requests in a batch
+         * @return this builder instance for chaining together methods; never null
+         */
+        Builder microBatchWindow(long linger, TimeUnit unit, int maxSize);
+
+        /**
+         * Specify the maximum number of recently read entities in the given database that are cached by this client. Reads of
+         * cached entities return without sending a request, and the cached entities are kept up to date by reading all entity
+         * updates. Entities changed or destroyed by this client are removed from the cache until they are read again.
+         * <p>
+         * By default entities are not cached.
+         * 
+         * @param databaseId the identifier of the database; may not be null
+         * @param maxEntities the maximum number of cached entities, or 0 if entities should not be cached
+         * @return this builder instance for chaining together methods; never null
+         * @see #entityCacheMaxAge(long, TimeUnit)
+         */
+        Builder cacheEntities(String databaseId, int maxEntities);
+
+        /**
+         * Specify how long a {@link #cacheEntities(String, int) cached} entity can be used after it was last read or updated. The
+         * default is 10 seconds.
+         * 
+         * @param maxAge the maximum age of a cached entity
+         * @param unit the unit of the maximum age; may not be null
+         * @return this builder instance for chaining together methods; never null
+         */
+        Builder entityCacheMaxAge(long maxAge, TimeUnit unit);
+
+        /**
+         * Specify whether the responses to requests that change or destroy entities should include the representations of the
+         * entities before and after the change. Omitting them reduces the size of the responses for clients that do not use
+         * them, in which case the {@link EntityChange#entity() entity} of a successful change has no representation. By default
+         * both are included.
+         * 
+         * @param before {@code true} if the responses should include the representations before the changes
+         * @param after {@code true} if the responses should include the representations after the changes
+         * @return this builder instance for chaining together methods; never null
+         * @see BatchBuilder#includeInResponses(boolean, boolean)
+         */
+        Builder includeInWriteResponses(boolean before, boolean after);
+
         /**
          * Specify the {@link SecurityProvider} implementation that should be used.
          * 
@@ -460,6 +552,22 @@ public interface Debezium {
      */
     public Entity readEntity(SessionToken token, EntityId entityId, long timeout, TimeUnit unit);
 
+    /**
+     * Read only the given parts of one entity from the database. Each path identifies a field within the entity's representation
+     * (e.g., "{@code address/city}"), and a path through an array returns the whole array. The returned representation contains
+     * only those of the requested fields that exist, and is not {@link Entity#isComplete() complete}.
+     * 
+     * @param token a valid session token for the user; may not be null
+     * @param entityId the entity's unique identifier; may not be null
+     * @param paths the paths of the fields to be read; may not be null
+     * @param timeout the amount of time to wait for the response
+     * @param unit the unit of time for the timeout
+     * @return a representation of the requested parts of the entity; never null
+     * @throws DebeziumAuthorizationException if the user was not authorized to perform this operation
+     * @throws DebeziumTimeoutException if the operation timed out
+     */
+    public Entity readEntity(SessionToken token, EntityId entityId, Collection<String> paths, long timeout, TimeUnit unit);
+
     /**
      * Request to apply the given patch to an entity.
      * 
@@ -494,6 +602,13 @@ public interface Debezium {
      */
     public BatchBuilder batch();
 
+    /**
+     * Get the non-blocking view of this driver, which returns futures rather than blocking until responses are received.
+     * 
+     * @return the asynchronous driver; never null
+     */
+    public AsyncDebezium async();
+
     /**
      * Shutdown this client and release all resources.
      * 
@@ -554,6 +669,16 @@ public interface Debezium {
          */
         public Patch.Editor<BatchBuilder> createEntity(EntityType entityType);
 
+        /**
+         * Specify whether the results of the changes in this batch should include the representations of the entities before and
+         * after the changes, overriding the {@link Builder#includeInWriteResponses(boolean, boolean) client's defaults}.
+         * 
+         * @param before {@code true} if the results should include the representations before the changes
+         * @param after {@code true} if the results should include the representations after the changes
+         * @return this builder instance for chaining together methods; never null
+         */
+        public BatchBuilder includeInResponses(boolean before, boolean after);
+
         /**
          * Submit the recorded operations to the server as a single batched request, wait for the response, and return the
          * results.
@@ -565,6 +690,33 @@ public interface Debezium {
          * @throws DebeziumTimeoutException if the operation timed out
          */
         public BatchResult submit(SessionToken token, long timeout, TimeUnit unit);
+
+        /**
+         * Submit the recorded operations to the server as a single batched request, and return a stream of the results for
+         * each entity in the order in which they arrive. Unlike {@link #submit(SessionToken, long, TimeUnit)}, this method
+         * does not wait for the results, and the caller can process the result for each entity as soon as it is received.
+         * The caller should always {@link BatchResultStream#close() close} the stream, which can be done before all results
+         * have been received to cancel waiting for the remaining results.
+         * 
+         * @param token a valid session token for the user; may not be null
+         * @param timeout the amount of time to wait for each result
+         * @param unit the unit of time for the timeout
+         * @return the stream of results; never null
+         * @throws DebeziumAuthorizationException if the user was not authorized to perform this operation
+         */
+        public BatchResultStream stream(SessionToken token, long timeout, TimeUnit unit);
+
+        /**
+         * Submit the recorded operations to the server as a single batched request without blocking, and return a future
+         * that is completed with the results once all of them have been received.
+         * 
+         * @param token a valid session token for the user; may not be null
+         * @param timeout the amount of time to wait for all of the results
+         * @param unit the unit of time for the timeout
+         * @return the future results of the batched operations; never null
+         * @see AsyncDebezium
+         */
+        public CompletableFuture<BatchResult> submitAsync(SessionToken token, long timeout, TimeUnit unit);
     }
 
 }
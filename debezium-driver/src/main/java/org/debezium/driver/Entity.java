@@ -61,9 +61,21 @@ public interface Entity {
      * Get the JSON document representation of this entity, if it {@link #exists() exists}.
      * 
      * @return the document representation, or null if this entity does not {@link #exists() exist}.
+     * @see #isComplete()
      */
     public Document asDocument();
 
+    /**
+     * Determine if the {@link #asDocument() representation} of this entity is complete, or whether it contains only the parts
+     * that were requested when the entity was read.
+     * 
+     * @return {@code true} if the representation is complete, or {@code false} if it contains only some of the entity's fields
+     * @see Debezium#readEntity(SessionToken, EntityId, java.util.Collection, long, java.util.concurrent.TimeUnit)
+     */
+    default public boolean isComplete() {
+        return true;
+    }
+
     /**
      * Get the type name of this entity, if it {@link #exists() exists}.
      * 
@@ -6,16 +6,25 @@
 package org.debezium.driver;
 
 import java.io.Closeable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import kafka.consumer.ConsumerConfig;
 import kafka.consumer.ConsumerIterator;
 import kafka.consumer.ConsumerTimeoutException;
+import kafka.consumer.KafkaStream;
 import kafka.consumer.TopicFilter;
 import kafka.javaapi.consumer.ConsumerConnector;
 import kafka.javaapi.producer.Producer;
@@ -48,28 +57,69 @@ final class KafkaMessageBus implements MessageBus {
             return true;
         }
 
+        @Override
+        public boolean send(List<KeyedMessage<byte[], byte[]>> messages) {
+            producer.send(messages);
+            return true;
+        }
+
         @Override
         public void close() {
             producer.close();
         }
     }
 
+    private static final class Fetched {
+        private final MessageAndMetadata<byte[], byte[]> message;
+        private final long stamp;
+
+        Fetched(MessageAndMetadata<byte[], byte[]> message, long stamp) {
+            this.message = message;
+            this.stamp = stamp;
+        }
+
+        int stripe() {
+            // All messages from one partition are processed in order by the same worker ...
+            return 31 * message.topic().hashCode() + message.partition();
+        }
+    }
+
     private static final DefaultDecoder DEFAULT_DECODER = new DefaultDecoder(new VerifiableProperties());
     private static final MessageProducer NO_OP_PRODUCER = message->false;
+    private static final String DEFAULT_CONSUMER_TIMEOUT_MS = "1000";
 
     private final Properties producerConfig;
     private final Properties consumerConfig;
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final AtomicReference<MessageProducer> producer = new AtomicReference<>(NO_OP_PRODUCER);
     private final Supplier<Executor> executor;
+    private final KafkaPartitionConsumer.Connector brokerConnector;
+    private final Function<ConsumerConfig, ConsumerConnector> consumerConnector;
     private final Map<Properties, ConsumerConnector> connectors = new ConcurrentHashMap<>();
+    private final Map<ConsumerConnector, OffsetCommitter> committers = new ConcurrentHashMap<>();
+    private final List<ConsumerLoop<Fetched>> loops = new CopyOnWriteArrayList<>();
+    private final int commitMessageCount;
+    private final long commitIntervalInMillis;
+    private final int consumerQueueSize;
+    private final long consumerShutdownTimeoutInMillis;
     private volatile boolean running = true;
 
     public KafkaMessageBus(Configuration config, Supplier<Executor> executor) {
+        this(config, executor, KafkaPartitionConsumer.BROKERS, kafka.consumer.Consumer::createJavaConsumerConnector);
+    }
+
+    KafkaMessageBus(Configuration config, Supplier<Executor> executor, KafkaPartitionConsumer.Connector brokerConnector,
+            Function<ConsumerConfig, ConsumerConnector> consumerConnector) {
         ClientConfiguration clientConfig = ClientConfiguration.adapt(config);
         this.producerConfig = clientConfig.getProducerConfiguration().asProperties();
         this.consumerConfig = clientConfig.getConsumerConfiguration().asProperties();
         this.executor = executor;
+        this.brokerConnector = brokerConnector;
+        this.consumerConnector = consumerConnector;
+        this.commitMessageCount = clientConfig.getOffsetCommitMessageCount();
+        this.commitIntervalInMillis = clientConfig.getOffsetCommitIntervalInMillis();
+        this.consumerQueueSize = clientConfig.getConsumerQueueSize();
+        this.consumerShutdownTimeoutInMillis = clientConfig.getConsumerShutdownTimeoutInMillis();
         if ( clientConfig.initializeProducersImmediately() ) {
             producer();
         }
@@ -91,14 +141,30 @@ final class KafkaMessageBus implements MessageBus {
             shutdownProducer(producer.getAndUpdate(existing->NO_OP_PRODUCER));
         } finally {
             try {
-                // Shutdown each of the consumer connectors ...
+                // Wait for the consumer loops to stop fetching and to process the messages they've already read ...
+                loops.forEach(this::awaitTermination);
+                // Commit the offsets of the processed messages, and then shutdown each of the consumer connectors ...
+                committers.values().forEach(OffsetCommitter::close);
                 connectors.values().forEach(ConsumerConnector::shutdown);
             } finally {
+                loops.clear();
+                committers.clear();
                 connectors.clear();
             }
         }
     }
 
+    private void awaitTermination(ConsumerLoop<Fetched> loop) {
+        try {
+            if (!loop.awaitTermination(consumerShutdownTimeoutInMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Consumer loop did not stop within {} ms; committing offsets of the processed messages",
+                            consumerShutdownTimeoutInMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+        }
+    }
+
     @Override
     public MessageProducer producer() {
         return producer.updateAndGet(this::createIfMissing);
@@ -136,46 +202,100 @@ final class KafkaMessageBus implements MessageBus {
         if (numThreads < 1) return;
 
         // Create the config for this consumer ...
-        final boolean autoCommit = true;
         final boolean debug = logger.isDebugEnabled();
         Properties props = new Properties();
         props.putAll(this.consumerConfig);
         props.put("group.id", groupId);
+        // The fetch threads block in the consumer, so they need a timeout to notice that the bus is shutting down ...
+        props.putIfAbsent("consumer.timeout.ms", DEFAULT_CONSUMER_TIMEOUT_MS);
 
-        // Create the consumer and iterate over the streams and create a thread to process each one ...
+        // Create the consumer and a loop that fetches from each stream and processes the messages on separate workers ...
         ConsumerConnector connector = getOrCreateConnector(props);
-        connector.createMessageStreamsByFilter(topicFilter, numThreads, DEFAULT_DECODER, DEFAULT_DECODER)
-                 .forEach(stream -> {
-                     this.executor.get().execute(() -> {
-                         final ConsumerIterator<byte[], byte[]> iter = stream.iterator();
-                         boolean success = false;
-                         while (true) {
-                             try {
-                                 while (running && iter.hasNext()) {
-                                     // Determine if we're still running after we've received a message ...
-                                     if ( running ) {
-                                         MessageAndMetadata<byte[], byte[]> msg = iter.next();
-                                         if (debug) {
-                                             logger.debug("Consuming next message on topic '{}', partition {}, offset {}",
-                                                          msg.topic(), msg.partition(), msg.offset());
-                                         }
-                                         success = consumer.consume(msg.topic(), msg.partition(), msg.offset(),
-                                                                    keyDecoder.fromBytes(msg.key()),
-                                                                    messageDecoder.fromBytes(msg.message()));
-                                         logger.debug("Consume message: {}", success);
-                                         if (success && autoCommit) {
-                                             logger.debug("Committing offsets");
-                                             connector.commitOffsets();
-                                         }
-                                     }
-                                 }
-                             } catch (ConsumerTimeoutException e) {
-                                 logger.debug("Consumer timed out and continuing");
-                                 // Keep going ...
-                             }
-                         }
-                     });
-                 });
+        OffsetCommitter committer = committers.get(connector);
+        ConsumerLoop<Fetched> loop = new ConsumerLoop<>(groupId, numThreads, consumerQueueSize, Fetched::stripe, fetched -> {
+            MessageAndMetadata<byte[], byte[]> msg = fetched.message;
+            try {
+                if (debug) {
+                    logger.debug("Consuming next message on topic '{}', partition {}, offset {}",
+                                 msg.topic(), msg.partition(), msg.offset());
+                }
+                boolean success = consumer.consume(msg.topic(), msg.partition(), msg.offset(),
+                                                   keyDecoder.fromBytes(msg.key()),
+                                                   messageDecoder.fromBytes(msg.message()));
+                logger.debug("Consume message: {}", success);
+            } finally {
+                // The offsets are committed in batches by the committer's thread ...
+                committer.processed(msg.topic(), msg.partition(), msg.offset());
+                committer.end(fetched.stamp);
+            }
+        }, this.executor.get(), () -> running);
+        loops.add(loop);
+        loop.start(connector.createMessageStreamsByFilter(topicFilter, numThreads, DEFAULT_DECODER, DEFAULT_DECODER)
+                            .stream()
+                            .map(stream -> source(stream, committer))
+                            .collect(Collectors.toList()));
+    }
+
+    private static ConsumerLoop.Source<Fetched> source(KafkaStream<byte[], byte[]> stream, OffsetCommitter committer) {
+        ConsumerIterator<byte[], byte[]> iter = stream.iterator();
+        return new ConsumerLoop.Source<Fetched>() {
+            @Override
+            public boolean await() {
+                try {
+                    // Blocks until there is a message, the consumer times out, or the connector is shut down ...
+                    if (!iter.hasNext()) throw new NoSuchElementException();
+                    return true;
+                } catch (ConsumerTimeoutException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public Fetched next() {
+                long stamp = committer.begin();
+                try {
+                    return new Fetched(iter.next(), stamp);
+                } catch (RuntimeException e) {
+                    committer.end(stamp);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    @Override
+    public long uncommittedMessageCount() {
+        return committers.values().stream().mapToLong(OffsetCommitter::uncommitted).sum();
+    }
+
+    @Override
+    public Map<String, Long> commitLag() {
+        Map<String, Long> lags = new TreeMap<>();
+        committers.values().forEach(committer -> committer.lags()
+                                                          .forEach((partition, lag) -> lags.merge(committer.name() + "/" + partition,
+                                                                                                  lag, Long::sum)));
+        return lags;
+    }
+
+    @Override
+    public int partitionCount(String topic) {
+        if (!running) throw new IllegalStateException("Kafka client is no longer running");
+        return KafkaPartitionConsumer.partitionCount(brokerConnector, brokers(), topic, "partition-count");
+    }
+
+    @Override
+    public <KeyType, MessageType> void subscribe(String groupId, String topic, int partition, Decoder<KeyType> keyDecoder,
+                                                 Decoder<MessageType> messageDecoder, MessageConsumer<KeyType, MessageType> consumer) {
+        if (!running) throw new IllegalStateException("Kafka client is no longer running");
+        logger.debug("Creating consumer of partition {} of topic '{}'", partition, topic);
+        KafkaPartitionConsumer<KeyType, MessageType> partitionConsumer = new KafkaPartitionConsumer<>(brokerConnector, brokers(),
+                groupId, topic, partition, keyDecoder, messageDecoder, consumer, () -> running);
+        this.executor.get().execute(partitionConsumer);
+    }
+
+    private List<String> brokers() {
+        String brokerList = producerConfig.getProperty("metadata.broker.list", "");
+        return Arrays.stream(brokerList.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
     }
 
     private ConsumerConnector getOrCreateConnector(Properties props) {
@@ -183,7 +303,7 @@ final class KafkaMessageBus implements MessageBus {
         ConsumerConnector connector = connectors.get(props);
         if (connector == null) {
             logger.debug("Creating new consumer with config: {}", props);
-            ConsumerConnector newConnector = kafka.consumer.Consumer.createJavaConsumerConnector(config);
+            ConsumerConnector newConnector = consumerConnector.apply(config);
             // It's possible that we and another thread might have concurrently created a consumer with the same config ...
             connector = connectors.putIfAbsent(props, newConnector);
             if (connector != null) {
@@ -193,6 +313,11 @@ final class KafkaMessageBus implements MessageBus {
             } else {
                 logger.debug("Created new consumer with config: {}", props);
                 connector = newConnector;
+                // Commit the offsets of this connector in the background ...
+                OffsetCommitter committer = new OffsetCommitter(props.getProperty("group.id"), newConnector::commitOffsets,
+                        commitMessageCount, commitIntervalInMillis, TimeUnit.MILLISECONDS);
+                committers.put(newConnector, committer);
+                executor.get().execute(committer);
             }
         }
         assert connector != null;
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import kafka.api.FetchRequest;
+import kafka.api.FetchRequestBuilder;
+import kafka.api.PartitionOffsetRequestInfo;
+import kafka.cluster.Broker;
+import kafka.common.ErrorMapping;
+import kafka.common.TopicAndPartition;
+import kafka.javaapi.FetchResponse;
+import kafka.javaapi.OffsetRequest;
+import kafka.javaapi.OffsetResponse;
+import kafka.javaapi.PartitionMetadata;
+import kafka.javaapi.TopicMetadata;
+import kafka.javaapi.TopicMetadataRequest;
+import kafka.javaapi.consumer.SimpleConsumer;
+import kafka.message.Message;
+import kafka.message.MessageAndOffset;
+
+import org.debezium.core.annotation.NotThreadSafe;
+import org.debezium.core.serde.Decoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A consumer of a single partition of a Kafka topic, which reads directly from the leader of the partition all of the messages
+ * that are added to the partition after the consumer was created. Unlike the high-level consumer, this does not use a consumer
+ * group and does not commit offsets.
+ *
+ * @param <KeyType> the type of key
+ * @param <MessageType> the type of message
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class KafkaPartitionConsumer<KeyType, MessageType> implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaPartitionConsumer.class);
+    private static final int SOCKET_TIMEOUT_MS = 30000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FETCH_SIZE = 1024 * 1024;
+    private static final int MAX_WAIT_MS = 1000;
+    private static final long RETRY_DELAY_MS = 1000L;
+
+    /**
+     * A function that creates the {@link SimpleConsumer} used to read from a broker.
+     */
+    @FunctionalInterface
+    static interface Connector {
+        /**
+         * Create a consumer that reads from the given broker.
+         *
+         * @param host the host of the broker; never null
+         * @param port the port of the broker
+         * @param clientId the client identifier; never null
+         * @return the consumer; never null
+         */
+        SimpleConsumer connect(String host, int port, String clientId);
+    }
+
+    /**
+     * The {@link Connector} that creates consumers of the actual brokers.
+     */
+    static final Connector BROKERS = (host, port, clientId) -> new SimpleConsumer(host, port, SOCKET_TIMEOUT_MS, BUFFER_SIZE,
+            clientId);
+
+    /**
+     * Get the number of partitions in the named topic.
+     *
+     * @param connector the function used to connect to the brokers; may not be null
+     * @param brokers the "host:port" addresses of the brokers; may not be null
+     * @param topic the name of the topic; may not be null
+     * @param clientId the client identifier; may not be null
+     * @return the number of partitions, or 0 if the topic metadata could not be read from any of the brokers
+     */
+    static int partitionCount(Connector connector, List<String> brokers, String topic, String clientId) {
+        TopicMetadata metadata = topicMetadata(connector, brokers, topic, clientId);
+        return metadata != null ? metadata.partitionsMetadata().size() : 0;
+    }
+
+    private static TopicMetadata topicMetadata(Connector connector, List<String> brokers, String topic, String clientId) {
+        for (String broker : brokers) {
+            SimpleConsumer consumer = null;
+            try {
+                consumer = connect(connector, broker, clientId);
+                TopicMetadataRequest request = new TopicMetadataRequest(Collections.singletonList(topic));
+                for (TopicMetadata metadata : consumer.send(request).topicsMetadata()) {
+                    if (metadata.topic().equals(topic) && metadata.errorCode() == ErrorMapping.NoError()) return metadata;
+                }
+            } catch (RuntimeException e) {
+                LOGGER.debug("Unable to read metadata for topic '{}' from broker '{}'", topic, broker, e);
+            } finally {
+                if (consumer != null) consumer.close();
+            }
+        }
+        return null;
+    }
+
+    private static SimpleConsumer connect(Connector connector, String broker, String clientId) {
+        int index = broker.lastIndexOf(':');
+        String host = broker.substring(0, index).trim();
+        int port = Integer.parseInt(broker.substring(index + 1).trim());
+        return connector.connect(host, port, clientId);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        if (buffer == null) return null;
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private final Connector connector;
+    private final List<String> brokers;
+    private final String clientId;
+    private final String topic;
+    private final int partition;
+    private final Decoder<KeyType> keyDecoder;
+    private final Decoder<MessageType> messageDecoder;
+    private final MessageConsumer<KeyType, MessageType> consumer;
+    private final BooleanSupplier running;
+    private SimpleConsumer leader;
+    private long offset = -1L;
+
+    KafkaPartitionConsumer(Connector connector, List<String> brokers, String clientId, String topic, int partition,
+            Decoder<KeyType> keyDecoder, Decoder<MessageType> messageDecoder, MessageConsumer<KeyType, MessageType> consumer,
+            BooleanSupplier running) {
+        this.connector = connector;
+        this.brokers = brokers;
+        this.clientId = clientId;
+        this.topic = topic;
+        this.partition = partition;
+        this.keyDecoder = keyDecoder;
+        this.messageDecoder = messageDecoder;
+        this.consumer = consumer;
+        this.running = running;
+        // Find the current end of the partition now, so that we don't miss messages added before the thread starts ...
+        try {
+            connectToLeader();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to find the end of partition {} of topic '{}'; will retry", partition, topic, e);
+            disconnect();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running.getAsBoolean()) {
+                try {
+                    if (leader == null && !connectToLeader()) {
+                        pause();
+                        continue;
+                    }
+                    fetch();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error reading partition {} of topic '{}'; will reconnect", partition, topic, e);
+                    disconnect();
+                    pause();
+                }
+            }
+        } finally {
+            disconnect();
+        }
+    }
+
+    private void fetch() {
+        FetchRequest request = new FetchRequestBuilder().clientId(clientId)
+                                                        .addFetch(topic, partition, offset, FETCH_SIZE)
+                                                        .maxWait(MAX_WAIT_MS)
+                                                        .build();
+        FetchResponse response = leader.fetch(request);
+        if (response.hasError()) {
+            short error = response.errorCode(topic, partition);
+            if (error == ErrorMapping.OffsetOutOfRangeCode()) {
+                // Skip to the end of the partition ...
+                offset = latestOffset();
+            } else {
+                // Most likely the leader changed ...
+                LOGGER.debug("Error code {} while reading partition {} of topic '{}'; will reconnect", error, partition, topic);
+                disconnect();
+            }
+            return;
+        }
+        for (MessageAndOffset messageAndOffset : response.messageSet(topic, partition)) {
+            long messageOffset = messageAndOffset.offset();
+            // Compressed message sets may include messages before the requested offset ...
+            if (messageOffset < offset) continue;
+            offset = messageAndOffset.nextOffset();
+            Message message = messageAndOffset.message();
+            byte[] key = message.hasKey() ? bytes(message.key()) : null;
+            consumer.consume(topic, partition, messageOffset, key != null ? keyDecoder.fromBytes(key) : null,
+                             messageDecoder.fromBytes(bytes(message.payload())));
+        }
+    }
+
+    private boolean connectToLeader() {
+        TopicMetadata metadata = topicMetadata(connector, brokers, topic, clientId);
+        if (metadata == null) return false;
+        for (PartitionMetadata partitionMetadata : metadata.partitionsMetadata()) {
+            if (partitionMetadata.partitionId() != partition) continue;
+            Broker broker = partitionMetadata.leader();
+            if (broker == null) return false;
+            leader = connector.connect(broker.host(), broker.port(), clientId);
+            if (offset < 0L) offset = latestOffset();
+            return true;
+        }
+        return false;
+    }
+
+    private long latestOffset() {
+        TopicAndPartition topicAndPartition = new TopicAndPartition(topic, partition);
+        Map<TopicAndPartition, PartitionOffsetRequestInfo> requestInfo = new HashMap<>();
+        requestInfo.put(topicAndPartition, new PartitionOffsetRequestInfo(kafka.api.OffsetRequest.LatestTime(), 1));
+        OffsetRequest request = new OffsetRequest(requestInfo, kafka.api.OffsetRequest.CurrentVersion(), clientId);
+        OffsetResponse response = leader.getOffsetsBefore(request);
+        if (response.hasError()) {
+            throw new IllegalStateException("Error code " + response.errorCode(topic, partition) + " while reading the offset of partition "
+                    + partition + " of topic '" + topic + "'");
+        }
+        return response.offsets(topic, partition)[0];
+    }
+
+    private void disconnect() {
+        if (leader != null) {
+            try {
+                leader.close();
+            } finally {
+                leader = null;
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(RETRY_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+        }
+    }
+}
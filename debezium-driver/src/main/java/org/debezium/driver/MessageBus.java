@@ -5,7 +5,11 @@
  */
 package org.debezium.driver;
 
+import java.util.Collections;
+import java.util.Map;
+
 import kafka.consumer.TopicFilter;
+import kafka.consumer.Whitelist;
 
 import org.debezium.core.serde.Decoder;
 
@@ -43,6 +47,56 @@ public interface MessageBus {
     public <KeyType, MessageType> void subscribe(String groupId, TopicFilter topicFilter, int numThreads, Decoder<KeyType> keyDecoder,
                                                  Decoder<MessageType> messageDecoder, MessageConsumer<KeyType, MessageType> consumer);
 
+    /**
+     * Get the number of partitions in the named topic.
+     * 
+     * @param topic the name of the topic; may not be null
+     * @return the number of partitions, or 0 if the topic does not exist or if this message bus cannot determine the number of
+     *         partitions
+     */
+    default public int partitionCount(String topic) {
+        return 0;
+    }
+
+    /**
+     * Subscribe to a single partition of a topic, consuming only the messages that are added to the partition after this method
+     * is called. The default implementation subscribes to all partitions of the topic, so implementations that can read individual
+     * partitions should override this method.
+     * 
+     * @param groupId the identifier of the consumer's group; may not be null
+     * @param topic the name of the topic; may not be null
+     * @param partition the partition number
+     * @param keyDecoder the decoder that should be used to convert the {@code byte[]} key into an object form expected by the
+     *            consumer
+     * @param messageDecoder the decoder that should be used to convert the {@code byte[]} message into an object form expected by
+     *            the consumer
+     * @param consumer the consumer; may not be null
+     */
+    default public <KeyType, MessageType> void subscribe(String groupId, String topic, int partition, Decoder<KeyType> keyDecoder,
+                                                         Decoder<MessageType> messageDecoder,
+                                                         MessageConsumer<KeyType, MessageType> consumer) {
+        subscribe(groupId, new Whitelist(topic), 1, keyDecoder, messageDecoder, consumer);
+    }
+
+    /**
+     * Get the number of messages that have been consumed by all subscriptions but whose offsets have not yet been committed.
+     * 
+     * @return the number of uncommitted messages; never negative
+     */
+    default public long uncommittedMessageCount() {
+        return 0L;
+    }
+
+    /**
+     * Get the commit lag of each partition consumed by the subscriptions, which is the number of offsets that have been consumed
+     * but not yet committed.
+     * 
+     * @return the commit lags keyed by "{@code groupId/topic/partition}"; never null but possibly empty
+     */
+    default public Map<String, Long> commitLag() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Release all resources used by this message bus.
      */
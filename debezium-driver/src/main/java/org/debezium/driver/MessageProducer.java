@@ -5,6 +5,8 @@
  */
 package org.debezium.driver;
 
+import java.util.List;
+
 import kafka.producer.KeyedMessage;
 
 /**
@@ -19,4 +21,19 @@ public interface MessageProducer {
      * @return true if the message was sent, or false otherwise
      */
     public boolean send(KeyedMessage<byte[], byte[]> message);
+
+    /**
+     * Send a batch of messages. By default this sends each message individually, but implementations should override this to
+     * send the messages more efficiently.
+     * 
+     * @param messages the messages to send
+     * @return true if all of the messages were sent, or false otherwise
+     */
+    default public boolean send(List<KeyedMessage<byte[], byte[]>> messages) {
+        boolean success = true;
+        for (KeyedMessage<byte[], byte[]> message : messages) {
+            if (!send(message)) success = false;
+        }
+        return success;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+import org.debezium.core.annotation.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the parts added by many threads into batches, so that each batch can be submitted as a single request. The parts with
+ * the same key are collected into one batch until the batch reaches a maximum size, at which point it is submitted by the thread
+ * that added the last part, or until the batch has been open for the linger time, at which point it is submitted by the next call
+ * to {@link #flushExpired()}.
+ *
+ * @param <K> the type of key that determines which parts may be submitted together
+ * @param <P> the type of part
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class MicroBatcher<K, P> {
+
+    private final class Window {
+        private final K key;
+        private final long opened;
+        private final List<P> parts;
+        private boolean closed = false;
+
+        Window(K key, long opened) {
+            this.key = key;
+            this.opened = opened;
+            this.parts = new ArrayList<>(maxSize);
+        }
+
+        synchronized List<P> close() {
+            if (closed) return null;
+            closed = true;
+            windows.remove(key, this);
+            return parts;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private final int maxSize;
+    private final long lingerInNanos;
+    private final BiConsumer<K, List<P>> submitter;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<K, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Create a batcher that uses {@link System#nanoTime()}.
+     *
+     * @param maxSize the maximum number of parts in a batch; must be positive
+     * @param linger the maximum amount of time that a batch collects parts before it is submitted; may be 0
+     * @param unit the unit of the linger time; may not be null
+     * @param submitter the function that submits a batch with its key; may not be null
+     */
+    MicroBatcher(int maxSize, long linger, TimeUnit unit, BiConsumer<K, List<P>> submitter) {
+        this(maxSize, linger, unit, submitter, System::nanoTime);
+    }
+
+    MicroBatcher(int maxSize, long linger, TimeUnit unit, BiConsumer<K, List<P>> submitter, LongSupplier nanoClock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.lingerInNanos = unit.toNanos(Math.max(0L, linger));
+        this.submitter = submitter;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Add a part to the batch with the given key, submitting the batch on this thread if the batch is then full.
+     *
+     * @param key the key; may not be null
+     * @param part the part; may not be null
+     */
+    public void add(K key, P part) {
+        while (true) {
+            Window window = windows.computeIfAbsent(key, k -> new Window(k, nanoClock.getAsLong()));
+            List<P> full = null;
+            synchronized (window) {
+                // The window may have been closed after we found it ...
+                if (window.closed) continue;
+                window.parts.add(part);
+                if (window.parts.size() >= maxSize) full = window.close();
+            }
+            if (full != null) submit(key, full);
+            return;
+        }
+    }
+
+    /**
+     * Submit all batches that have been collecting parts for at least the linger time. This should be called periodically.
+     *
+     * @return the number of batches that were submitted
+     */
+    public int flushExpired() {
+        long now = nanoClock.getAsLong();
+        int count = 0;
+        for (Window window : windows.values()) {
+            if (now - window.opened >= lingerInNanos && flush(window)) ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Submit all batches, regardless of how long they have been collecting parts.
+     *
+     * @return the number of batches that were submitted
+     */
+    public int flushAll() {
+        int count = 0;
+        for (Window window : windows.values()) {
+            if (flush(window)) ++count;
+        }
+        return count;
+    }
+
+    private boolean flush(Window window) {
+        List<P> parts = window.close();
+        if (parts == null) return false;
+        submit(window.key, parts);
+        return true;
+    }
+
+    private void submit(K key, List<P> parts) {
+        try {
+            submitter.accept(key, parts);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error submitting batch of {} parts for '{}'", parts.size(), key, e);
+        }
+    }
+
+    /**
+     * Get the number of batches that are collecting parts.
+     *
+     * @return the number of open batches; never negative
+     */
+    public int size() {
+        return windows.size();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import org.debezium.core.annotation.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A policy for committing the offsets of a consumer that reads messages on multiple threads. Rather than committing after every
+ * message, the offsets are committed by a background thread after a maximum number of messages have been processed, after a
+ * maximum interval of time, and when the committer is {@link #close() closed}.
+ * <p>
+ * The consumer threads call {@link #begin()} before reading each message and {@link #end(long)} after processing it, possibly on a
+ * different thread, and offsets are committed only when no message is between these calls, so that a commit never includes a
+ * message that has been read but not yet processed. Because the messages of each partition are processed in order, the highest
+ * processed offset of each partition is also the highest contiguous processed offset, and the difference with the last committed
+ * offset is the {@link #lag(String, int) commit lag} of that partition.
+ *
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class OffsetCommitter implements Runnable {
+
+    private static final class PartitionOffsets {
+        private volatile long processed = -1L;
+        private volatile long committed = -1L;
+
+        long lag() {
+            long lag = processed - committed;
+            return lag > 0L ? lag : 0L;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffsetCommitter.class);
+
+    private final String name;
+    private final Runnable commitOffsets;
+    private final int maxMessages;
+    private final long intervalInNanos;
+    private final StampedLock barrier = new StampedLock();
+    private final Lock lock = new ReentrantLock();
+    private final Condition due = lock.newCondition();
+    private final AtomicLong uncommitted = new AtomicLong();
+    private final ConcurrentMap<String, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Create a new committer.
+     *
+     * @param name the name of the consumer, for logging purposes; may not be null
+     * @param commitOffsets the function that commits the offsets of all messages that have been read; may not be null
+     * @param maxMessages the maximum number of messages that are processed before the offsets are committed; must be positive
+     * @param interval the maximum amount of time after processing a message that the offsets are committed; must be positive
+     * @param unit the unit of the interval; may not be null
+     */
+    OffsetCommitter(String name, Runnable commitOffsets, int maxMessages, long interval, TimeUnit unit) {
+        this.name = name;
+        this.commitOffsets = commitOffsets;
+        this.maxMessages = Math.max(1, maxMessages);
+        this.intervalInNanos = unit.toNanos(Math.max(1L, interval));
+    }
+
+    /**
+     * Prevent offsets from being committed until the message that is about to be read has been processed. This blocks while
+     * offsets are being committed.
+     *
+     * @return the stamp that must be passed to {@link #end(long)} after the message has been processed
+     */
+    public long begin() {
+        return barrier.readLock();
+    }
+
+    /**
+     * Allow offsets to be committed again after a message has been processed (or could not be read). This may be called on a
+     * different thread than {@link #begin()}.
+     *
+     * @param stamp the stamp returned from {@link #begin()}
+     */
+    public void end(long stamp) {
+        barrier.unlockRead(stamp);
+    }
+
+    /**
+     * Record that the message at the given offset has been processed. This should be called before {@link #end(long)}.
+     *
+     * @param topic the topic of the message; may not be null
+     * @param partition the partition of the message
+     * @param offset the offset of the message
+     */
+    public void processed(String topic, int partition, long offset) {
+        partitions.computeIfAbsent(key(topic, partition), key -> new PartitionOffsets()).processed = offset;
+        if (uncommitted.incrementAndGet() == maxMessages) {
+            // Wake up the committer thread ...
+            lock.lock();
+            try {
+                due.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Get the number of processed messages whose offsets have not yet been committed.
+     *
+     * @return the number of uncommitted messages; never negative
+     */
+    public long uncommitted() {
+        return uncommitted.get();
+    }
+
+    /**
+     * Get the difference between the highest processed offset and the last committed offset of a partition.
+     *
+     * @param topic the topic; may not be null
+     * @param partition the partition
+     * @return the commit lag of the partition; never negative
+     */
+    public long lag(String topic, int partition) {
+        PartitionOffsets offsets = partitions.get(key(topic, partition));
+        return offsets != null ? offsets.lag() : 0L;
+    }
+
+    /**
+     * Get the commit lag of each partition that has processed messages.
+     *
+     * @return the commit lags keyed by "{@code topic/partition}"; never null but possibly empty
+     */
+    public Map<String, Long> lags() {
+        Map<String, Long> lags = new TreeMap<>();
+        partitions.forEach((key, offsets) -> lags.put(key, offsets.lag()));
+        return lags;
+    }
+
+    /**
+     * Get the name of the consumer whose offsets are committed.
+     *
+     * @return the name; never null
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Commit the offsets of all processed messages, waiting for any messages that are being processed to complete.
+     *
+     * @return {@code true} if the offsets were committed, or {@code false} if there was nothing to commit or if the commit
+     *         failed
+     */
+    public boolean commit() {
+        long stamp = barrier.writeLock();
+        try {
+            long count = uncommitted.get();
+            if (count == 0L) return false;
+            commitOffsets.run();
+            // No messages are being processed, so nothing changed while we were committing ...
+            uncommitted.set(0L);
+            partitions.values().forEach(offsets -> offsets.committed = offsets.processed);
+            LOGGER.debug("Committed offsets of {} messages for consumer '{}'", count, name);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to commit offsets for consumer '{}'; will retry", name, e);
+            return false;
+        } finally {
+            barrier.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Commit the offsets in the background until this committer is {@link #close() closed}.
+     */
+    @Override
+    public void run() {
+        while (!closed.get()) {
+            awaitCommitDue();
+            if (!closed.get()) commit();
+        }
+    }
+
+    private void awaitCommitDue() {
+        lock.lock();
+        try {
+            long remaining = intervalInNanos;
+            while (!closed.get() && uncommitted.get() < maxMessages && remaining > 0L) {
+                remaining = due.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop committing in the background, and commit the offsets of any processed messages.
+     */
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            lock.lock();
+            try {
+                due.signal();
+            } finally {
+                lock.unlock();
+            }
+            commit();
+        }
+    }
+
+    private static String key(String topic, int partition) {
+        return topic + "/" + partition;
+    }
+}
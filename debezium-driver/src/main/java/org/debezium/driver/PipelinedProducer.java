@@ -0,0 +1,186 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import kafka.producer.KeyedMessage;
+
+import org.debezium.core.annotation.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A producer that sends messages on a background thread, so that callers can prepare their next message while earlier messages
+ * are being sent. Messages are sent in batches of all the messages that are waiting (up to a maximum number), optionally waiting
+ * for a short linger time for more messages to arrive; the underlying {@link MessageProducer#send(List) producer} collates each
+ * batch by topic and partition.
+ * <p>
+ * The total size of the messages that have been accepted but not yet sent is limited, and callers are blocked when that limit is
+ * reached until enough messages have been sent. This applies backpressure to callers rather than failing their requests.
+ *
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class PipelinedProducer implements Runnable {
+
+    private static final class Pending {
+        private final KeyedMessage<byte[], byte[]> message;
+        private final int permits;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        Pending(KeyedMessage<byte[], byte[]> message, int permits) {
+            this.message = message;
+            this.permits = permits;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PipelinedProducer.class);
+    private static final long POLL_INTERVAL_MS = 100L;
+
+    private static int size(KeyedMessage<byte[], byte[]> message) {
+        byte[] key = message.key();
+        byte[] msg = message.message();
+        return (key != null ? key.length : 0) + (msg != null ? msg.length : 0);
+    }
+
+    private final Supplier<MessageProducer> producer;
+    private final long lingerInNanos;
+    private final int maxBatchSize;
+    private final int maxInFlightBytes;
+    private final Semaphore inFlightBytes;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile boolean closed = false;
+
+    /**
+     * Create a new pipelined producer. The {@link #run()} method must be called on a separate thread to send the messages.
+     *
+     * @param producer the supplier of the underlying producer; may not be null
+     * @param linger the maximum amount of time to wait for more messages before sending a batch; may be 0
+     * @param unit the unit of the linger time; may not be null
+     * @param maxBatchSize the maximum number of messages in a batch; must be positive
+     * @param maxInFlightBytes the maximum total size of the messages that have been accepted but not yet sent; must be positive
+     */
+    PipelinedProducer(Supplier<MessageProducer> producer, long linger, TimeUnit unit, int maxBatchSize, int maxInFlightBytes) {
+        this.producer = producer;
+        this.lingerInNanos = unit.toNanos(Math.max(0L, linger));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxInFlightBytes = Math.max(1, maxInFlightBytes);
+        this.inFlightBytes = new Semaphore(this.maxInFlightBytes);
+    }
+
+    /**
+     * Send the message on the background thread, blocking only if the maximum number of bytes are already waiting to be sent.
+     *
+     * @param message the message; may not be null
+     * @return the future that is completed with {@code true} if the message was sent or {@code false} if it could not be sent;
+     *         never null and never completed exceptionally
+     */
+    public CompletableFuture<Boolean> send(KeyedMessage<byte[], byte[]> message) {
+        if (closed) return CompletableFuture.completedFuture(Boolean.FALSE);
+        // A message that is larger than the limit can be sent only when no other messages are in flight ...
+        int permits = Math.min(size(message), maxInFlightBytes);
+        try {
+            inFlightBytes.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(Boolean.FALSE);
+        }
+        Pending pending = new Pending(message, permits);
+        queue.add(pending);
+        if (closed && queue.remove(pending)) {
+            // We were closed concurrently, and the sender might already have stopped ...
+            complete(pending, false);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Send batches of messages until this producer is {@link #close(long, TimeUnit) closed}.
+     */
+    @Override
+    public void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (true) {
+                Pending first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) break;
+                    continue;
+                }
+                batch.add(first);
+                if (lingerInNanos > 0L && !closed) {
+                    // Wait a short time for more messages ...
+                    long deadline = System.nanoTime() + lingerInNanos;
+                    while (batch.size() < maxBatchSize) {
+                        Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                send(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            batch.forEach(pending -> complete(pending, false));
+        } finally {
+            // Fail any messages that were not sent ...
+            Pending pending = null;
+            while ((pending = queue.poll()) != null) {
+                complete(pending, false);
+            }
+            stopped.countDown();
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<KeyedMessage<byte[], byte[]>> messages = new ArrayList<>(batch.size());
+        batch.forEach(pending -> messages.add(pending.message));
+        boolean success = false;
+        try {
+            success = producer.get().send(messages);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error sending batch of {} messages", messages.size(), e);
+        }
+        for (Pending pending : batch) {
+            complete(pending, success);
+        }
+    }
+
+    private void complete(Pending pending, boolean success) {
+        inFlightBytes.release(pending.permits);
+        pending.future.complete(success);
+    }
+
+    /**
+     * Stop accepting messages, and wait for the messages that were already accepted to be sent.
+     *
+     * @param timeout the maximum amount of time to wait
+     * @param unit the unit of the timeout; may not be null
+     * @return {@code true} if all accepted messages were sent or failed, or {@code false} if the background thread did not
+     *         stop within the timeout
+     */
+    public boolean close(long timeout, TimeUnit unit) {
+        closed = true;
+        try {
+            return stopped.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.interrupted();
+            return false;
+        }
+    }
+}
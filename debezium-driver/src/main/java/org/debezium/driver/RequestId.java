@@ -28,7 +28,18 @@ final class RequestId implements Comparable<RequestId> {
      * @return the new request ID; never null
      */
     public static RequestId create(String clientId) {
-        return new RequestId(clientId, COUNTER.incrementAndGet());
+        return create(clientId, -1);
+    }
+    
+    /**
+     * Create a new request ID for a request whose responses are to be sent to a specific partition.
+     * @param clientId the Id of the client; may not be null
+     * @param responsePartition the partition of the partial responses topic to which responses should be sent, or a negative
+     *            number if the responses should be partitioned by client ID
+     * @return the new request ID; never null
+     */
+    public static RequestId create(String clientId, int responsePartition) {
+        return new RequestId(clientId, COUNTER.incrementAndGet(), responsePartition);
     }
     
     /**
@@ -37,15 +48,17 @@ final class RequestId implements Comparable<RequestId> {
      * @return the request ID from the message; never null
      */
     public static RequestId from(Document message ) {
-        return new RequestId(Message.getClient(message), Message.getRequest(message));
+        return new RequestId(Message.getClient(message), Message.getRequest(message), -1);
     }
     
     private final long number;
     private final String clientId;
+    private final int responsePartition;
     
-    private RequestId(String clientId, long number) {
+    private RequestId(String clientId, long number, int responsePartition) {
         this.clientId = clientId;
         this.number = number;
+        this.responsePartition = responsePartition;
     }
     
     public String getClientId() {
@@ -56,6 +69,16 @@ final class RequestId implements Comparable<RequestId> {
         return number;
     }
     
+    /**
+     * Add to the request message the headers that identify this request and that determine where its responses are sent.
+     * @param request the request message; may not be null
+     * @param username the name of the user making the request; may be null
+     */
+    public void addHeaders(Document request, String username) {
+        Message.addHeaders(request, clientId, number, username);
+        if (responsePartition >= 0) Message.setResponsePartition(request, responsePartition);
+    }
+    
     public String asString() {
         return clientId + "/" + Long.toString(number);
     }
@@ -71,7 +94,8 @@ final class RequestId implements Comparable<RequestId> {
     
     @Override
     public int hashCode() {
-        return clientId.hashCode();
+        // All requests from one client share the client ID, so the request number must be included ...
+        return 31 * clientId.hashCode() + Long.hashCode(number);
     }
     
     @Override
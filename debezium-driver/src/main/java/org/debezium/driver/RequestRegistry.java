@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.function.Consumer;
+
+import org.debezium.core.annotation.GuardedBy;
+import org.debezium.core.annotation.ThreadSafe;
+
+/**
+ * A concurrent map of outstanding requests keyed by the primitive {@link RequestId#getRequestNumber() request number}. The
+ * entries are spread over a fixed number of independently-locked stripes, and each stripe is an open-addressing hash table with
+ * linear probing, so neither lookups nor updates box the key or allocate entry objects. Request numbers are sequential, so they
+ * are mixed before being used to select the stripe and slot.
+ *
+ * @param <V> the type of value
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class RequestRegistry<V> {
+
+    private static final int STRIPE_COUNT = 16;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private static int mix(long key) {
+        // The finalizer of the 64-bit MurmurHash3 ...
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private final Stripe<V>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    RequestRegistry() {
+        stripes = new Stripe[STRIPE_COUNT];
+        for (int i = 0; i != STRIPE_COUNT; ++i) {
+            stripes[i] = new Stripe<>(INITIAL_STRIPE_CAPACITY);
+        }
+    }
+
+    private Stripe<V> stripe(int hash) {
+        return stripes[(hash >>> 28) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * Register the value for the given request number, replacing any existing value.
+     *
+     * @param key the request number
+     * @param value the value; may not be null
+     * @return the value previously registered for the request number, or null if there was none
+     */
+    public V put(long key, V value) {
+        assert value != null;
+        int hash = mix(key);
+        return stripe(hash).put(key, hash, value);
+    }
+
+    /**
+     * Get the value registered for the given request number.
+     *
+     * @param key the request number
+     * @return the value, or null if there is none
+     */
+    public V get(long key) {
+        int hash = mix(key);
+        return stripe(hash).get(key, hash);
+    }
+
+    /**
+     * Remove the value registered for the given request number.
+     *
+     * @param key the request number
+     * @return the value that was removed, or null if there was none
+     */
+    public V remove(long key) {
+        int hash = mix(key);
+        return stripe(hash).remove(key, hash);
+    }
+
+    /**
+     * Get the number of registered values.
+     *
+     * @return the number of values; never negative
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Call the supplied function with each of the registered values. The function may not modify this registry.
+     *
+     * @param function the function; may not be null
+     */
+    public void forEach(Consumer<? super V> function) {
+        for (Stripe<V> stripe : stripes) {
+            stripe.forEach(function);
+        }
+    }
+
+    private static final class Stripe<V> {
+        @GuardedBy("this")
+        private long[] keys;
+        @GuardedBy("this")
+        private Object[] values;
+        @GuardedBy("this")
+        private int size;
+
+        Stripe(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        @GuardedBy("this")
+        private int indexOf(long key, int hash) {
+            int mask = values.length - 1;
+            int index = hash & mask;
+            while (values[index] != null && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V get(long key, int hash) {
+            return (V) values[indexOf(key, hash)];
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V put(long key, int hash, V value) {
+            int index = indexOf(key, hash);
+            V existing = (V) values[index];
+            keys[index] = key;
+            values[index] = value;
+            if (existing == null && ++size > values.length / 2) resize();
+            return existing;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized V remove(long key, int hash) {
+            int index = indexOf(key, hash);
+            V existing = (V) values[index];
+            if (existing == null) return null;
+            values[index] = null;
+            --size;
+            // Shift back any later entries in the same probe sequence so that lookups never stop early ...
+            int mask = values.length - 1;
+            int empty = index;
+            int next = (index + 1) & mask;
+            while (values[next] != null) {
+                int ideal = mix(keys[next]) & mask;
+                // Move the entry only if its ideal slot is not cyclically within (empty, next] ...
+                if (((next - ideal) & mask) >= ((next - empty) & mask)) {
+                    keys[empty] = keys[next];
+                    values[empty] = values[next];
+                    values[next] = null;
+                    empty = next;
+                }
+                next = (next + 1) & mask;
+            }
+            return existing;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void forEach(Consumer<? super V> function) {
+            for (Object value : values) {
+                if (value != null) function.accept((V) value);
+            }
+        }
+
+        @GuardedBy("this")
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[oldValues.length * 2];
+            values = new Object[oldValues.length * 2];
+            for (int i = 0; i != oldValues.length; ++i) {
+                if (oldValues[i] != null) {
+                    int index = indexOf(oldKeys[i], mix(oldKeys[i]));
+                    keys[index] = oldKeys[i];
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.debezium.core.annotation.ThreadSafe;
+
+/**
+ * Coalesces concurrent identical operations, so that only the first caller for a key actually performs the operation and all other
+ * callers that arrive while it is in flight share its result. A key is forgotten as soon as its operation completes, so results
+ * are never reused after that.
+ *
+ * @param <K> the type of key
+ * @param <V> the type of result
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copier;
+
+    /**
+     * Create a new instance that gives every caller the same result object.
+     */
+    SingleFlight() {
+        this(UnaryOperator.identity());
+    }
+
+    /**
+     * Create a new instance that gives each caller that joins an operation its own copy of the result.
+     *
+     * @param copier the function that copies a non-null result; may not be null
+     */
+    SingleFlight(UnaryOperator<V> copier) {
+        this.copier = copier;
+    }
+
+    /**
+     * Perform the operation for the given key, or join the operation that is already in flight for the key.
+     *
+     * @param key the key; may not be null
+     * @param operation the function that starts the operation; called only if no operation for the key is in flight, and any
+     *            runtime exception it throws is propagated to the caller
+     * @return the future result of the operation; never null
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> operation) {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            // Each caller gets its own future, so one caller cannot complete or cancel the shared future ...
+            CompletableFuture<V> joined = new CompletableFuture<>();
+            existing.whenComplete((value, error) -> complete(joined, value != null ? copier.apply(value) : null, error));
+            return joined;
+        }
+        CompletableFuture<V> result = null;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((value, error) -> {
+            inFlight.remove(key, shared);
+            complete(shared, value, error);
+        });
+        return result;
+    }
+
+    private static <V> void complete(CompletableFuture<V> future, V value, Throwable error) {
+        if (error == null) {
+            future.complete(value);
+        } else {
+            // Report the same exception that the first caller receives ...
+            future.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }
+    }
+
+    /**
+     * Forget any operation that is in flight for the given key, so that subsequent callers do not join it. Callers that already
+     * joined it still receive its result. This should be called whenever the in-flight result may have become stale.
+     *
+     * @param key the key; may not be null
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * Get the number of operations that are in flight.
+     *
+     * @return the number of in-flight operations; never negative
+     */
+    public int size() {
+        return inFlight.size();
+    }
+}
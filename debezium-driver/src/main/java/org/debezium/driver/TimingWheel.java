@@ -0,0 +1,154 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.debezium.core.annotation.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hashed timing wheel that runs tasks after a delay, with a precision of one tick. Scheduling and cancelling a task are
+ * constant-time operations, and all of the tasks that expire in a tick are found together when the wheel is
+ * {@link #advance() advanced}. This is far cheaper than a priority queue when there are many outstanding timeouts, most of which
+ * are cancelled before they expire.
+ * <p>
+ * Tasks may be scheduled and cancelled by any thread, but only one thread at a time should {@link #advance() advance} the wheel,
+ * and that thread runs the expired tasks.
+ *
+ * @author Randall Hauch
+ */
+@ThreadSafe
+final class TimingWheel {
+
+    /**
+     * A handle for a scheduled task.
+     */
+    @FunctionalInterface
+    public static interface Timeout {
+        /**
+         * Cancel the task if it has not yet run.
+         *
+         * @return {@code true} if the task was cancelled, or {@code false} if it had already run or been cancelled
+         */
+        public boolean cancel();
+    }
+
+    private static final class Task implements Timeout {
+        private final long deadline;
+        private final Runnable runnable;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Task(long deadline, Runnable runnable) {
+            this.deadline = deadline;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+
+        boolean isDone() {
+            return done.get();
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Task>[] buckets;
+    private final LongSupplier nanoClock;
+    private final long start;
+    private volatile long processedTick;
+
+    /**
+     * Create a timing wheel that uses {@link System#nanoTime()}.
+     *
+     * @param tickDuration the duration of one tick; must be positive
+     * @param unit the unit of the tick duration; may not be null
+     * @param ticksPerWheel the number of buckets in the wheel, which is rounded up to a power of 2
+     */
+    TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this(tickDuration, unit, ticksPerWheel, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickDuration, TimeUnit unit, int ticksPerWheel, LongSupplier nanoClock) {
+        if (tickDuration <= 0) throw new IllegalArgumentException("The tick duration must be positive");
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i != size; ++i) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.nanoClock = nanoClock;
+        this.start = nanoClock.getAsLong();
+    }
+
+    /**
+     * Schedule the task to be run by the thread that {@link #advance() advances} the wheel once the delay has passed. A task
+     * that is added just as its bucket is being processed may run up to one revolution of the wheel late.
+     *
+     * @param delay the delay before the task should be run
+     * @param unit the unit of the delay; may not be null
+     * @param runnable the task; may not be null
+     * @return the handle that can be used to cancel the task; never null
+     */
+    public Timeout schedule(long delay, TimeUnit unit, Runnable runnable) {
+        long elapsed = nanoClock.getAsLong() - start + unit.toNanos(Math.max(0L, delay));
+        // Round up to the next tick, but never to a tick that has already been processed ...
+        long deadline = Math.max((elapsed + tickNanos - 1) / tickNanos, processedTick + 1);
+        Task task = new Task(deadline, runnable);
+        buckets[(int) (deadline & mask)].add(task);
+        return task;
+    }
+
+    /**
+     * Run all of the tasks that have expired since the last time this method was called. This should be called periodically by a
+     * single thread, preferably about once per tick.
+     *
+     * @return the number of tasks that were run
+     */
+    public int advance() {
+        long currentTick = (nanoClock.getAsLong() - start) / tickNanos;
+        long tick = processedTick;
+        if (currentTick <= tick) return 0;
+        // There's no need to visit any bucket more than once ...
+        long first = Math.max(tick + 1, currentTick - mask);
+        int expired = 0;
+        for (long t = first; t <= currentTick; ++t) {
+            Iterator<Task> iter = buckets[(int) (t & mask)].iterator();
+            while (iter.hasNext()) {
+                Task task = iter.next();
+                if (task.isDone()) {
+                    iter.remove();
+                } else if (task.deadline <= currentTick) {
+                    iter.remove();
+                    if (task.cancel()) {
+                        try {
+                            task.runnable.run();
+                        } catch (RuntimeException e) {
+                            LOGGER.error("Error while running expired task", e);
+                        }
+                        ++expired;
+                    }
+                }
+                // Otherwise the task expires in a later revolution of the wheel ...
+            }
+        }
+        processedTick = currentTick;
+        return expired;
+    }
+}
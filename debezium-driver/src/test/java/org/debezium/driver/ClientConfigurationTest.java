@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class ClientConfigurationTest {
+
+    protected ClientConfiguration config(String... keysAndValues) {
+        Properties props = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            props.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return ClientConfiguration.adapt(Configuration.from(props));
+    }
+
+    @Test
+    public void shouldEnableMicroBatchingOnlyWhenSomeDatabaseIsMicroBatched() {
+        assertThat(config().isMicroBatchEnabled()).isFalse();
+        assertThat(config("micro.batch.linger.ms", "10", "micro.batch.max.size", "50").isMicroBatchEnabled()).isFalse();
+        assertThat(config("micro.batch", "false", "micro.batch.db1", "false").isMicroBatchEnabled()).isFalse();
+        assertThat(config("micro.batch", "true").isMicroBatchEnabled()).isTrue();
+        assertThat(config("micro.batch.db1", "true").isMicroBatchEnabled()).isTrue();
+        assertThat(config("micro.batch", "false", "micro.batch.db1", "true").isMicroBatchEnabled()).isTrue();
+    }
+}
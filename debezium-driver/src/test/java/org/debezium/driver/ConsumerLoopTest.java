@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class ConsumerLoopTest {
+
+    private static final int[] END = new int[0];
+
+    /**
+     * A source of {@code [stripe, sequence]} pairs that times out every 10 milliseconds while it has no messages.
+     */
+    protected static final class QueueSource implements ConsumerLoop.Source<int[]> {
+        private final BlockingQueue<int[]> queue = new LinkedBlockingQueue<>();
+        private final AtomicInteger awaits = new AtomicInteger();
+        private int[] next;
+
+        public void add(int stripe, int sequence) {
+            queue.add(new int[] { stripe, sequence });
+        }
+
+        public void end() {
+            queue.add(END);
+        }
+
+        @Override
+        public boolean await() {
+            awaits.incrementAndGet();
+            try {
+                next = queue.poll(10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+                return false;
+            }
+            if (next == END) throw new NoSuchElementException();
+            return next != null;
+        }
+
+        @Override
+        public int[] next() {
+            return next;
+        }
+    }
+
+    private ExecutorService executor;
+    private AtomicBoolean running;
+
+    @Before
+    public void beforeEach() {
+        executor = Executors.newCachedThreadPool();
+        running = new AtomicBoolean(true);
+    }
+
+    @After
+    public void afterEach() throws InterruptedException {
+        running.set(false);
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldProcessMessagesOfEachStripeInOrder() throws InterruptedException {
+        Map<Integer, List<Integer>> processed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(200);
+        ConsumerLoop<int[]> loop = new ConsumerLoop<>("test", 3, 5, msg -> msg[0], msg -> {
+            processed.computeIfAbsent(msg[0], stripe -> new CopyOnWriteArrayList<>()).add(msg[1]);
+            done.countDown();
+        }, executor, running::get);
+        QueueSource source1 = new QueueSource();
+        QueueSource source2 = new QueueSource();
+        loop.start(Arrays.asList(source1, source2));
+        for (int i = 0; i != 100; ++i) {
+            source1.add(i % 4, i);
+            source2.add(4 + i % 4, i);
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int stripe = 0; stripe != 8; ++stripe) {
+            List<Integer> sequence = processed.get(stripe);
+            assertThat(sequence.size()).isEqualTo(25);
+            List<Integer> sorted = new ArrayList<>(sequence);
+            sorted.sort(null);
+            assertThat(sequence).isEqualTo(sorted);
+        }
+    }
+
+    @Test
+    public void shouldNotStallFetchingWhileMessagesAreProcessedSlowly() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        ConsumerLoop<int[]> loop = new ConsumerLoop<>("test", 1, 10, msg -> msg[0], msg -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+            done.countDown();
+        }, executor, running::get);
+        QueueSource source = new QueueSource();
+        loop.start(Arrays.asList(source));
+        for (int i = 0; i != 4; ++i) {
+            source.add(0, i);
+        }
+        // The fetch thread keeps reading even though the first message is still being processed ...
+        for (int i = 0; i != 100 && !source.queue.isEmpty(); ++i) {
+            Thread.sleep(10);
+        }
+        assertThat(source.queue.isEmpty()).isTrue();
+        release.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldStopFetchingWhenNoLongerRunningOrWhenSourceEnds() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        ConsumerLoop<int[]> loop = new ConsumerLoop<>("test", 1, 10, msg -> msg[0], msg -> done.countDown(), executor, running::get);
+        QueueSource source1 = new QueueSource();
+        QueueSource source2 = new QueueSource();
+        loop.start(Arrays.asList(source1, source2));
+        source1.end();
+        source2.add(0, 1);
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        running.set(false);
+        Thread.sleep(100);
+        // Neither source is polled anymore ...
+        int awaits1 = source1.awaits.get();
+        int awaits2 = source2.awaits.get();
+        Thread.sleep(100);
+        assertThat(source1.awaits.get()).isEqualTo(awaits1);
+        assertThat(source2.awaits.get()).isEqualTo(awaits2);
+    }
+
+    @Test
+    public void shouldTerminateAfterWorkersHaveProcessedQueuedMessages() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> processed = new CopyOnWriteArrayList<>();
+        ConsumerLoop<int[]> loop = new ConsumerLoop<>("test", 1, 10, msg -> msg[0], msg -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+            processed.add(msg[1]);
+        }, executor, running::get);
+        QueueSource source = new QueueSource();
+        source.add(0, 1);
+        source.add(0, 2);
+        source.add(0, 3);
+        loop.start(Arrays.asList(source));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i != 100 && !source.queue.isEmpty(); ++i) {
+            Thread.sleep(10);
+        }
+        running.set(false);
+        // The fetch thread has stopped, but the worker is still processing the queued messages ...
+        assertThat(loop.awaitTermination(100, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        assertThat(loop.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(processed).isEqualTo(Arrays.asList(1, 2, 3));
+    }
+
+    @Test
+    public void shouldTerminateImmediatelyWithoutSources() throws InterruptedException {
+        ConsumerLoop<int[]> loop = new ConsumerLoop<>("test", 3, 10, msg -> msg[0], msg -> {}, executor, running::get);
+        loop.start(new ArrayList<>());
+        assertThat(loop.awaitTermination(0, TimeUnit.MILLISECONDS)).isTrue();
+    }
+}
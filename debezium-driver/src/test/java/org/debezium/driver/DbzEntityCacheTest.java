@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.debezium.core.component.EntityId;
+import org.debezium.core.component.Identifier;
+import org.debezium.core.doc.Document;
+import org.debezium.core.doc.Value;
+import org.debezium.core.message.Message;
+import org.debezium.core.message.Patch;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class DbzEntityCacheTest {
+
+    private static final EntityId ID1 = Identifier.of("db", "collection", "ent1");
+    private static final EntityId ID2 = Identifier.of("db", "collection", "ent2");
+    private static final EntityId ID3 = Identifier.of("db", "collection", "ent3");
+    private static final EntityId OTHER = Identifier.of("other", "collection", "ent1");
+
+    private AtomicLong nanos;
+    private DbzEntityCache cache;
+
+    @Before
+    public void beforeEach() {
+        nanos = new AtomicLong();
+        cache = new DbzEntityCache(dbId -> dbId.equals("db") ? 2 : 0, 100, TimeUnit.MILLISECONDS, true, nanos::get);
+    }
+
+    protected void advanceTo(long millis) {
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    protected Document entity(int value) {
+        return Document.create("value", value);
+    }
+
+    protected Document update(Patch<EntityId> patch, Document after, long ended) {
+        Document update = patch.asDocument();
+        Message.setOperations(update, patch);
+        if (after != null) Message.setAfter(update, after);
+        Message.setEnded(update, ended);
+        return update;
+    }
+
+    protected int valueOf(EntityId id) {
+        return cache.get(id).asDocument().getInteger("value");
+    }
+
+    @Test
+    public void shouldReturnCopyOfCachedEntity() {
+        cache.put(ID1, entity(1), 10L);
+        Entity cached = cache.get(ID1);
+        assertThat(cached.id()).isEqualTo(ID1);
+        cached.asDocument().setNumber("value", 2);
+        assertThat(valueOf(ID1)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheEntitiesInOtherDatabases() {
+        cache.put(OTHER, entity(1), 10L);
+        assertThat(cache.get(OTHER)).isNull();
+        assertThat(cache.size("other")).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntity() {
+        cache.put(ID1, entity(1), 10L);
+        cache.put(ID2, entity(2), 10L);
+        assertThat(cache.get(ID1)).isNotNull();
+        cache.put(ID3, entity(3), 10L);
+        assertThat(cache.size("db")).isEqualTo(2);
+        assertThat(cache.get(ID2)).isNull();
+        assertThat(valueOf(ID1)).isEqualTo(1);
+        assertThat(valueOf(ID3)).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotReturnEntityOlderThanMaximumAge() {
+        cache.put(ID1, entity(1), 10L);
+        advanceTo(99);
+        assertThat(cache.get(ID1)).isNotNull();
+        advanceTo(100);
+        assertThat(cache.get(ID1)).isNull();
+    }
+
+    @Test
+    public void shouldRefreshCachedEntityFromNewerUpdate() {
+        cache.put(ID1, entity(1), 10L);
+        advanceTo(90);
+        cache.update(ID1, update(Patch.edit(ID1).replace("value", Value.create(2)).end(), entity(2), 20L));
+        advanceTo(150);
+        assertThat(valueOf(ID1)).isEqualTo(2);
+        cache.update(ID1, update(Patch.edit(ID1).replace("value", Value.create(0)).end(), entity(0), 15L));
+        assertThat(valueOf(ID1)).isEqualTo(2);
+        cache.put(ID1, entity(0), 19L);
+        assertThat(valueOf(ID1)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotCacheEntitiesOnlySeenInUpdates() {
+        cache.update(ID1, update(Patch.create(ID1, entity(1)), entity(1), 20L));
+        assertThat(cache.get(ID1)).isNull();
+    }
+
+    @Test
+    public void shouldRemoveDestroyedOrInvalidatedEntity() {
+        cache.put(ID1, entity(1), 10L);
+        cache.put(ID2, entity(2), 10L);
+        cache.update(ID1, update(Patch.destroy(ID1), null, 20L));
+        assertThat(cache.get(ID1)).isNull();
+        cache.invalidate(ID2);
+        assertThat(cache.get(ID2)).isNull();
+        assertThat(cache.size("db")).isEqualTo(0);
+    }
+}
@@ -7,12 +7,16 @@ package org.debezium.driver;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.debezium.core.doc.Document;
 import org.debezium.core.message.Message;
 import org.debezium.core.message.Topic;
+import org.debezium.driver.DbzPartialResponses.PartialResponseStream;
 import org.junit.Test;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -154,4 +158,95 @@ public class DbzPartialResponsesTest extends AbstractDbzNodeTest {
         });
     }
 
+    @Test
+    public void shouldStreamEachPartialResponseAsItArrives() {
+        AtomicReference<Document> requestDoc = new AtomicReference<>();
+        try (PartialResponseStream stream = responses.stream(2, requestId -> {
+            Document request = Document.create("key", "key1");
+            Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), "jsmith");
+            requestDoc.set(request);
+        })) {
+            // Send only the first part, and we should be able to get it before the second part is sent ...
+            Document request = requestDoc.get();
+            Message.setParts(request, 1, 2);
+            node.send(Topic.PARTIAL_RESPONSES, "key1", request.clone());
+            assertThat(stream.remaining()).isEqualTo(2);
+            assertThat(Message.getPart(stream.poll(10, TimeUnit.SECONDS))).isEqualTo(1);
+            assertThat(stream.remaining()).isEqualTo(1);
+
+            Message.setParts(request, 2, 2);
+            node.send(Topic.PARTIAL_RESPONSES, "key2", request.clone());
+            assertThat(Message.getPart(stream.poll(10, TimeUnit.SECONDS))).isEqualTo(2);
+            assertThat(stream.remaining()).isEqualTo(0);
+            assertThat(stream.poll(10, TimeUnit.SECONDS)).isNull();
+        }
+    }
+
+    @Test
+    public void shouldStopWaitingForPartialResponsesWhenStreamIsClosed() throws InterruptedException {
+        PartialResponseStream stream = responses.stream(3, requestId -> {
+        });
+        CountDownLatch polling = new CountDownLatch(1);
+        AtomicReference<Document> polled = new AtomicReference<>(Document.create());
+        Thread consumer = new Thread(() -> {
+            polling.countDown();
+            polled.set(stream.poll(10, TimeUnit.SECONDS));
+        });
+        consumer.start();
+        polling.await(10, TimeUnit.SECONDS);
+        stream.close();
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(consumer.isAlive()).isFalse();
+        assertThat(polled.get()).isNull();
+        assertThat(stream.isClosed()).isTrue();
+        assertThat(stream.poll(10, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    public void shouldCompleteFutureWhenResponseArrives() {
+        CompletableFuture<String> future = responses.submitAsync(requestId -> {
+            Document request = Document.create("key", "key1");
+            Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), "jsmith");
+            node.send(Topic.PARTIAL_RESPONSES, "key1", request);
+        }, 10, TimeUnit.SECONDS, response -> response.getString("key"), () -> {
+            fail("Should not have timed out");
+            return null;
+        });
+        assertThat(future.join()).isEqualTo("key1");
+    }
+
+    @Test
+    public void shouldCompleteFutureAfterAllPartialResponsesArrive() {
+        Map<Integer, Document> responseByPart = new HashMap<>();
+        CompletableFuture<Void> future = responses.submitAsync(2, requestId -> {
+            Document request = Document.create("key", "key1");
+            Message.addHeaders(request, requestId.getClientId(), requestId.getRequestNumber(), "jsmith");
+            Message.setParts(request, 2, 2);
+            node.send(Topic.PARTIAL_RESPONSES, "key2", request.clone());
+            Message.setParts(request, 1, 2);
+            node.send(Topic.PARTIAL_RESPONSES, "key1", request.clone());
+        }, 10, TimeUnit.SECONDS, response -> responseByPart.put(Message.getPart(response), response), () -> {
+            fail("Should not have timed out");
+            return null;
+        });
+        future.join();
+        assertThat(responseByPart.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCompleteFutureExceptionallyWhenResponseTimesOut() {
+        // Submit nothing, so the future is completed only by the timeout ...
+        CompletableFuture<Boolean> future = responses.submitAsync(requestId -> {
+        }, 5, TimeUnit.MILLISECONDS, response -> {
+            fail("Should not have gotten a response");
+            return Boolean.FALSE;
+        }, DebeziumTimeoutException::new);
+        try {
+            future.join();
+            fail("Should not have completed normally");
+        } catch (CompletionException e) {
+            assertThat(e.getCause()).isInstanceOf(DebeziumTimeoutException.class);
+        }
+    }
+
 }
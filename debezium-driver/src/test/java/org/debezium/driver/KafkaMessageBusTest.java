@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import kafka.consumer.ConsumerConfig;
+import kafka.consumer.FetchedDataChunk;
+import kafka.consumer.KafkaStream;
+import kafka.consumer.PartitionTopicInfo;
+import kafka.consumer.TopicFilter;
+import kafka.consumer.Whitelist;
+import kafka.consumer.ZookeeperConsumerConnector;
+import kafka.javaapi.consumer.ConsumerConnector;
+import kafka.message.ByteBufferMessageSet;
+import kafka.message.Message;
+
+import org.debezium.core.serde.Decoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class KafkaMessageBusTest {
+
+    private static final String TOPIC = "entity-updates";
+    private static final Decoder<String> STRINGS = bytes -> new String(bytes, StandardCharsets.UTF_8);
+
+    /**
+     * A consumer connector whose streams read the messages that are {@link #send sent} to it, and that records when offsets are
+     * committed and when it is shut down.
+     */
+    protected static final class StubConnector implements ConsumerConnector {
+        private final int consumerTimeoutMs;
+        private final List<String> events;
+        private final List<BlockingQueue<FetchedDataChunk>> queues = new CopyOnWriteArrayList<>();
+
+        public StubConnector(ConsumerConfig config, List<String> events) {
+            this.consumerTimeoutMs = config.consumerTimeoutMs();
+            this.events = events;
+        }
+
+        public void send(int stream, int partition, long firstOffset, String... values) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long offset = firstOffset;
+            for (String value : values) {
+                Message message = new Message(value.getBytes(StandardCharsets.UTF_8), ("key-" + offset).getBytes(StandardCharsets.UTF_8));
+                buffer.putLong(offset++);
+                buffer.putInt(message.size());
+                buffer.put(message.buffer().duplicate());
+            }
+            buffer.flip();
+            BlockingQueue<FetchedDataChunk> queue = queues.get(stream);
+            PartitionTopicInfo info = new PartitionTopicInfo(TOPIC, partition, queue, new AtomicLong(firstOffset),
+                    new AtomicLong(firstOffset), new AtomicInteger(buffer.limit()), "test");
+            queue.add(new FetchedDataChunk(new ByteBufferMessageSet(buffer), info, firstOffset));
+        }
+
+        @Override
+        public <K, V> List<KafkaStream<K, V>> createMessageStreamsByFilter(TopicFilter topicFilter, int numStreams,
+                                                                            kafka.serializer.Decoder<K> keyDecoder,
+                                                                            kafka.serializer.Decoder<V> valueDecoder) {
+            List<KafkaStream<K, V>> streams = new ArrayList<>();
+            for (int i = 0; i != numStreams; ++i) {
+                BlockingQueue<FetchedDataChunk> queue = new LinkedBlockingQueue<>();
+                queues.add(queue);
+                streams.add(new KafkaStream<>(queue, consumerTimeoutMs, keyDecoder, valueDecoder, "test"));
+            }
+            return streams;
+        }
+
+        @Override
+        public List<KafkaStream<byte[], byte[]>> createMessageStreamsByFilter(TopicFilter topicFilter, int numStreams) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<KafkaStream<byte[], byte[]>> createMessageStreamsByFilter(TopicFilter topicFilter) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <K, V> Map<String, List<KafkaStream<K, V>>> createMessageStreams(Map<String, Integer> topicCountMap,
+                                                                                 kafka.serializer.Decoder<K> keyDecoder,
+                                                                                 kafka.serializer.Decoder<V> valueDecoder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, List<KafkaStream<byte[], byte[]>>> createMessageStreams(Map<String, Integer> topicCountMap) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void commitOffsets() {
+            events.add("commit");
+        }
+
+        @Override
+        public void commitOffsets(boolean retryOnFailure) {
+            commitOffsets();
+        }
+
+        @Override
+        public void shutdown() {
+            events.add("shutdown");
+            // Like the real connector, this ends each of the streams ...
+            queues.forEach(queue -> queue.add(ZookeeperConsumerConnector.shutdownCommand()));
+        }
+    }
+
+    private ExecutorService executor;
+    private List<String> events;
+    private List<StubConnector> connectors;
+    private KafkaMessageBus bus;
+
+    @Before
+    public void beforeEach() {
+        executor = Executors.newCachedThreadPool();
+        events = new CopyOnWriteArrayList<>();
+        connectors = new CopyOnWriteArrayList<>();
+        Properties props = new Properties();
+        props.setProperty("initialize.producers", "false");
+        props.setProperty("offset.commit.messages", "2");
+        props.setProperty("offset.commit.interval.ms", "3600000");
+        props.setProperty("consumers.zookeeper.connect", "localhost:2181");
+        props.setProperty("consumers.consumer.timeout.ms", "10");
+        bus = new KafkaMessageBus(Configuration.from(props), () -> executor, KafkaPartitionConsumer.BROKERS, config -> {
+            StubConnector connector = new StubConnector(config, events);
+            connectors.add(connector);
+            return connector;
+        });
+    }
+
+    @After
+    public void afterEach() throws InterruptedException {
+        bus.shutdown();
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    protected boolean consume(String topic, int partition, long offset, String key, String message) {
+        events.add("consume " + partition + ":" + offset + ":" + key + ":" + message);
+        return true;
+    }
+
+    protected long count(String event) {
+        return events.stream().filter(event::equals).count();
+    }
+
+    protected void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i != 1000 && !condition.getAsBoolean(); ++i) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    public void shouldCommitOffsetsOfConsumedMessagesInBatchesAndOnShutdown() throws InterruptedException {
+        bus.subscribe("group", new Whitelist(TOPIC), 2, STRINGS, STRINGS, this::consume);
+        assertThat(connectors.size()).isEqualTo(1);
+        StubConnector connector = connectors.get(0);
+        connector.send(0, 0, 0L, "a", "b", "c", "d");
+        awaitUntil(() -> count("consume 0:3:key-3:d") == 1 && bus.uncommittedMessageCount() == 0);
+        // The four messages are committed in at most two batches rather than after every message ...
+        assertThat(events.subList(0, 4)).containsExactly("consume 0:0:key-0:a", "consume 0:1:key-1:b", "consume 0:2:key-2:c",
+                                                         "consume 0:3:key-3:d");
+        assertThat(count("commit")).isGreaterThan(0L).isLessThan(3L);
+        long commits = count("commit");
+
+        connector.send(1, 1, 7L, "e");
+        awaitUntil(() -> bus.uncommittedMessageCount() == 1L);
+        Map<String, Long> lags = new HashMap<>();
+        lags.put("group/" + TOPIC + "/0", 0L);
+        lags.put("group/" + TOPIC + "/1", 8L);
+        assertThat(bus.commitLag()).isEqualTo(lags);
+        assertThat(count("commit")).isEqualTo(commits);
+
+        // Shutting down commits the remaining offsets before the connector is shut down ...
+        bus.shutdown();
+        assertThat(count("commit")).isEqualTo(commits + 1);
+        assertThat(events.get(events.size() - 1)).isEqualTo("shutdown");
+        assertThat(events.get(events.size() - 2)).isEqualTo("commit");
+        assertThat(bus.uncommittedMessageCount()).isEqualTo(0L);
+        assertThat(bus.commitLag().isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldShareConnectorAndCommitterAcrossSubscriptionsOfSameGroup() {
+        bus.subscribe("group", new Whitelist(TOPIC), 1, STRINGS, STRINGS, this::consume);
+        bus.subscribe("group", new Whitelist("other"), 1, STRINGS, STRINGS, this::consume);
+        bus.subscribe("another", new Whitelist(TOPIC), 1, STRINGS, STRINGS, this::consume);
+        assertThat(connectors.size()).isEqualTo(2);
+        bus.shutdown();
+        assertThat(count("shutdown")).isEqualTo(2L);
+        // Nothing was consumed, so there was nothing to commit ...
+        assertThat(count("commit")).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldProcessQueuedMessagesBeforeFinalCommitOnShutdown() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe("group", new Whitelist(TOPIC), 1, STRINGS, STRINGS, (topic, partition, offset, key, message) -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.interrupted();
+            }
+            return consume(topic, partition, offset, key, message);
+        });
+        connectors.get(0).send(0, 0, 0L, "a", "b", "c");
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Shut down while the first message is being processed and the others are still queued ...
+        Thread shutdown = new Thread(bus::shutdown);
+        shutdown.start();
+        shutdown.join(100);
+        assertThat(shutdown.isAlive()).isTrue();
+        assertThat(events.isEmpty()).isTrue();
+        release.countDown();
+        shutdown.join(10000);
+        assertThat(shutdown.isAlive()).isFalse();
+
+        // The loop stopped and drained its workers, then the offsets were committed, and then the connector was shut down ...
+        assertThat(events).containsExactly("consume 0:0:key-0:a", "consume 0:1:key-1:b", "consume 0:2:key-2:c", "commit",
+                                           "shutdown");
+    }
+
+    @Test
+    public void shouldStopConsumerLoopsWithoutConsumerTimeout() throws InterruptedException {
+        Properties props = new Properties();
+        props.setProperty("initialize.producers", "false");
+        props.setProperty("consumers.zookeeper.connect", "localhost:2181");
+        List<ConsumerConfig> configs = new ArrayList<>();
+        KafkaMessageBus bus = new KafkaMessageBus(Configuration.from(props), () -> executor, KafkaPartitionConsumer.BROKERS, config -> {
+            configs.add(config);
+            return new StubConnector(config, events);
+        });
+        bus.subscribe("group", new Whitelist(TOPIC), 1, STRINGS, STRINGS, this::consume);
+        // The fetch threads need a timeout to notice that the bus is no longer running ...
+        assertThat(configs.get(0).consumerTimeoutMs()).isGreaterThan(0);
+        long start = System.currentTimeMillis();
+        bus.shutdown();
+        assertThat(System.currentTimeMillis() - start).isLessThan(5000L);
+        assertThat(events).containsExactly("shutdown");
+    }
+}
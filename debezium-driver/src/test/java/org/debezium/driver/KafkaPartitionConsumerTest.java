@@ -0,0 +1,258 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import kafka.api.FetchRequest;
+import kafka.cluster.Broker;
+import kafka.common.ErrorMapping;
+import kafka.common.TopicAndPartition;
+import kafka.javaapi.FetchResponse;
+import kafka.javaapi.OffsetRequest;
+import kafka.javaapi.OffsetResponse;
+import kafka.javaapi.PartitionMetadata;
+import kafka.javaapi.TopicMetadata;
+import kafka.javaapi.TopicMetadataRequest;
+import kafka.javaapi.TopicMetadataResponse;
+import kafka.javaapi.consumer.SimpleConsumer;
+import kafka.javaapi.message.ByteBufferMessageSet;
+import kafka.message.Message;
+
+import org.debezium.core.serde.Decoder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class KafkaPartitionConsumerTest {
+
+    private static final String TOPIC = "partial-responses";
+    private static final Decoder<String> STRINGS = bytes -> new String(bytes, StandardCharsets.UTF_8);
+
+    /**
+     * A fake cluster that hands out {@link SimpleConsumer}s that answer from canned metadata, offsets, and fetch responses.
+     */
+    protected static final class Cluster implements KafkaPartitionConsumer.Connector {
+        private final Set<String> down = new HashSet<>();
+        private final List<PartitionMetadata> partitions = new ArrayList<>();
+        private final Queue<Long> latestOffsets = new LinkedList<>();
+        private final Queue<FetchResponse> fetches = new LinkedList<>();
+        private final List<String> connections = new ArrayList<>();
+        private final List<Long> fetchedOffsets = new ArrayList<>();
+        private int closed;
+
+        public void leader(int partition, String host, int port) {
+            Broker leader = new Broker(partition, host, port);
+            partitions.add(new PartitionMetadata(null) {
+                @Override
+                public int partitionId() {
+                    return partition;
+                }
+
+                @Override
+                public Broker leader() {
+                    return leader;
+                }
+            });
+        }
+
+        public void messages(long firstOffset, String... values) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long offset = firstOffset;
+            for (String value : values) {
+                Message message = new Message(value.getBytes(StandardCharsets.UTF_8), ("key-" + offset).getBytes(StandardCharsets.UTF_8));
+                buffer.putLong(offset++);
+                buffer.putInt(message.size());
+                buffer.put(message.buffer().duplicate());
+            }
+            buffer.flip();
+            ByteBufferMessageSet messageSet = new ByteBufferMessageSet(buffer);
+            fetches.add(response(ErrorMapping.NoError(), messageSet));
+        }
+
+        public void error(short errorCode) {
+            fetches.add(response(errorCode, null));
+        }
+
+        private FetchResponse response(short errorCode, ByteBufferMessageSet messageSet) {
+            return new FetchResponse(null) {
+                @Override
+                public boolean hasError() {
+                    return errorCode != ErrorMapping.NoError();
+                }
+
+                @Override
+                public short errorCode(String topic, int partition) {
+                    return errorCode;
+                }
+
+                @Override
+                public ByteBufferMessageSet messageSet(String topic, int partition) {
+                    return messageSet;
+                }
+            };
+        }
+
+        public boolean hasMoreFetches() {
+            return !fetches.isEmpty();
+        }
+
+        @Override
+        public SimpleConsumer connect(String host, int port, String clientId) {
+            String broker = host + ":" + port;
+            connections.add(broker);
+            return new SimpleConsumer(host, port, 1000, 1024, clientId) {
+                @Override
+                public TopicMetadataResponse send(TopicMetadataRequest request) {
+                    if (down.contains(broker)) throw new IllegalStateException("Broker " + broker + " is down");
+                    assertThat(request.topics()).isEqualTo(Collections.singletonList(TOPIC));
+                    TopicMetadata metadata = new TopicMetadata(null) {
+                        @Override
+                        public String topic() {
+                            return TOPIC;
+                        }
+
+                        @Override
+                        public short errorCode() {
+                            return ErrorMapping.NoError();
+                        }
+
+                        @Override
+                        public List<PartitionMetadata> partitionsMetadata() {
+                            return partitions;
+                        }
+                    };
+                    return new TopicMetadataResponse(null) {
+                        @Override
+                        public List<TopicMetadata> topicsMetadata() {
+                            return Collections.singletonList(metadata);
+                        }
+                    };
+                }
+
+                @Override
+                public OffsetResponse getOffsetsBefore(OffsetRequest request) {
+                    long offset = latestOffsets.remove();
+                    return new OffsetResponse(null) {
+                        @Override
+                        public boolean hasError() {
+                            return false;
+                        }
+
+                        @Override
+                        public long[] offsets(String topic, int partition) {
+                            return new long[] { offset };
+                        }
+                    };
+                }
+
+                @Override
+                public FetchResponse fetch(FetchRequest request) {
+                    fetchedOffsets.add(request.requestInfo().apply(new TopicAndPartition(TOPIC, 1)).offset());
+                    return fetches.remove();
+                }
+
+                @Override
+                public void close() {
+                    ++closed;
+                }
+            };
+        }
+    }
+
+    private Cluster cluster;
+    private List<String> consumed;
+
+    @Before
+    public void beforeEach() {
+        cluster = new Cluster();
+        consumed = new ArrayList<>();
+        cluster.down.add("down:9092");
+        cluster.leader(0, "hostA", 9093);
+        cluster.leader(1, "hostB", 9094);
+    }
+
+    protected KafkaPartitionConsumer<String, String> consumer(int partition) {
+        return new KafkaPartitionConsumer<>(cluster, Arrays.asList("down:9092", "up:9092"), "client", TOPIC, partition, STRINGS,
+                STRINGS, (topic, part, offset, key, message) -> consumed.add(offset + ":" + key + ":" + message), cluster::hasMoreFetches);
+    }
+
+    @Test
+    public void shouldCountPartitionsUsingFirstAvailableBroker() {
+        assertThat(KafkaPartitionConsumer.partitionCount(cluster, Arrays.asList("down:9092", "up:9092"), TOPIC, "client")).isEqualTo(2);
+        assertThat(cluster.connections).isEqualTo(Arrays.asList("down:9092", "up:9092"));
+        assertThat(cluster.closed).isEqualTo(2);
+        cluster.down.add("up:9092");
+        assertThat(KafkaPartitionConsumer.partitionCount(cluster, Arrays.asList("down:9092", "up:9092"), TOPIC, "client")).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldReadFromLeaderOfPartitionStartingAtEndOfPartition() {
+        cluster.latestOffsets.add(42L);
+        KafkaPartitionConsumer<String, String> consumer = consumer(1);
+        // The leader of partition 1 is found through the first broker that is up ...
+        assertThat(cluster.connections).isEqualTo(Arrays.asList("down:9092", "up:9092", "hostB:9094"));
+        cluster.messages(42L, "a", "b");
+        cluster.messages(44L, "c");
+        consumer.run();
+        assertThat(cluster.fetchedOffsets).isEqualTo(Arrays.asList(42L, 44L));
+        assertThat(consumed).isEqualTo(Arrays.asList("42:key-42:a", "43:key-43:b", "44:key-44:c"));
+        // Every consumer, including the leader's, is closed ...
+        assertThat(cluster.closed).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldSkipMessagesBeforeRequestedOffset() {
+        cluster.latestOffsets.add(43L);
+        KafkaPartitionConsumer<String, String> consumer = consumer(1);
+        // Compressed message sets may start before the requested offset ...
+        cluster.messages(42L, "a", "b");
+        consumer.run();
+        assertThat(consumed).isEqualTo(Arrays.asList("43:key-43:b"));
+    }
+
+    @Test
+    public void shouldSkipToEndOfPartitionWhenOffsetIsOutOfRange() {
+        cluster.latestOffsets.add(10L);
+        cluster.latestOffsets.add(50L);
+        KafkaPartitionConsumer<String, String> consumer = consumer(1);
+        cluster.error(ErrorMapping.OffsetOutOfRangeCode());
+        cluster.messages(50L, "x");
+        consumer.run();
+        assertThat(cluster.fetchedOffsets).isEqualTo(Arrays.asList(10L, 50L));
+        assertThat(consumed).isEqualTo(Arrays.asList("50:key-50:x"));
+        // The consumer stayed connected to the leader ...
+        assertThat(cluster.connections).isEqualTo(Arrays.asList("down:9092", "up:9092", "hostB:9094"));
+    }
+
+    @Test
+    public void shouldReconnectToLeaderAfterOtherErrors() {
+        cluster.latestOffsets.add(7L);
+        KafkaPartitionConsumer<String, String> consumer = consumer(1);
+        cluster.error(ErrorMapping.NotLeaderForPartitionCode());
+        cluster.messages(7L, "y");
+        consumer.run();
+        assertThat(cluster.fetchedOffsets).isEqualTo(Arrays.asList(7L, 7L));
+        assertThat(consumed).isEqualTo(Arrays.asList("7:key-7:y"));
+        // The offset is kept when reconnecting to the (new) leader ...
+        assertThat(cluster.connections).isEqualTo(Arrays.asList("down:9092", "up:9092", "hostB:9094", "down:9092", "up:9092",
+                                                                "hostB:9094"));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class MicroBatcherTest {
+
+    private AtomicLong nanos;
+    private List<String> submitted;
+    private MicroBatcher<String, Integer> batcher;
+
+    @Before
+    public void beforeEach() {
+        nanos = new AtomicLong();
+        submitted = new ArrayList<>();
+        batcher = new MicroBatcher<>(3, 5, TimeUnit.MILLISECONDS, (key, parts) -> submitted.add(key + parts), nanos::get);
+    }
+
+    protected void advanceTo(long millis) {
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    @Test
+    public void shouldSubmitBatchWhenFull() {
+        batcher.add("a", 1);
+        batcher.add("a", 2);
+        assertThat(submitted).isEmpty();
+        batcher.add("a", 3);
+        assertThat(submitted).isEqualTo(Arrays.asList("a[1, 2, 3]"));
+        assertThat(batcher.size()).isEqualTo(0);
+        batcher.add("a", 4);
+        assertThat(batcher.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldSubmitBatchOnlyAfterLingerTime() {
+        batcher.add("a", 1);
+        advanceTo(3);
+        batcher.add("b", 2);
+        assertThat(batcher.flushExpired()).isEqualTo(0);
+        advanceTo(5);
+        assertThat(batcher.flushExpired()).isEqualTo(1);
+        assertThat(submitted).isEqualTo(Arrays.asList("a[1]"));
+        advanceTo(8);
+        assertThat(batcher.flushExpired()).isEqualTo(1);
+        assertThat(submitted).isEqualTo(Arrays.asList("a[1]", "b[2]"));
+        assertThat(batcher.flushExpired()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldKeepSeparateBatchesForEachKey() {
+        batcher.add("a", 1);
+        batcher.add("b", 2);
+        batcher.add("a", 3);
+        assertThat(batcher.size()).isEqualTo(2);
+        assertThat(batcher.flushAll()).isEqualTo(2);
+        assertThat(submitted).hasSize(2);
+        assertThat(submitted).contains("a[1, 3]", "b[2]");
+        assertThat(batcher.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSubmitEveryPartExactlyOnceWhenAddedConcurrently() throws Exception {
+        Map<Integer, Integer> seen = new ConcurrentHashMap<>();
+        AtomicInteger batches = new AtomicInteger();
+        MicroBatcher<String, Integer> concurrent = new MicroBatcher<>(7, 1, TimeUnit.MILLISECONDS, (key, parts) -> {
+            assertThat(parts.size()).isLessThanOrEqualTo(7);
+            batches.incrementAndGet();
+            parts.forEach(part -> seen.merge(part, 1, Integer::sum));
+        });
+        int threads = 4;
+        int perThread = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            for (int t = 0; t != threads; ++t) {
+                int first = t * perThread;
+                executor.execute(() -> {
+                    for (int i = first; i != first + perThread; ++i) {
+                        concurrent.add("k" + (i % 2), i);
+                    }
+                    done.countDown();
+                });
+            }
+            executor.execute(() -> {
+                while (done.getCount() != 0) {
+                    concurrent.flushExpired();
+                }
+            });
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+            // The flushing thread may still be submitting a batch ...
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+        concurrent.flushAll();
+        assertThat(seen.size()).isEqualTo(threads * perThread);
+        assertThat(seen.values().stream().allMatch(count -> count == 1)).isTrue();
+        assertThat(batches.get()).isLessThan(threads * perThread);
+    }
+}
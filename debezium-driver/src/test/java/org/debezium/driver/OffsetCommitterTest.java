@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class OffsetCommitterTest {
+
+    private final AtomicInteger commits = new AtomicInteger();
+
+    protected void consume(OffsetCommitter committer, String topic, int partition, long offset) {
+        long stamp = committer.begin();
+        committer.processed(topic, partition, offset);
+        committer.end(stamp);
+    }
+
+    @Test
+    public void shouldCommitOnlyWhenMessagesHaveBeenProcessed() {
+        OffsetCommitter committer = new OffsetCommitter("test", commits::incrementAndGet, 10, 1, TimeUnit.HOURS);
+        assertThat(committer.commit()).isFalse();
+        consume(committer, "topicA", 0, 5L);
+        consume(committer, "topicA", 0, 6L);
+        consume(committer, "topicA", 1, 3L);
+        assertThat(committer.uncommitted()).isEqualTo(3L);
+        assertThat(committer.lag("topicA", 0)).isEqualTo(7L);
+        assertThat(committer.commit()).isTrue();
+        assertThat(commits.get()).isEqualTo(1);
+        assertThat(committer.uncommitted()).isEqualTo(0L);
+        assertThat(committer.lag("topicA", 0)).isEqualTo(0L);
+        consume(committer, "topicA", 0, 9L);
+        assertThat(committer.lag("topicA", 0)).isEqualTo(3L);
+        assertThat(committer.lag("topicA", 1)).isEqualTo(0L);
+        assertThat(committer.lag("topicB", 0)).isEqualTo(0L);
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("topicA/0", 3L);
+        expected.put("topicA/1", 0L);
+        assertThat(committer.lags()).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldCommitInBackgroundAfterMaximumNumberOfMessages() throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        OffsetCommitter committer = new OffsetCommitter("test", committed::countDown, 3, 1, TimeUnit.HOURS);
+        Thread thread = new Thread(committer);
+        thread.start();
+        try {
+            consume(committer, "topicA", 0, 1L);
+            consume(committer, "topicA", 0, 2L);
+            assertThat(committed.await(100, TimeUnit.MILLISECONDS)).isFalse();
+            consume(committer, "topicA", 0, 3L);
+            assertThat(committed.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            committer.close();
+            thread.join(10000);
+        }
+        assertThat(thread.isAlive()).isFalse();
+    }
+
+    @Test
+    public void shouldCommitInBackgroundAfterInterval() throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        OffsetCommitter committer = new OffsetCommitter("test", committed::countDown, 1000, 10, TimeUnit.MILLISECONDS);
+        Thread thread = new Thread(committer);
+        thread.start();
+        try {
+            consume(committer, "topicA", 0, 1L);
+            assertThat(committed.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            committer.close();
+            thread.join(10000);
+        }
+    }
+
+    @Test
+    public void shouldWaitForMessagesBeingProcessedOnOtherThreadsBeforeCommitting() throws InterruptedException {
+        OffsetCommitter committer = new OffsetCommitter("test", commits::incrementAndGet, 10, 1, TimeUnit.HOURS);
+        consume(committer, "topicA", 0, 1L);
+        long stamp = committer.begin();
+        Thread thread = new Thread(committer::commit);
+        thread.start();
+        thread.join(200);
+        assertThat(commits.get()).isEqualTo(0);
+        // Finish processing the message on a different thread ...
+        Thread worker = new Thread(() -> {
+            committer.processed("topicA", 0, 2L);
+            committer.end(stamp);
+        });
+        worker.start();
+        thread.join(10000);
+        assertThat(commits.get()).isEqualTo(1);
+        assertThat(committer.lag("topicA", 0)).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldCommitWhenClosed() {
+        OffsetCommitter committer = new OffsetCommitter("test", commits::incrementAndGet, 10, 1, TimeUnit.HOURS);
+        consume(committer, "topicA", 0, 1L);
+        committer.close();
+        assertThat(commits.get()).isEqualTo(1);
+        committer.close();
+        assertThat(commits.get()).isEqualTo(1);
+    }
+}
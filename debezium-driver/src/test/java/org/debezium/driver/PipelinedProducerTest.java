@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import kafka.producer.KeyedMessage;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class PipelinedProducerTest {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final List<KeyedMessage<byte[], byte[]>> sent = new CopyOnWriteArrayList<>();
+    private PipelinedProducer pipeline;
+    private Thread thread;
+
+    protected void start(MessageProducer producer, int maxBatchSize, int maxInFlightBytes) {
+        pipeline = new PipelinedProducer(() -> producer, 0, TimeUnit.MILLISECONDS, maxBatchSize, maxInFlightBytes);
+        thread = new Thread(pipeline);
+        thread.start();
+    }
+
+    @After
+    public void afterEach() throws InterruptedException {
+        if (pipeline != null) {
+            assertThat(pipeline.close(10, TimeUnit.SECONDS)).isTrue();
+            thread.join(10000);
+        }
+    }
+
+    protected static KeyedMessage<byte[], byte[]> message(String topic, int size) {
+        return new KeyedMessage<>(topic, new byte[1], null, new byte[size - 1]);
+    }
+
+    protected MessageProducer recordingProducer(CountDownLatch gate) {
+        return new MessageProducer() {
+            @Override
+            public boolean send(KeyedMessage<byte[], byte[]> message) {
+                return send(Collections.singletonList(message));
+            }
+
+            @Override
+            public boolean send(List<KeyedMessage<byte[], byte[]>> messages) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+                batchSizes.add(messages.size());
+                sent.addAll(messages);
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void shouldSendMessagesInOrderAndInBatches() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        start(recordingProducer(gate), 3, 1000);
+        List<KeyedMessage<byte[], byte[]>> messages = new ArrayList<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i != 7; ++i) {
+            KeyedMessage<byte[], byte[]> message = message("topic" + (i % 2), 10);
+            messages.add(message);
+            futures.add(pipeline.send(message));
+        }
+        // Let the first batch through, after which the remaining messages are waiting ...
+        gate.countDown();
+        for (CompletableFuture<Boolean> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(sent).isEqualTo(messages);
+        batchSizes.forEach(size -> assertThat(size).isLessThanOrEqualTo(3));
+        assertThat(batchSizes.size()).isLessThan(7);
+    }
+
+    @Test
+    public void shouldBlockCallersWhenTooManyBytesAreInFlight() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        start(recordingProducer(gate), 10, 100);
+        CompletableFuture<Boolean> first = pipeline.send(message("topic", 60));
+        AtomicBoolean secondAccepted = new AtomicBoolean();
+        Thread caller = new Thread(() -> {
+            pipeline.send(message("topic", 60));
+            secondAccepted.set(true);
+        });
+        caller.start();
+        caller.join(200);
+        assertThat(secondAccepted.get()).isFalse();
+        gate.countDown();
+        assertThat(first.get(10, TimeUnit.SECONDS)).isTrue();
+        caller.join(10000);
+        assertThat(secondAccepted.get()).isTrue();
+    }
+
+    @Test
+    public void shouldCompleteWithFalseWhenProducerFails() throws Exception {
+        start(message -> false, 10, 1000);
+        assertThat(pipeline.send(message("topic", 10)).get(10, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    public void shouldNotAcceptMessagesAfterClose() throws Exception {
+        start(message -> true, 10, 1000);
+        assertThat(pipeline.close(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(pipeline.send(message("topic", 10)).get(10, TimeUnit.SECONDS)).isFalse();
+    }
+}
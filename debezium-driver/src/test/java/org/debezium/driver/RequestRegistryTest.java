@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class RequestRegistryTest {
+
+    @Test
+    public void shouldRegisterAndRemoveSequentialRequestNumbers() {
+        RequestRegistry<String> registry = new RequestRegistry<>();
+        for (long i = 1; i <= 10000; ++i) {
+            assertThat(registry.put(i, "r" + i)).isNull();
+        }
+        assertThat(registry.size()).isEqualTo(10000);
+        for (long i = 1; i <= 10000; i += 2) {
+            assertThat(registry.remove(i)).isEqualTo("r" + i);
+        }
+        assertThat(registry.size()).isEqualTo(5000);
+        for (long i = 1; i <= 10000; ++i) {
+            assertThat(registry.get(i)).isEqualTo(i % 2 == 0 ? "r" + i : null);
+        }
+        assertThat(registry.remove(1L)).isNull();
+        assertThat(registry.put(2L, "again")).isEqualTo("r2");
+        assertThat(registry.get(2L)).isEqualTo("again");
+    }
+
+    @Test
+    public void shouldMatchHashMapAfterRandomOperations() {
+        RequestRegistry<Long> registry = new RequestRegistry<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i != 100000; ++i) {
+            long key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertThat(registry.put(key, key)).isEqualTo(expected.put(key, key));
+            } else {
+                assertThat(registry.remove(key)).isEqualTo(expected.remove(key));
+            }
+        }
+        assertThat(registry.size()).isEqualTo(expected.size());
+        for (long key = 0; key != 2000; ++key) {
+            assertThat(registry.get(key)).isEqualTo(expected.get(key));
+        }
+        Map<Long, Long> actual = new HashMap<>();
+        registry.forEach(value -> actual.put(value, value));
+        assertThat(actual).isEqualTo(expected);
+    }
+}
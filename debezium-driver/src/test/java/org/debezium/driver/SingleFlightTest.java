@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import static org.junit.Assert.fail;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void shouldPerformOperationOnceForConcurrentCallers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(value -> value + "-copy");
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> operation = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.execute("k", () -> {
+            calls.incrementAndGet();
+            return operation;
+        });
+        CompletableFuture<String> second = flight.execute("k", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(flight.size()).isEqualTo(1);
+        assertThat(second.isDone()).isFalse();
+        operation.complete("value");
+        assertThat(first.get()).isEqualTo("value");
+        assertThat(second.get()).isEqualTo("value-copy");
+        assertThat(flight.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldPerformOperationAgainAfterPreviousOperationCompletes() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        assertThat(flight.execute("k", () -> CompletableFuture.completedFuture("v" + calls.incrementAndGet())).get()).isEqualTo("v1");
+        assertThat(flight.execute("k", () -> CompletableFuture.completedFuture("v" + calls.incrementAndGet())).get()).isEqualTo("v2");
+        assertThat(flight.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotJoinOperationThatWasForgotten() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> stale = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.execute("k", () -> stale);
+        CompletableFuture<String> joined = flight.execute("k", CompletableFuture::new);
+        flight.forget("k");
+        CompletableFuture<String> fresh = flight.execute("k", () -> CompletableFuture.completedFuture("fresh"));
+        assertThat(fresh.get()).isEqualTo("fresh");
+        stale.complete("stale");
+        assertThat(first.get()).isEqualTo("stale");
+        assertThat(joined.get()).isEqualTo("stale");
+        assertThat(flight.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldPropagateFailureToAllCallers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CompletableFuture<String> operation = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.execute("k", () -> operation);
+        CompletableFuture<String> second = flight.execute("k", CompletableFuture::new);
+        operation.completeExceptionally(new DebeziumTimeoutException("timed out"));
+        assertFailedWith(first, DebeziumTimeoutException.class);
+        assertFailedWith(second, DebeziumTimeoutException.class);
+        assertThat(flight.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldForgetOperationThatCouldNotBeStarted() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        try {
+            flight.execute("k", () -> {
+                throw new IllegalStateException("not started");
+            });
+            fail("Should have thrown exception");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertThat(flight.size()).isEqualTo(0);
+    }
+
+    private static void assertFailedWith(CompletableFuture<?> future, Class<? extends Throwable> expected) throws Exception {
+        try {
+            future.get();
+            fail("Should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(expected);
+        }
+    }
+}
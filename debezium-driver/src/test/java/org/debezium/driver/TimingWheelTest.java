@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ * 
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class TimingWheelTest {
+
+    private AtomicLong nanos;
+    private TimingWheel wheel;
+    private List<String> expired;
+
+    @Before
+    public void beforeEach() {
+        nanos = new AtomicLong();
+        wheel = new TimingWheel(10, TimeUnit.MILLISECONDS, 8, nanos::get);
+        expired = new ArrayList<>();
+    }
+
+    protected void advanceTo(long millis) {
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(millis));
+        wheel.advance();
+    }
+
+    @Test
+    public void shouldRunTasksOnlyAfterTheirDelay() {
+        wheel.schedule(25, TimeUnit.MILLISECONDS, () -> expired.add("a"));
+        wheel.schedule(10, TimeUnit.MILLISECONDS, () -> expired.add("b"));
+        advanceTo(9);
+        assertThat(expired).isEmpty();
+        advanceTo(10);
+        assertThat(expired).isEqualTo(Arrays.asList("b"));
+        advanceTo(29);
+        assertThat(expired).isEqualTo(Arrays.asList("b"));
+        advanceTo(30);
+        assertThat(expired).isEqualTo(Arrays.asList("b", "a"));
+    }
+
+    @Test
+    public void shouldRunTasksWithDelaysLongerThanOneRevolution() {
+        wheel.schedule(205, TimeUnit.MILLISECONDS, () -> expired.add("a"));
+        for (long millis = 10; millis < 210; millis += 10) {
+            advanceTo(millis);
+            assertThat(expired).isEmpty();
+        }
+        advanceTo(210);
+        assertThat(expired).isEqualTo(Arrays.asList("a"));
+    }
+
+    @Test
+    public void shouldRunAllExpiredTasksWhenAdvancedLate() {
+        wheel.schedule(30, TimeUnit.MILLISECONDS, () -> expired.add("a"));
+        wheel.schedule(500, TimeUnit.MILLISECONDS, () -> expired.add("b"));
+        wheel.schedule(1000, TimeUnit.MILLISECONDS, () -> expired.add("c"));
+        advanceTo(600);
+        assertThat(expired).hasSize(2);
+        assertThat(expired).contains("a", "b");
+    }
+
+    @Test
+    public void shouldNotRunCancelledTasks() {
+        TimingWheel.Timeout timeout = wheel.schedule(10, TimeUnit.MILLISECONDS, () -> expired.add("a"));
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        advanceTo(100);
+        assertThat(expired).isEmpty();
+    }
+}
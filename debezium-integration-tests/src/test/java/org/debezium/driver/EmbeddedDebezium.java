@@ -6,10 +6,12 @@
 package org.debezium.driver;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
@@ -155,12 +157,29 @@ public class EmbeddedDebezium implements Debezium {
                 return delegate.destroyEntity(entityId);
             }
             @Override
+            public BatchBuilder includeInResponses(boolean before, boolean after) {
+                return delegate.includeInResponses(before, after);
+            }
+            @Override
             public BatchResult submit(SessionToken token, long timeout, TimeUnit unit) {
                 return batchTimer.time(()->delegate.submit(token, timeout, unit));
             }
+            @Override
+            public BatchResultStream stream(SessionToken token, long timeout, TimeUnit unit) {
+                return delegate.stream(token, timeout, unit);
+            }
+            @Override
+            public CompletableFuture<BatchResult> submitAsync(SessionToken token, long timeout, TimeUnit unit) {
+                return delegate.submitAsync(token, timeout, unit);
+            }
         };
     }
 
+    @Override
+    public AsyncDebezium async() {
+        return client.async();
+    }
+
     @Override
     public SessionToken connect(String username, String device, String appVersion, String... databaseIds) {
         return connectTimer.time(()-> client.connect(username, device, appVersion, databaseIds));
@@ -181,6 +200,11 @@ public class EmbeddedDebezium implements Debezium {
         return readEntityTimer.time(()->client.readEntity(token, entityId, timeout, unit));
     }
 
+    @Override
+    public Entity readEntity(SessionToken token, EntityId entityId, Collection<String> paths, long timeout, TimeUnit unit) {
+        return readEntityTimer.time(()->client.readEntity(token, entityId, paths, timeout, unit));
+    }
+
     @Override
     public EntityChange changeEntity(SessionToken token, Patch<EntityId> patch, long timeout, TimeUnit unit) {
         return changeEntityTimer.time(()->client.changeEntity(token, patch, timeout, unit));
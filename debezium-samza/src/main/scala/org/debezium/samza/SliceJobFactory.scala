@@ -6,6 +6,7 @@
 package org.debezium.samza
 
 import scala.collection.mutable
+import scala.collection.JavaConversions._
 import org.apache.samza.util.Logging
 import org.apache.samza.SamzaException
 import org.apache.samza.config.Config
@@ -18,26 +19,55 @@ import org.apache.samza.util.Util
 import org.apache.samza.config.JobConfig._
 import org.apache.samza.coordinator.JobCoordinator
 
+object SliceJobFactory {
+
+  /**
+   * Determine the number of containers to run. Every container must be given at least one task, so the number of containers
+   * is limited to the number of tasks (e.g., the number of partitions in the slice when grouping by {@link GroupByPartitionRange}).
+   * @param requestedThreads the number of threads specified in the configuration
+   * @param numTasks the number of tasks in the job
+   * @return the number of containers; always positive
+   */
+  def containerCount( requestedThreads: Int, numTasks: Int ): Int = {
+    math.max(1, math.min(requestedThreads, numTasks))
+  }
+}
+
 /**
  * Creates a new SliceJob job with the given config. A SliceJob is a special form of StreamJob that operates upon a 
  * predefined subset (or "slice") of partitions. As with other jobs, it is identified uniquely by a job name and a job ID. Multiple
  * non-overlapping slices can be run at the same time via jobs with the same name but different IDs.
  * <p>
  * The SliceJob starts one or more SamzaContainer instances in this process based upon the number of threads specified in the 
- * configuration (e.g., "job.threads"). Each container is run in a separate thread, and all of the system stream partitions that
- * make up this slice will be spread across those containers.
+ * configuration (e.g., "job.threads"), up to the number of tasks in the slice. Each container is run in a separate thread, and
+ * the tasks that make up this slice are spread across those containers so that each task (and thus each partition, task instance
+ * and local store) is owned by exactly one container. Messages on a partition are therefore still processed in order by a single
+ * thread, and each container checkpoints only its own tasks, so tasks need not be thread-safe.
  * <p>
  * The job can be safely restarted with a different number of threads, but changing the partitions in the slice may be difficult
  * or time-consuming if the job uses local state.
  */
 class SliceJobFactory extends StreamJobFactory with Logging {
   def getJob(config: Config): StreamJob = {
-    val numContainers = config.getInt("job.threads", 1)
-    val partitionRange = config.get("job.partition.range","ALL")
+    val requestedThreads = config.getInt("job.threads", 1)
+
+    // Find the number of tasks in the slice, since there can be no more containers than tasks ...
+    val singleContainerCoordinator = JobCoordinator(config, 1)
+    val numTasks = singleContainerCoordinator.jobModel.getContainers.values.map(_.getTasks.size).sum
+    val numContainers = SliceJobFactory.containerCount(requestedThreads, numTasks)
+    if (numContainers < requestedThreads) {
+      warn("Job '%s' requested %s threads but has only %s tasks" format (config.get("job.name"), requestedThreads, numTasks))
+    }
     info("Job '%s' will use partitions '%s' and %s threads/containers" format (config.get("job.name"),config.get("job.partition.range"),numContainers))
 
-    val coordinator = JobCoordinator(config, 1)
-    val containerModels:Iterable[ContainerModel] = scala.collection.JavaConversions.collectionAsScalaIterable(coordinator.jobModel.getContainers.values)
+    // Assign disjoint sets of tasks to each container, reusing the job model we already have when there is just one ...
+    val coordinator = if (numContainers == 1) {
+      singleContainerCoordinator
+    } else {
+      singleContainerCoordinator.stop
+      JobCoordinator(config, numContainers)
+    }
+    val containerModels:Iterable[ContainerModel] = coordinator.jobModel.getContainers.values
     val sliceContainers = containerModels.map{ containerModel:ContainerModel =>
       new SliceContainer(containerModel.getContainerId(),SamzaContainer(containerModel,config)) 
     }
@@ -49,4 +79,4 @@ class SliceJobFactory extends StreamJobFactory with Logging {
       coordinator.stop
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.samza
+
+import org.junit.Assert._
+import org.junit.Test
+
+class TestSliceJobFactory {
+  @Test
+  def testContainerCountShouldMatchRequestedThreads {
+    assertEquals(1, SliceJobFactory.containerCount(1, 8))
+    assertEquals(4, SliceJobFactory.containerCount(4, 8))
+    assertEquals(8, SliceJobFactory.containerCount(8, 8))
+  }
+
+  @Test
+  def testContainerCountShouldNotExceedNumberOfTasks {
+    assertEquals(3, SliceJobFactory.containerCount(8, 3))
+    assertEquals(1, SliceJobFactory.containerCount(8, 1))
+  }
+
+  @Test
+  def testContainerCountShouldAlwaysBePositive {
+    assertEquals(1, SliceJobFactory.containerCount(0, 8))
+    assertEquals(1, SliceJobFactory.containerCount(4, 0))
+  }
+}
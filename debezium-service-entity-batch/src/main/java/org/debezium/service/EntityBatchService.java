@@ -1,11 +1,12 @@
 /*
  * Copyright 2014 Red Hat, Inc. and/or its affiliates.
- * 
+ *
  * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
  */
 package org.debezium.service;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.samza.system.IncomingMessageEnvelope;
 import org.apache.samza.system.OutgoingMessageEnvelope;
@@ -16,9 +17,15 @@ import org.apache.samza.task.TaskCoordinator;
 import org.debezium.core.annotation.NotThreadSafe;
 import org.debezium.core.component.DatabaseId;
 import org.debezium.core.component.EntityId;
+import org.debezium.core.component.Identifier;
+import org.debezium.core.doc.Array;
 import org.debezium.core.doc.Document;
+import org.debezium.core.doc.DocumentTemplate;
+import org.debezium.core.doc.Value;
 import org.debezium.core.message.Batch;
 import org.debezium.core.message.Message;
+import org.debezium.core.message.Message.Field;
+import org.debezium.core.message.Message.Status;
 import org.debezium.core.message.Patch;
 import org.debezium.core.message.Topic;
 
@@ -29,42 +36,74 @@ import org.debezium.core.message.Topic;
  * This service consumes the {@value Topic#ENTITY_BATCHES} topic from the "debezium" system, where each
  * incoming message is a {@link Batch batch} containing one or more {@link Patch patches} on entities in the same database.
  * <p>
- * This service produces a message for each patch on the {@value Topic#ENTITY_PATCHES} topic.
- * 
+ * This service produces a message for each patch on the {@value Topic#ENTITY_PATCHES} topic. The headers shared by all of the
+ * patches are encoded only once per batch, and each patch request is built directly in the binary form in which it is written
+ * to the stream. Any patch on an entity in a different database than the batch is not forwarded, and instead a failed partial
+ * response for that patch is written to the {@value Topic#PARTIAL_RESPONSES} topic so that the client is not left waiting for it.
+ *
  * @author Randall Hauch
  */
 @NotThreadSafe
 public class EntityBatchService implements StreamTask {
 
     private static final SystemStream ENTITY_PATCHES = new SystemStream("kafka", Topic.ENTITY_PATCHES);
+    private static final SystemStream PARTIAL_RESPONSES = new SystemStream("kafka", Topic.PARTIAL_RESPONSES);
 
     @Override
     public void process(IncomingMessageEnvelope env, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
         // The key is a random request number ...
         Document batchRequest = (Document) env.getMessage();
 
-        // Construct the batch from the request ...
-        Batch<EntityId> batch = Batch.from(batchRequest);
-        if ( batch.isEmpty() ) return;
-        DatabaseId dbId = batch.stream().findFirst().get().target().databaseId();
+        // Find the patches in the batch (without reconstructing them), skipping any that do not target an entity ...
+        Array patches = batchRequest.getArray(Field.PATCHES);
+        if (patches == null || patches.isEmpty()) return;
+        DatabaseId dbId = Message.getDatabaseId(batchRequest);
+        List<Document> patchRequests = new ArrayList<>(patches.size());
+        List<EntityId> entityIds = new ArrayList<>(patches.size());
+        for (Value value : patches.values()) {
+            if (value == null || !value.isDocument()) continue;
+            Document patch = value.asDocument();
+            if (patch.getArray(Field.OPS) == null) continue;
+            DatabaseId patchDbId = Message.getDatabaseId(patch);
+            if (dbId == null) dbId = patchDbId;
+            if (dbId == null) continue;
+            Identifier id = Message.getId(patch, patchDbId != null ? patchDbId : dbId);
+            if (!(id instanceof EntityId)) continue;
+            patchRequests.add(patch);
+            entityIds.add((EntityId) id);
+        }
 
-        // Fire off a separate request for each patch ...
-        int parts = batch.patchCount();
-        AtomicInteger partCounter = new AtomicInteger(0);
-        batch.forEach(patch -> {
-            // Construct the response message and fire it off ...
-            Document patchRequest = Message.createPatchRequest(batchRequest, patch);
-
-            // Set the headers and the request parts ...
-            Message.copyHeaders(batchRequest, patchRequest);
-            Message.setParts(patchRequest, partCounter.incrementAndGet(), parts);
+        // Encode the headers shared by all of the patch requests only once ...
+        Document headers = Document.create();
+        Message.copySharedHeaders(batchRequest, headers);
+        DocumentTemplate template = DocumentTemplate.with(headers);
 
-            EntityId entityId = patch.target();
-            if (dbId.equals(entityId.databaseId())) {
-                // Send the message for this patch (only if the patched entity is in the same database as the batch request) ...
-                String msgId = entityId.asString();
-                collector.send(new OutgoingMessageEnvelope(ENTITY_PATCHES, msgId, patchRequest));
+        // Fire off a separate request for each patch ...
+        int parts = patchRequests.size();
+        for (int i = 0; i != parts; ++i) {
+            Document patch = patchRequests.get(i);
+            EntityId entityId = entityIds.get(i);
+            String msgId = entityId.asString();
+            int part = i + 1;
+            if (!entityId.isIn(dbId)) {
+                // The patch can't be applied, but the client expects a response for each part ...
+                Document response = Message.createResponseFromRequest(batchRequest);
+                Message.addId(response, entityId);
+                Message.setParts(response, part, parts);
+                Message.setOperations(response, patch);
+                Message.setStatus(response, Status.PATCH_FAILED);
+                Message.addFailureReason(response, "Entity '" + entityId + "' is not in the batch's database '" + dbId + "'.");
+                collector.send(new OutgoingMessageEnvelope(PARTIAL_RESPONSES, Message.getResponsePartitionKey(response), msgId,
+                                                          response));
+                continue;
             }
-        });
+            Document patchRequest = template.create()
+                                            .setAll(entityId.fields())
+                                            .set(Field.PART, Value.create(part))
+                                            .set(Field.PARTS, Value.create(parts))
+                                            .set(Field.OPS, patch.get(Field.OPS))
+                                            .build();
+            collector.send(new OutgoingMessageEnvelope(ENTITY_PATCHES, msgId, patchRequest));
+        }
     }
 }
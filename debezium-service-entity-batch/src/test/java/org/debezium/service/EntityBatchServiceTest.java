@@ -15,6 +15,7 @@ import org.debezium.core.doc.Document;
 import org.debezium.core.doc.Value;
 import org.debezium.core.message.Batch;
 import org.debezium.core.message.Message;
+import org.debezium.core.message.Message.Status;
 import org.debezium.core.message.Topic;
 import org.debezium.samza.AbstractServiceTest;
 import org.junit.Before;
@@ -147,5 +148,26 @@ public class EntityBatchServiceTest extends AbstractServiceTest {
         assertNextMessage(output).hasStream(Topic.ENTITY_PATCHES).isPart(1, 1).hasKey(id).hasMessage(patch);
         assertNoMoreMessages(output);
     }
+    
+    @Test
+    public void shouldRespondWithFailureForPatchesOnEntitiesInOtherDatabases() {
+        EntityId id1 = Identifier.of("db", "collection", "ent1");
+        EntityId id2 = Identifier.of("other-db", "collection", "ent2");
+        EntityId id3 = Identifier.of("db", "collection", "ent3");
+        Batch<Identifier> batch = Batch.create()
+                                       .create(id1).add("field1", Value.create(1)).end()
+                                       .create(id2).add("field2", Value.create(2)).end()
+                                       .create(id3).add("field3", Value.create(3)).end()
+                                       .build();
+        Document msg = batchToDocumentWithDbId(batch);
+        Message.addHeaders(msg, "client-1", 302L, "jsmith");
+        OutputMessages output = process(service, random(), msg);
+        assertThat(output.count()).isEqualTo(3);
+        assertNextMessage(output).hasStream(Topic.ENTITY_PATCHES).isPart(1, 3).hasKey(id1);
+        assertNextMessage(output).hasStream(Topic.PARTIAL_RESPONSES).isPart(2, 3).hasPartitionKey("client-1").hasKey(id2)
+                                 .hasMessage().with(Message.Field.STATUS, Value.create(Status.PATCH_FAILED.code()));
+        assertNextMessage(output).hasStream(Topic.ENTITY_PATCHES).isPart(3, 3).hasKey(id3);
+        assertNoMoreMessages(output);
+    }
 
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.samza.storage.kv.Entry;
+import org.apache.samza.storage.kv.KeyValueStore;
+import org.debezium.core.annotation.NotThreadSafe;
+import org.debezium.core.doc.Document;
+
+/**
+ * A bounded, write-back cache of entities in front of a {@link KeyValueStore}. Changed entities are only marked as dirty, so
+ * that multiple changes to the same entity are coalesced into a single write when the cache is {@link #flush() flushed}. The
+ * least-recently used entities are evicted when the cache is full, and any dirty entity is written to the store as it is
+ * evicted.
+ * <p>
+ * A cache with a capacity of 0 does no caching, and simply reads from and writes to the store.
+ *
+ * @author Randall Hauch
+ */
+@NotThreadSafe
+final class EntityCache {
+
+    private final KeyValueStore<String, Document> store;
+    private final int capacity;
+    private final int maxDirty;
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private final Map<String, Document> entities;
+    private long writes = 0L;
+
+    /**
+     * Create a new cache.
+     *
+     * @param store the store; may not be null
+     * @param capacity the maximum number of entities to be kept in the cache, or 0 if no caching is to be done
+     * @param maxDirty the number of dirty entities that causes the cache to flush, regardless of when the next
+     *            {@link #flush()} is called; must be positive
+     */
+    EntityCache(KeyValueStore<String, Document> store, int capacity, int maxDirty) {
+        assert store != null;
+        assert maxDirty > 0;
+        this.store = store;
+        this.capacity = Math.max(capacity, 0);
+        this.maxDirty = maxDirty;
+        this.entities = new LinkedHashMap<String, Document>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Document> eldest) {
+                if (size() <= EntityCache.this.capacity) return false;
+                if (dirty.remove(eldest.getKey())) {
+                    write(eldest.getKey(), eldest.getValue());
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the entity with the given key.
+     *
+     * @param key the entity key; may not be null
+     * @return the entity, or null if there is no such entity; the result should not be modified
+     */
+    public Document get(String key) {
+        if (capacity == 0) return store.get(key);
+        Document entity = entities.get(key);
+        if (entity == null) {
+            entity = store.get(key);
+            if (entity != null) entities.put(key, entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Record the new representation of the entity with the given key. The entity will be written to the store upon the next
+     * {@link #flush()}, unless it is changed again before then.
+     *
+     * @param key the entity key; may not be null
+     * @param entity the new entity representation; may not be null, and should not be modified after this call
+     */
+    public void put(String key, Document entity) {
+        if (capacity == 0) {
+            write(key, entity);
+            return;
+        }
+        entities.put(key, entity);
+        dirty.add(key);
+        if (dirty.size() >= maxDirty) flush();
+    }
+
+    /**
+     * Write all dirty entities to the store.
+     */
+    public void flush() {
+        if (dirty.isEmpty()) return;
+        List<Entry<String, Document>> entries = new ArrayList<>(dirty.size());
+        dirty.forEach(key -> entries.add(new Entry<>(key, entities.get(key))));
+        dirty.clear();
+        store.putAll(entries);
+        writes += entries.size();
+    }
+
+    /**
+     * Get the number of dirty entities that have not yet been written to the store.
+     *
+     * @return the number of dirty entities
+     */
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Get the total number of entities written to the store.
+     *
+     * @return the number of writes
+     */
+    public long writeCount() {
+        return writes;
+    }
+
+    private void write(String key, Document entity) {
+        store.put(key, entity);
+        ++writes;
+    }
+}
@@ -5,20 +5,26 @@
  */
 package org.debezium.service;
 
+import java.util.List;
+
 import org.apache.samza.config.Config;
 import org.apache.samza.storage.kv.KeyValueStore;
 import org.apache.samza.system.IncomingMessageEnvelope;
 import org.apache.samza.system.OutgoingMessageEnvelope;
 import org.apache.samza.system.SystemStream;
+import org.apache.samza.task.ClosableTask;
 import org.apache.samza.task.InitableTask;
 import org.apache.samza.task.MessageCollector;
 import org.apache.samza.task.StreamTask;
 import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
+import org.apache.samza.task.TaskCoordinator.RequestScope;
+import org.apache.samza.task.WindowableTask;
 import org.debezium.core.annotation.NotThreadSafe;
 import org.debezium.core.component.EntityId;
 import org.debezium.core.component.Identifier;
 import org.debezium.core.doc.Document;
+import org.debezium.core.doc.Path;
 import org.debezium.core.message.Message;
 import org.debezium.core.message.Message.Status;
 import org.debezium.core.message.Patch;
@@ -33,26 +39,67 @@ import org.debezium.core.message.Topic;
  * patch} for a single entity.
  * <p>
  * This service produces messages describing the changed entities on the {@value Topic#ENTITY_UPDATES} topic, and
- * all read-only requests or errors on the {@value Topic#PARTIAL_RESPONSES} topic.
+ * all read-only requests or errors on the {@value Topic#PARTIAL_RESPONSES} topic (partitioned by the
+ * {@link Message#getResponsePartitionKey(Document) partition requested by the client}, or by client identifier).
+ * A read request may specify a {@link Message#getProjection(Document) projection}, in which case the response
+ * contains only the requested parts of the entity, and a write request may ask that its response
+ * {@link Message#trimWriteResponse(Document) omit} the representations before or after the change.
  * <p>
  * This service uses Samza's storage feature to maintain a durable log of all changes and then use an in-process database for
  * quick access. If this service fails, another can be restarted and can completely recover the cache from the durable log.
+ * <p>
+ * When the "{@value #CACHE_SIZE}" property is positive, the service keeps a bounded cache of entities in front of the store,
+ * and changed entities are written to the store only when the task's window fires (or when "{@value #CACHE_MAX_DIRTY}" entities
+ * have been changed), so that multiple patches to the same entity within a window result in a single write. Responses are still
+ * output as each patch is applied. In this mode the window also requests a commit after flushing the cache, so automatic commits
+ * should be disabled to ensure that checkpoints never include patches whose changes are only in the cache.
  * 
  * @author Randall Hauch
  */
 @NotThreadSafe
-public class EntityStorageService implements StreamTask, InitableTask {
+public class EntityStorageService implements StreamTask, InitableTask, WindowableTask, ClosableTask {
+
+    /**
+     * The name of the configuration property that specifies the maximum number of entities cached by the service. The default
+     * is 0, meaning every change is written to the store immediately.
+     */
+    public static final String CACHE_SIZE = "task.entity.cache.size";
+
+    /**
+     * The name of the configuration property that specifies the number of changed entities that will cause the cache to be
+     * flushed before the next window. The default is 1000.
+     */
+    public static final String CACHE_MAX_DIRTY = "task.entity.cache.max.dirty";
 
     private static final String SYSTEM_NAME = "kafka";
     private static final SystemStream ENTITY_UPDATES = new SystemStream(SYSTEM_NAME, Topic.ENTITY_UPDATES);
     private static final SystemStream PARTIAL_RESPONSES = new SystemStream(SYSTEM_NAME, Topic.PARTIAL_RESPONSES);
 
-    private KeyValueStore<String, Document> store;
+    private EntityCache store;
+    private boolean cached;
 
     @Override
     @SuppressWarnings("unchecked")
     public void init(Config config, TaskContext context) {
-        this.store = (KeyValueStore<String, Document>) context.getStore("entity-store");
+        KeyValueStore<String, Document> store = (KeyValueStore<String, Document>) context.getStore("entity-store");
+        int cacheSize = config.getInt(CACHE_SIZE, 0);
+        int maxDirty = config.getInt(CACHE_MAX_DIRTY, 1000);
+        this.store = new EntityCache(store, cacheSize, Math.max(maxDirty, 1));
+        this.cached = cacheSize > 0;
+    }
+
+    @Override
+    public void window(MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+        if (cached) {
+            // Write out all changed entities, and only then commit the offsets of the patches that changed them ...
+            store.flush();
+            coordinator.commit(RequestScope.CURRENT_TASK);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        store.flush();
     }
 
     @Override
@@ -80,9 +127,10 @@ public class EntityStorageService implements StreamTask, InitableTask {
                     Message.setEnded(response, System.currentTimeMillis());
                     sendResponse(response, idStr, collector);
                 } else {
-                    // We're reading an existing entity ...
+                    // We're reading an existing entity, but return only the requested parts of it ...
                     assert entity != null;
-                    Message.setAfter(response, entity);
+                    List<Path> projection = Message.getProjection(request);
+                    Message.setAfter(response, projection != null ? Message.project(entity, projection) : entity);
                     Message.setEnded(response, System.currentTimeMillis());
                     sendResponse(response, idStr, collector);
                 }
@@ -97,25 +145,27 @@ public class EntityStorageService implements StreamTask, InitableTask {
                 entity = Document.create();
             } else {
                 // and if there capture it as the 'before' ...
-                Message.setBefore(response, entity.clone());
+                Message.setBefore(response, entity);
+                // The cached entity must not be changed if the patch fails, so apply the patch to a (copy-on-write) clone ...
+                entity = entity.clone();
             }
             
             // Apply the patch, which may create the entity ...
             if (patch.apply(entity, (failedOp) -> record(failedOp, response))) {
                 // The entity was successfully changed, so store the changes ...
                 store.put(idStr, entity);
-                Message.setAfter(response, entity.clone());
+                Message.setAfter(response, entity);
                 Message.setEnded(response, System.currentTimeMillis());
 
                 // Output the result ...
                 collector.send(new OutgoingMessageEnvelope(ENTITY_UPDATES, idStr, idStr, response));
 
-                // And also send the response to the partial responses stream ...
-                sendResponse(response, idStr, collector);
+                // And also send the response to the partial responses stream, with only the representations the client wants ...
+                sendResponse(Message.trimWriteResponse(response), idStr, collector);
             } else {
                 // Could not apply the patch, so just output it as unchanged (with the failure recorded) ...
                 Message.setEnded(response, System.currentTimeMillis());
-                sendResponse(response, idStr, collector);
+                sendResponse(Message.trimWriteResponse(response), idStr, collector);
             }
 
         } catch (RuntimeException t) {
@@ -125,8 +175,8 @@ public class EntityStorageService implements StreamTask, InitableTask {
     }
 
     private void sendResponse(Document response, String idStr, MessageCollector collector) {
-        String clientId = Message.getClient(response);
-        collector.send(new OutgoingMessageEnvelope(PARTIAL_RESPONSES, clientId, idStr, response));
+        Object partitionKey = Message.getResponsePartitionKey(response);
+        collector.send(new OutgoingMessageEnvelope(PARTIAL_RESPONSES, partitionKey, idStr, response));
     }
 
     private void record(Operation failedOperation, Document response) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2014 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
+ */
+package org.debezium.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.samza.storage.kv.KeyValueStore;
+import org.apache.samza.task.TaskCoordinator.RequestScope;
+import org.debezium.core.component.EntityId;
+import org.debezium.core.component.Identifier;
+import org.debezium.core.doc.Document;
+import org.debezium.core.doc.Value;
+import org.debezium.core.message.Message;
+import org.debezium.core.message.Patch;
+import org.debezium.core.message.Topic;
+import org.debezium.core.util.Collect;
+import org.debezium.samza.AbstractServiceTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author Randall Hauch
+ *
+ */
+public class EntityStorageServiceTest extends AbstractServiceTest {
+
+    private static final String CLIENT_ID = "some-unique-client";
+    private static final String USER = "jane.smith";
+    private static final EntityId ID = Identifier.of("testdb", "contacts", "1");
+
+    private EntityStorageService service;
+    private Map<String, Object> stores;
+    private long requestId;
+
+    @Before
+    public void beforeEach() {
+        service = new EntityStorageService();
+        stores = new HashMap<>();
+        requestId = 0L;
+    }
+
+    @Test
+    public void shouldWriteEachPatchedEntityToStoreWhenNotCaching() {
+        service.init(testConfig(), testContext(stores));
+
+        OutputMessages output = process(service, ID.asString(), patch("firstName", "Jackie"));
+        assertNextMessage(output).hasStream(Topic.ENTITY_UPDATES).hasKey(ID.asString());
+        assertNextMessage(output).hasStream(Topic.PARTIAL_RESPONSES).hasMessage().with("after/firstName", Value.create("Jackie"));
+        assertNoMoreMessages(output);
+        assertThat(storedEntity().getString("firstName")).isEqualTo("Jackie");
+    }
+
+    @Test
+    public void shouldCoalesceWritesOfCachedEntitiesUntilWindow() throws Exception {
+        service.init(testConfig(Collect.hashMapOf(EntityStorageService.CACHE_SIZE, "10")), testContext(stores));
+
+        // Each patch is immediately reflected in the responses ...
+        OutputMessages output = process(service, ID.asString(), patch("firstName", "Jackie"));
+        assertNextMessage(output).hasStream(Topic.ENTITY_UPDATES).hasKey(ID.asString());
+        assertNextMessage(output).hasStream(Topic.PARTIAL_RESPONSES).hasMessage().with("after/firstName", Value.create("Jackie"));
+        assertNoMoreMessages(output);
+        output = process(service, ID.asString(), patch("lastName", "Jones"));
+        assertNextMessage(output).hasStream(Topic.ENTITY_UPDATES).hasKey(ID.asString());
+        assertNextMessage(output).hasStream(Topic.PARTIAL_RESPONSES).hasMessage()
+                                 .with("before/firstName", Value.create("Jackie"))
+                                 .with("after/lastName", Value.create("Jones"));
+        assertNoMoreMessages(output);
+
+        // but the entity is not written to the store until the window ...
+        assertThat(storedEntity()).isNull();
+        List<RequestScope> commits = new ArrayList<>();
+        service.window(collect(env -> {}), coordinator(commits::add));
+        assertThat(storedEntity().getString("firstName")).isEqualTo("Jackie");
+        assertThat(storedEntity().getString("lastName")).isEqualTo("Jones");
+        assertThat(commits.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFlushCacheWhenMaximumNumberOfDirtyEntitiesIsReached() {
+        service.init(testConfig(Collect.hashMapOf(EntityStorageService.CACHE_SIZE, "10",
+                                                  EntityStorageService.CACHE_MAX_DIRTY, "1")),
+                     testContext(stores));
+        process(service, ID.asString(), patch("firstName", "Jackie"));
+        assertThat(storedEntity().getString("firstName")).isEqualTo("Jackie");
+    }
+
+    @Test
+    public void shouldSendResponseToPartitionRequestedByClient() {
+        service.init(testConfig(), testContext(stores));
+
+        Document request = patch("firstName", "Jackie");
+        Message.setResponsePartition(request, 3);
+        OutputMessages output = process(service, ID.asString(), request);
+        assertNextMessage(output).hasStream(Topic.ENTITY_UPDATES).hasKey(ID.asString());
+        assertNextMessage(output).hasStream(Topic.PARTIAL_RESPONSES).hasPartitionKey(3);
+        assertNoMoreMessages(output);
+
+        output = process(service, ID.asString(), patch("lastName", "Jones"));
+        assertNextMessage(output).hasStream(Topic.ENTITY_UPDATES).hasKey(ID.asString());
+        assertNextMessage(output).hasStream(Topic.PARTIAL_RESPONSES).hasPartitionKey(CLIENT_ID);
+        assertNoMoreMessages(output);
+    }
+
+    @Test
+    public void shouldReturnOnlyProjectedPartsOfReadEntity() {
+        service.init(testConfig(), testContext(stores));
+        process(service, ID.asString(), patch("firstName", "Jackie"));
+        process(service, ID.asString(), patch("lastName", "Jones"));
+
+        Document msg = Document.create();
+        Message.addHeaders(msg, CLIENT_ID, ++requestId, USER);
+        Document request = Message.createPatchRequest(msg, Patch.read(ID));
+        Message.setProjection(request, Arrays.asList("lastName", "middleName"));
+        OutputMessages output = process(service, ID.asString(), request);
+        Document after = Message.getAfter((Document) output.removeFirst().getMessage());
+        assertNoMoreMessages(output);
+        assertThat(after.getString("lastName")).isEqualTo("Jones");
+        assertThat(after.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldOmitRepresentationsFromWriteResponseOnlyWhenRequested() {
+        service.init(testConfig(), testContext(stores));
+        process(service, ID.asString(), patch("firstName", "Jackie"));
+
+        Document request = patch("lastName", "Jones");
+        Message.setIncludeBefore(request, false);
+        Message.setIncludeAfter(request, false);
+        OutputMessages output = process(service, ID.asString(), request);
+        Document update = (Document) output.removeFirst().getMessage();
+        Document response = (Document) output.removeFirst().getMessage();
+        assertNoMoreMessages(output);
+        assertThat(Message.getAfter(update).getString("lastName")).isEqualTo("Jones");
+        assertThat(Message.getBefore(update)).isNotNull();
+        assertThat(Message.getStatus(response)).isEqualTo(Message.Status.SUCCESS);
+        assertThat(Message.getAfter(response)).isNull();
+        assertThat(Message.getBefore(response)).isNull();
+        assertThat(Message.getEnded(response)).isEqualTo(Message.getEnded(update));
+    }
+
+    protected Document patch(String field, String value) {
+        Document msg = Document.create();
+        Message.addHeaders(msg, CLIENT_ID, ++requestId, USER);
+        return Message.createPatchRequest(msg, Patch.edit(ID).add(field, Value.create(value)).end());
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Document storedEntity() {
+        return ((KeyValueStore<String, Document>) stores.get("entity-store")).get(ID.asString());
+    }
+}
@@ -1,11 +1,20 @@
 /*
  * Copyright 2014 Red Hat, Inc. and/or its affiliates.
- * 
+ *
  * Licensed under the Apache Software License version 2.0, available at http://www.apache.org/licenses/LICENSE-2.0
  */
 package org.debezium.service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
 import org.apache.samza.config.Config;
+import org.apache.samza.storage.kv.Entry;
+import org.apache.samza.storage.kv.KeyValueIterator;
 import org.apache.samza.storage.kv.KeyValueStore;
 import org.apache.samza.system.IncomingMessageEnvelope;
 import org.apache.samza.system.OutgoingMessageEnvelope;
@@ -15,6 +24,7 @@ import org.apache.samza.task.MessageCollector;
 import org.apache.samza.task.StreamTask;
 import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
+import org.apache.samza.task.WindowableTask;
 import org.debezium.core.annotation.NotThreadSafe;
 import org.debezium.core.doc.Document;
 import org.debezium.core.message.Message;
@@ -24,53 +34,139 @@ import org.debezium.core.message.Topic;
  * A service (or task in Samza parlance) to accumulate all of the partial responses, and when all parts are available to
  * publish them the aggregate (containing all partial responses) on the "{@value Topic#COMPLETE_RESPONSES}"
  * topic, which is partitioned by client ID.
- * 
+ * <p>
+ * Each partial response is stored under its own key, along with a small record of the number of parts that have been received.
+ * The aggregate response is assembled only once, when the last part arrives, so the amount of data written to the store is
+ * proportional to the size of the partial responses. Aggregates whose parts have not all arrived within the time specified by the
+ * "{@value #TTL_MS}" property are removed from the store.
+ *
  * @author Randall Hauch
  */
 @NotThreadSafe
-public class ResponseAccumulatorService implements StreamTask, InitableTask {
-    
+public class ResponseAccumulatorService implements StreamTask, InitableTask, WindowableTask {
+
+    /**
+     * The name of the configuration property that specifies the number of milliseconds after the first partial response is
+     * received that an incomplete aggregate will be removed. The default is 300000 (5 minutes); a value of 0 or less means
+     * that incomplete aggregates are never removed.
+     */
+    public static final String TTL_MS = "task.responses.ttl.ms";
+
     private static final SystemStream COMPLETE_RESPONSES = new SystemStream("kafka", Topic.COMPLETE_RESPONSES);
 
+    private static final String RECEIVED = "received";
+
+    private final LongSupplier clock;
+    private final Map<String, Long> pending = new LinkedHashMap<>();
     private KeyValueStore<String, Document> cache;
-    
+    private long ttl;
+
+    public ResponseAccumulatorService() {
+        this(System::currentTimeMillis);
+    }
+
+    ResponseAccumulatorService(LongSupplier clock) {
+        this.clock = clock;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void init(Config config, TaskContext context) {
         this.cache = (KeyValueStore<String, Document>) context.getStore("responses-cache");
+        this.ttl = config.getLong(TTL_MS, 300000L);
+
+        // Find the incomplete aggregates that were recovered from the store, oldest first ...
+        List<Entry<String, Document>> counters = new ArrayList<>();
+        KeyValueIterator<String, Document> iter = cache.all();
+        try {
+            while (iter.hasNext()) {
+                Entry<String, Document> entry = iter.next();
+                if (entry.getValue().has(RECEIVED)) counters.add(entry);
+            }
+        } finally {
+            iter.close();
+        }
+        counters.sort((a, b) -> Long.compare(begun(a.getValue()), begun(b.getValue())));
+        counters.forEach(entry -> pending.put(entry.getKey(), begun(entry.getValue())));
     }
-    
+
     @Override
     public void process(IncomingMessageEnvelope env, MessageCollector collector, TaskCoordinator coordinator) throws Exception {
         String responseId = (String) env.getKey();
         Document response = (Document) env.getMessage();
         String clientId = Message.getClient(response);
-        if (Message.getParts(response) == 1) {
+        int parts = Message.getParts(response);
+        if (parts == 1) {
             // This is the only message in the batch, so forward it on directly ...
             collector.send(new OutgoingMessageEnvelope(COMPLETE_RESPONSES, clientId, responseId, response));
             return;
         }
-        
+
         // Otherwise, there is more than 1 part to the batch ...
         String responseKey = clientId + "/" + Message.getRequest(response);
-        Document aggregateResponse = cache.get(responseKey);
-        boolean done = false;
-        if (aggregateResponse == null) {
+        String partKey = partKey(responseKey, Message.getPart(response));
+        Document counter = cache.get(responseKey);
+        if (counter == null) {
             // This is the first part we've seen ...
-            aggregateResponse = Message.createAggregateResponseFrom(response);
-        } else {
-            // We already have an aggregate ...
-            done = Message.addToAggregateResponse(aggregateResponse, response);
+            long now = clock.getAsLong();
+            counter = Document.create(Message.Field.PARTS, parts, Message.Field.BEGUN, now, RECEIVED, 0);
+            pending.put(responseKey, now);
+        } else if (cache.get(partKey) != null) {
+            // We've already seen this part (e.g., after a restart), so there's nothing to do ...
+            return;
+        }
+        int received = counter.getInteger(RECEIVED) + 1;
+
+        if (received < parts) {
+            // Store the part and the updated (but still incomplete) counter ...
+            cache.put(partKey, response);
+            counter.setNumber(RECEIVED, received);
+            cache.put(responseKey, counter);
+            return;
+        }
+
+        // This is the last part, so assemble the aggregate ...
+        List<Document> partials = new ArrayList<>(parts);
+        for (int part = 1; part <= parts; ++part) {
+            String key = partKey(responseKey, part);
+            partials.add(key.equals(partKey) ? response : cache.get(key));
         }
-        
-        if (done) {
-            // FIRST send the message ...
-            collector.send(new OutgoingMessageEnvelope(COMPLETE_RESPONSES, clientId, responseId, aggregateResponse));
-            // And only if that is successful THEN remove from the cache ...
-            this.cache.delete(responseKey);
-        } else {
-            // Update the cache with the updated but still incomplete aggregate response ...
-            this.cache.put(responseKey, aggregateResponse);
+        Document aggregateResponse = Message.createAggregateResponse(partials, begun(counter));
+
+        // FIRST send the message ...
+        collector.send(new OutgoingMessageEnvelope(COMPLETE_RESPONSES, clientId, responseId, aggregateResponse));
+        // And only if that is successful THEN remove from the cache ...
+        remove(responseKey, parts);
+    }
+
+    @Override
+    public void window(MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+        if (ttl <= 0L) return;
+        long expired = clock.getAsLong() - ttl;
+        Iterator<Map.Entry<String, Long>> iter = pending.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<String, Long> entry = iter.next();
+            // The entries are in the order they were started, so stop at the first one that hasn't expired ...
+            if (entry.getValue() > expired) break;
+            iter.remove();
+            Document counter = cache.get(entry.getKey());
+            if (counter != null) remove(entry.getKey(), Message.getParts(counter));
         }
     }
+
+    private void remove(String responseKey, int parts) {
+        pending.remove(responseKey);
+        for (int part = 1; part <= parts; ++part) {
+            cache.delete(partKey(responseKey, part));
+        }
+        cache.delete(responseKey);
+    }
+
+    private static String partKey(String responseKey, int part) {
+        return responseKey + "/" + part;
+    }
+
+    private static long begun(Document counter) {
+        return counter.getLong(Message.Field.BEGUN, 0L);
+    }
 }
@@ -6,7 +6,13 @@
 package org.debezium.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.samza.storage.kv.KeyValueIterator;
+import org.apache.samza.storage.kv.KeyValueStore;
 
 import org.debezium.Testing;
 import org.debezium.core.component.EntityId;
@@ -14,10 +20,13 @@ import org.debezium.core.component.Identifier;
 import org.debezium.core.doc.Document;
 import org.debezium.core.message.Message;
 import org.debezium.core.message.Topic;
+import org.debezium.core.util.Collect;
 import org.debezium.samza.AbstractServiceTest;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.fest.assertions.Assertions.assertThat;
+
 /**
  * @author Randall Hauch
  *
@@ -32,11 +41,15 @@ public class ResponseAccumulatorServiceTest extends AbstractServiceTest {
     private static final EntityId ID2 = Identifier.of("db", "collection", "ent2");
     
     private ResponseAccumulatorService service;
+    private Map<String, Object> stores;
+    private AtomicLong clock;
     
     @Before
     public void beforeEach() {
-        service = new ResponseAccumulatorService();
-        service.init(testConfig(), testContext());
+        clock = new AtomicLong(1000L);
+        stores = new HashMap<>();
+        service = new ResponseAccumulatorService(clock::get);
+        service.init(testConfig(Collect.hashMapOf(ResponseAccumulatorService.TTL_MS, "60000")), testContext(stores));
     }
     
     @Test
@@ -145,4 +158,64 @@ public class ResponseAccumulatorServiceTest extends AbstractServiceTest {
         assertNoMoreMessages(output);
     }
     
+    @Test
+    public void shouldIgnoreDuplicatePart() {
+        Document msg1 = createPart(ID1, 1, 2);
+        Document msg2 = createPart(ID2, 2, 2);
+        assertNoMoreMessages(process(service, RESPONSE_ID, msg1));
+        assertNoMoreMessages(process(service, RESPONSE_ID, msg1));
+        OutputMessages output = process(service, RESPONSE_ID, msg2);
+        assertNextMessage(output).hasStream(Topic.COMPLETE_RESPONSES).isAggregateOf(msg1, msg2);
+        assertNoMoreMessages(output);
+        assertThat(storeSize()).isEqualTo(0);
+    }
+    
+    @Test
+    public void shouldRemoveIncompleteAggregatesAfterTimeToLive() {
+        assertNoMoreMessages(process(service, RESPONSE_ID, createPart(ID1, 1, 3)));
+        assertNoMoreMessages(process(service, RESPONSE_ID, createPart(ID2, 2, 3)));
+        assertThat(storeSize()).isEqualTo(3);
+        
+        // Not yet expired ...
+        clock.addAndGet(30000L);
+        assertNoMoreMessages(window(service));
+        assertThat(storeSize()).isEqualTo(3);
+        
+        // Now expired ...
+        clock.addAndGet(30000L);
+        assertNoMoreMessages(window(service));
+        assertThat(storeSize()).isEqualTo(0);
+    }
+    
+    @Test
+    public void shouldRemoveRecoveredIncompleteAggregatesAfterTimeToLive() {
+        assertNoMoreMessages(process(service, RESPONSE_ID, createPart(ID1, 1, 2)));
+        
+        // Restart the service with the same store ...
+        service = new ResponseAccumulatorService(clock::get);
+        service.init(testConfig(Collect.hashMapOf(ResponseAccumulatorService.TTL_MS, "60000")), testContext(stores));
+        clock.addAndGet(60000L);
+        assertNoMoreMessages(window(service));
+        assertThat(storeSize()).isEqualTo(0);
+    }
+    
+    protected Document createPart(EntityId id, int part, int parts) {
+        Document msg = Document.create();
+        Message.addId(msg, id);
+        Message.addHeaders(msg, CLIENT_ID, REQUEST_ID, USER);
+        Message.setParts(msg, part, parts);
+        return msg;
+    }
+    
+    @SuppressWarnings("unchecked")
+    protected int storeSize() {
+        KeyValueIterator<String, Document> iter = ((KeyValueStore<String, Document>) stores.get("responses-cache")).all();
+        int count = 0;
+        while (iter.hasNext()) {
+            iter.next();
+            ++count;
+        }
+        iter.close();
+        return count;
+    }
 }
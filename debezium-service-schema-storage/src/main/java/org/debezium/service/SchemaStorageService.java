@@ -34,7 +34,7 @@ import org.debezium.core.message.Topic;
  * <p>
  * This service produces messages describing the changed schemas on the "{@value Topic#SCHEMA_UPDATES}" topic (partitioned by
  * database identifier), and all read-only requests or errors on the "{@value Topic#PARTIAL_RESPONSES}" topic (partitioned by
- * client identifier).
+ * the {@link Message#getResponsePartitionKey(Document) partition requested by the client}, or by client identifier).
  * <p>
  * This service uses Samza's storage feature to maintain a durable log of all changes and then uses an in-process database for
  * quick access. If this service fails, another can be restarted and can completely recover the data from the durable log.
@@ -108,11 +108,11 @@ public class SchemaStorageService implements StreamTask, InitableTask {
                 // Output the result ...
                 collector.send(new OutgoingMessageEnvelope(SCHEMA_UPDATES, dbIdStr, dbIdStr, response));
 
-                // And (depending upon the config) also send the response to the partial responses stream ...
-                sendResponse(response, dbIdStr, collector);
+                // And also send the response to the partial responses stream, with only the representations the client wants ...
+                sendResponse(Message.trimWriteResponse(response), dbIdStr, collector);
             } else {
                 // Otherwise the patch failed, so just output it as unchanged ...
-                sendResponse(response, dbIdStr, collector);
+                sendResponse(Message.trimWriteResponse(response), dbIdStr, collector);
             }
         } catch (RuntimeException t) {
             t.printStackTrace();
@@ -121,8 +121,8 @@ public class SchemaStorageService implements StreamTask, InitableTask {
     }
 
     private void sendResponse(Document response, String idStr, MessageCollector collector) {
-        String clientId = Message.getClient(response);
-        collector.send(new OutgoingMessageEnvelope(PARTIAL_RESPONSES, clientId, idStr, response));
+        Object partitionKey = Message.getResponsePartitionKey(response);
+        collector.send(new OutgoingMessageEnvelope(PARTIAL_RESPONSES, partitionKey, idStr, response));
     }
 
     private void record(Operation failedOperation, Document response) {
@@ -364,11 +364,23 @@ public abstract class AbstractServiceTest implements Testing {
     }
     
     protected static TaskContext testContext() {
+        return testContext(null);
+    }
+    
+    /**
+     * Create a task context that returns the stores in the supplied map, adding a new in-memory store for each name that is
+     * not yet in the map. This allows tests to inspect the content of the stores used by a service.
+     * 
+     * @param stores the map of stores keyed by name; may be null if a new store is to be returned for every request
+     * @return the task context; never null
+     */
+    protected static TaskContext testContext(Map<String, Object> stores) {
         return new TaskContext() {
             
             @Override
             public Object getStore(String name) {
-                return new MemoryKeyValueStore<Object, Object>(name);
+                if (stores == null) return new MemoryKeyValueStore<Object, Object>(name);
+                return stores.computeIfAbsent(name, MemoryKeyValueStore<Object, Object>::new);
             }
             
             @Override